@@ -0,0 +1,38 @@
+package benchmarks.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * La classe GcProfiledMain lance les benchmarks JMH avec le profileur gc toujours actif (-prof gc),
+ * pour que chaque mesure donne aussi la mémoire allouée par opération (gc.alloc.rate.norm).
+ * Elle accepte les mêmes arguments que la ligne de commande de JMH, par exemple
+ * « java -jar jmh/target/benchmarks.jar HotPathBenchmarks -p position=finale ».
+ */
+public final class GcProfiledMain {
+    /**
+     * Constructeur privé : classe non instanciable.
+     */
+    private GcProfiledMain() {
+    }
+
+    /**
+     * Lance les benchmarks sélectionnés par la ligne de commande.
+     *
+     * @param args les arguments de la ligne de commande de JMH.
+     * @throws CommandLineOptionException si les arguments sont invalides.
+     * @throws RunnerException si l'exécution des benchmarks échoue.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,219 @@
+package benchmarks.jmh;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import benchmarks.BenchmarkPositions;
+import engine.Evaluator;
+import models.Board;
+import models.BoardSnapshot;
+import models.Color;
+import models.Fen;
+import models.Game;
+import models.MoveGenerator;
+import models.MoveList;
+import models.PackedMove;
+import models.Piece;
+import models.Position;
+import strategies.LinearMoveStrategy;
+
+/**
+ * La classe HotPathBenchmarks mesure avec JMH les chemins critiques de l'échiquier, des stratégies
+ * et du statut de la partie sur la série de positions de BenchmarkPositions.
+ * Elle sert de référence avant toute modification de ces chemins : lancée par GcProfiledMain,
+ * chaque mesure donne la latence moyenne et, par le profileur gc, la mémoire allouée par appel.
+ * Les opérations qui dépendent d'une case ou d'un mouvement parcourent une liste préparée,
+ * un curseur différent à chaque appel, pour ne pas mesurer toujours la même entrée.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotPathBenchmarks {
+    @Param({BenchmarkPositions.OPENING_NAME, BenchmarkPositions.MIDDLEGAME_NAME, BenchmarkPositions.ENDGAME_NAME})
+    public String position;
+
+    private Game game;
+    private Board board;
+    private Color them;
+    private int cursor;
+    private ArrayList<Piece> pieces;
+    private ArrayList<Position> targets;
+    private ArrayList<LinearMoveStrategy> sliders;
+    private ArrayList<Position> sliderTargets;
+    private MoveList legalMoves;
+    private BoardSnapshot snapshot;
+    private String fen;
+    private Board scratch;
+
+    /**
+     * Prépare la position mesurée et les entrées parcourues par les mesures.
+     */
+    @Setup
+    public void setUp() {
+        this.game = BenchmarkPositions.create(this.position);
+        this.board = this.game.getBoard();
+        Color us = this.game.getCurrentTurn();
+        this.them = (us == Color.WHITE) ? Color.BLACK : Color.WHITE;
+
+        // Toutes les cases d'arrivée pour chaque pièce du camp au trait
+        this.pieces = new ArrayList<Piece>();
+        this.targets = new ArrayList<Position>();
+        this.sliders = new ArrayList<LinearMoveStrategy>();
+        this.sliderTargets = new ArrayList<Position>();
+        for (int from = 0; from < 64; from++) {
+            Piece piece = this.board.getPiece(from);
+            if (piece == null) {
+                continue;
+            }
+            for (int to = 0; to < 64; to++) {
+                if (piece.getColor() == us) {
+                    this.pieces.add(piece);
+                    this.targets.add(Position.fromSquare(to));
+                }
+                if (piece.getMoveStrategy() instanceof LinearMoveStrategy slider) {
+                    this.sliders.add(slider);
+                    this.sliderTargets.add(Position.fromSquare(to));
+                }
+            }
+        }
+
+        this.legalMoves = new MoveList();
+        MoveGenerator.generateLegalMoves(this.board, this.legalMoves);
+        this.snapshot = BoardSnapshot.of(this.board);
+        this.fen = Fen.toFen(this.board);
+        this.scratch = new Board();
+    }
+
+    /**
+     * Mesure Board.isUnderAttack sur chaque case de l'échiquier.
+     *
+     * @return true si la case est attaquée par le camp adverse.
+     */
+    @Benchmark
+    public boolean isUnderAttack() {
+        return this.board.isUnderAttack(Position.fromSquare(this.cursor++ & 63), this.them);
+    }
+
+    /**
+     * Mesure Board.findKing, alternativement pour chaque camp.
+     *
+     * @return la case du roi.
+     */
+    @Benchmark
+    public int findKing() {
+        return this.board.findKing((this.cursor++ & 1) == 0 ? Color.WHITE : Color.BLACK).getSquare();
+    }
+
+    /**
+     * Mesure Piece.isValidMove pour chaque pièce du camp au trait et chaque case d'arrivée.
+     *
+     * @return true si le mouvement est valide.
+     */
+    @Benchmark
+    public boolean isValidMove() {
+        int i = Math.floorMod(this.cursor++, this.pieces.size());
+        return this.pieces.get(i).isValidMove(this.board, this.targets.get(i));
+    }
+
+    /**
+     * Mesure LinearMoveStrategy.isLinearMove pour chaque pièce à longue portée et chaque case d'arrivée.
+     *
+     * @return true si la trajectoire est libre.
+     */
+    @Benchmark
+    public boolean isLinearMove() {
+        int i = Math.floorMod(this.cursor++, this.sliders.size());
+        return this.sliders.get(i).isLinearMove(this.board, this.sliderTargets.get(i));
+    }
+
+    /**
+     * Joue puis annule chaque mouvement légal, ce qui met aussi à jour le statut de la partie.
+     *
+     * @throws IllegalStateException si un mouvement légal est refusé.
+     */
+    @Benchmark
+    public void makeMoveAndUndo() {
+        int move = this.nextLegalMove();
+        if (!this.game.makeMove(Position.fromSquare(PackedMove.from(move)), Position.fromSquare(PackedMove.to(move)))) {
+            throw new IllegalStateException("Mouvement légal refusé : " + PackedMove.toString(move));
+        }
+        this.game.undoMove();
+    }
+
+    /**
+     * Mesure la copie-jeu sur un instantané immuable.
+     *
+     * @return l'instantané obtenu.
+     */
+    @Benchmark
+    public BoardSnapshot snapshotPlay() {
+        return this.snapshot.play(this.nextLegalMove());
+    }
+
+    /**
+     * Mesure la copie d'un échiquier suivie du mouvement, à comparer à snapshotPlay.
+     *
+     * @return l'échiquier obtenu.
+     */
+    @Benchmark
+    public Board copyAndMakeMove() {
+        Board copy = new Board(this.board);
+        copy.makeMove(this.nextLegalMove());
+        return copy;
+    }
+
+    /**
+     * Mesure Game.hasLegalMoves.
+     *
+     * @return true si le camp au trait a au moins un mouvement légal.
+     */
+    @Benchmark
+    public boolean hasLegalMoves() {
+        return this.game.hasLegalMoves();
+    }
+
+    /**
+     * Mesure Evaluator.evaluate.
+     *
+     * @return l'évaluation de la position.
+     */
+    @Benchmark
+    public int evaluate() {
+        return Evaluator.evaluate(this.board);
+    }
+
+    /**
+     * Charge la position dans un échiquier réutilisé, comme lors de la lecture d'un fichier EPD.
+     *
+     * @return l'échiquier chargé.
+     */
+    @Benchmark
+    public Board fenLoad() {
+        Fen.load(this.scratch, this.fen);
+        return this.scratch;
+    }
+
+    /**
+     * Retourne le prochain mouvement légal de la liste préparée.
+     *
+     * @return le mouvement encodé.
+     */
+    private int nextLegalMove() {
+        return this.legalMoves.get(Math.floorMod(this.cursor++, this.legalMoves.size()));
+    }
+}
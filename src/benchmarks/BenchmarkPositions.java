@@ -0,0 +1,105 @@
+package benchmarks;
+
+import models.Board;
+import models.Color;
+import models.Game;
+import models.Piece;
+import models.PieceType;
+import models.Position;
+
+/**
+ * La classe BenchmarkPositions fournit la série fixe de positions mesurées par les benchmarks :
+ * une ouverture, un milieu de partie et une finale.
+ */
+public final class BenchmarkPositions {
+    /** Le nom de la position d'ouverture. */
+    public static final String OPENING_NAME = "ouverture";
+    /** Le nom de la position de milieu de partie. */
+    public static final String MIDDLEGAME_NAME = "milieu";
+    /** Le nom de la position de finale. */
+    public static final String ENDGAME_NAME = "finale";
+
+    // Ouverture espagnole après 3...a6
+    private static final String[] OPENING = {"e2e4", "e7e5", "g1f3", "b8c6", "f1b5", "a7a6"};
+
+    // Partie italienne lente après une vingtaine de demi-coups, les deux rois roqués
+    private static final String[] MIDDLEGAME = {
+        "e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "f8c5", "c2c3", "g8f6", "d2d3", "d7d6",
+        "e1g1", "e8g8", "f1e1", "a7a6", "c4b3", "c5a7", "h2h3", "h7h6", "b1d2", "f8e8"
+    };
+
+    /**
+     * Constructeur privé : classe non instanciable.
+     */
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * Crée une partie sur une position de la série.
+     *
+     * @param name le nom de la position : « ouverture », « milieu » ou « finale ».
+     * @return la partie créée.
+     * @throws IllegalArgumentException si le nom ne désigne aucune position de la série.
+     */
+    public static Game create(String name) {
+        return switch (name) {
+            case OPENING_NAME -> setUpMoves(OPENING);
+            case MIDDLEGAME_NAME -> setUpMoves(MIDDLEGAME);
+            case ENDGAME_NAME -> setUpEndgame();
+            default -> throw new IllegalArgumentException("Position de benchmark inconnue : " + name + ".");
+        };
+    }
+
+    /**
+     * Crée une partie puis y joue une suite de mouvements en notation en coordonnées.
+     *
+     * @param moves les mouvements à jouer.
+     * @return la partie créée.
+     */
+    private static Game setUpMoves(String[] moves) {
+        Game game = new Game();
+        for (String move : moves) {
+            Position from = new Position(move.charAt(1) - '1', move.charAt(0) - 'a');
+            Position to = new Position(move.charAt(3) - '1', move.charAt(2) - 'a');
+            if (!game.makeMove(from, to)) {
+                throw new IllegalStateException("Mouvement illégal dans la série de positions : " + move);
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Crée une partie sur une finale de tours et cavaliers, les blancs au trait.
+     *
+     * @return la partie créée.
+     */
+    private static Game setUpEndgame() {
+        Game game = new Game();
+        Board board = game.getBoard();
+        board.clear();
+        placePiece(board, "g1", PieceType.KING, Color.WHITE);
+        placePiece(board, "d1", PieceType.ROOK, Color.WHITE);
+        placePiece(board, "e3", PieceType.KNIGHT, Color.WHITE);
+        placePiece(board, "g8", PieceType.KING, Color.BLACK);
+        placePiece(board, "d8", PieceType.ROOK, Color.BLACK);
+        placePiece(board, "c6", PieceType.KNIGHT, Color.BLACK);
+        for (char column : new char[] {'a', 'b', 'f', 'g', 'h'}) {
+            placePiece(board, column + "2", PieceType.PAWN, Color.WHITE);
+            placePiece(board, column + "7", PieceType.PAWN, Color.BLACK);
+        }
+        return game;
+    }
+
+    /**
+     * Pose une pièce sur une case désignée en notation algébrique.
+     *
+     * @param board l'échiquier.
+     * @param square la case, par exemple « e4 ».
+     * @param type le type de la pièce.
+     * @param color la couleur de la pièce.
+     */
+    private static void placePiece(Board board, String square, PieceType type, Color color) {
+        Position position = new Position(square.charAt(1) - '1', square.charAt(0) - 'a');
+        board.setPiece(position, new Piece(type, color, position));
+    }
+}
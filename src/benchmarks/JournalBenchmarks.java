@@ -0,0 +1,76 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+import controllers.GameManager;
+import models.MoveJournal;
+
+/**
+ * La classe JournalBenchmarks mesure le débit de coups de parties simultanées consignées dans un journal.
+ * Chaque partie joue en boucle des coups de cavalier ; une réponse n'est rendue qu'une fois son coup forcé
+ * sur le disque, si bien que le débit dépend de la fenêtre de durabilité et du nombre de parties qui partagent
+ * chaque synchronisation. Le nombre de synchronisations est affiché avec le débit.
+ * Le journal est ensuite rouvert pour mesurer la reprise des parties.
+ * Arguments : [parties] [coups par partie] [fenêtre en ms].
+ */
+public class JournalBenchmarks {
+    // Coups de cavalier qui ramènent la position de départ au bout de quatre demi-coups
+    private static final String[] MOVES = {"g1 f3", "g8 f6", "f3 g1", "f6 g8"};
+
+    /**
+     * Constructeur privé : classe non instanciable.
+     */
+    private JournalBenchmarks() {
+    }
+
+    /**
+     * Joue les parties, affiche le débit et le nombre de synchronisations, puis la durée de la reprise.
+     *
+     * @param args les arguments de la ligne de commande.
+     * @throws IOException si le journal ne peut pas être écrit ou relu.
+     */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int moves = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        long windowMillis = args.length > 2 ? Long.parseLong(args[2]) : 5;
+        Path path = Files.createTempFile("journal", ".bin");
+
+        long start;
+        long nanos;
+        try (MoveJournal journal = MoveJournal.open(path, windowMillis)) {
+            try (GameManager manager = new GameManager(games, moves + 1)) {
+                manager.setJournal(journal);
+                long[] ids = new long[games];
+                for (int i = 0; i < games; i++) {
+                    ids[i] = manager.createGame();
+                }
+                start = System.nanoTime();
+                List<CompletableFuture<String>> responses = new ArrayList<CompletableFuture<String>>();
+                for (int i = 0; i < games; i++) {
+                    for (int move = 0; move < moves; move++) {
+                        responses.add(manager.submit(ids[i], MOVES[move % MOVES.length]));
+                    }
+                }
+                CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0])).join();
+                nanos = System.nanoTime() - start;
+            }
+            long total = (long) games * moves;
+            System.out.println(String.format(Locale.ROOT, "%-40s %12.0f moves/s %8d fsync %10.1f ms",
+                "MoveJournal [" + games + " parties, " + windowMillis + " ms]", total * 1e9 / nanos,
+                journal.getFlushCount(), nanos / 1e6));
+        }
+
+        start = System.nanoTime();
+        try (MoveJournal journal = MoveJournal.open(path, windowMillis)) {
+            System.out.println(String.format(Locale.ROOT, "%-40s %12d games %10.1f ms",
+                "MoveJournal.open (reprise)", journal.getRecoveredGames().size(), (System.nanoTime() - start) / 1e6));
+        }
+        Files.deleteIfExists(path);
+    }
+}
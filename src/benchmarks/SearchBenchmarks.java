@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.util.Locale;
+
+import engine.Engine;
+import engine.SearchLimits;
+import engine.SearchResult;
+import models.Game;
+import models.PackedMove;
+
+/**
+ * La classe SearchBenchmarks compte les nœuds visités par le moteur pour chercher chaque position de la série
+ * jusqu'à une profondeur fixe. À profondeur égale, le nombre de nœuds mesure directement l'efficacité de l'élagage,
+ * et donc de l'ordre des mouvements : c'est la référence à comparer avant et après toute modification de la recherche.
+ * La recherche utilise un seul fil et une table de transposition vidée entre deux positions.
+ * Arguments : [profondeur] [taille de la table en Mo].
+ */
+public class SearchBenchmarks {
+    /**
+     * Constructeur privé : classe non instanciable.
+     */
+    private SearchBenchmarks() {
+    }
+
+    /**
+     * Cherche chaque position de la série et affiche le nombre de nœuds, la durée et le meilleur mouvement.
+     *
+     * @param args les arguments de la ligne de commande.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int hashMegabytes = args.length > 1 ? Integer.parseInt(args[1]) : Engine.DEFAULT_HASH_MEGABYTES;
+
+        long totalNodes = 0;
+        long totalNanos = 0;
+        Game[] games = {
+            BenchmarkPositions.create(BenchmarkPositions.OPENING_NAME),
+            BenchmarkPositions.create(BenchmarkPositions.MIDDLEGAME_NAME),
+            BenchmarkPositions.create(BenchmarkPositions.ENDGAME_NAME)
+        };
+        String[] labels = {"ouverture", "milieu de partie", "finale"};
+        for (int i = 0; i < games.length; i++) {
+            Engine engine = new Engine(SearchLimits.depth(depth), hashMegabytes, 1);
+            SearchResult result = engine.search(games[i].getBoard());
+            totalNodes += result.getNodes();
+            totalNanos += result.getElapsedNanos();
+            System.out.println(String.format(Locale.ROOT, "%-40s %12d nodes %10.1f ms  %s",
+                "Engine.search depth " + depth + " [" + labels[i] + "]", result.getNodes(),
+                result.getElapsedNanos() / 1e6, PackedMove.toString(result.getBestMove())));
+        }
+        System.out.println(String.format(Locale.ROOT, "%-40s %12d nodes %10.1f ms",
+            "total", totalNodes, totalNanos / 1e6));
+    }
+}
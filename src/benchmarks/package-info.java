@@ -0,0 +1,7 @@
+/**
+ * Le package 'benchmarks' contient les mesures de performance du moteur et du journal des parties,
+ * ainsi que la série de positions commune à toutes les mesures.
+ * Les chemins critiques de l'échiquier, des stratégies et du statut de la partie sont mesurés par JMH
+ * dans le module 'jmh' du build Maven, avec le profileur gc pour la mémoire allouée par opération.
+ */
+package benchmarks;
@@ -1,223 +1,320 @@
-package controllers;
-
-import views.GameView;
-
-import java.util.ArrayList;
-import java.util.Random;
-
-import models.Board;
-import models.Color;
-import models.Game;
-import models.Move;
-import models.Piece;
-import models.PieceType;
-import models.Position;
-
-/**
- * La classe GameController gère les commandes et les mouvements dans un jeu d'échecs.
- * Elle interagit avec la vue du jeu (GameView) et le modèle du jeu (Game) pour traiter les commandes
- * et mettre à jour l'état du jeu.
- */
-public class GameController implements ChessController {
-    private GameView view;
-
-    /**
-     * Constructeur de la classe GameController.
-     *
-     * @param view la vue du jeu à associer à ce contrôleur.
-     */
-    public GameController(GameView view) {
-        Game.getGameInstance();
-        this.view = view;
-    }
-
-    /**
-     * Gère une commande dans le jeu d'échecs.
-     *
-     * @param command la commande à gérer, représentée sous forme de chaîne de caractères.
-     */
-    @Override
-    public void handleCommand(String command) {
-        switch (command) {
-            case "quit", "exit":
-                System.out.println("Game ended by player.");
-                Game.getGameInstance().stopGame(this.view);
-                return;
-            case "help":
-                this.view.showHelp();
-                break;
-            case "undo":
-                if(Game.getGameInstance().getBoard().getMoveHistory().size() == 0) {
-                    this.view.showError("No moves to undo!");
-                    return;
-                }
-                Game.getGameInstance().undoMove();
-                break;
-            default:
-                handleMove(command);
-                break;
-        }
-    }
-
-    /**
-     * Gère un mouvement dans le jeu d'échecs.
-     *
-     * @param moveCommand la commande de mouvement à gérer, représentée sous forme de chaîne de caractères.
-     */
-    public void handleMove(String moveCommand) {
-        String[] parts = moveCommand.split(" ");
-        if (parts.length != 2) {
-            this.view.showError("Invalid command format! Use 'e2 e4' format.");
-            return;
-        }
-
-        try {
-            Position from = parsePosition(parts[0]);
-            Position to = parsePosition(parts[1]);
-
-            if (!from.isValid() || !to.isValid()) {
-                this.view.showError("Invalid position!");
-                return;
-            }
-
-            if (Game.getGameInstance().makeMove(from, to)) {
-                Piece piece = Game.getGameInstance().getBoard().getPiece(to);
-                if (piece.getType() == PieceType.PAWN && (to.getRow() == 0 || to.getRow() == 7)) {
-                    PieceType promotionType = (this.view).askPromotionPawn();
-                    Game.getGameInstance().promotePawn(to, promotionType);
-                }
-                this.updateGameStatus();
-            } else {
-                this.view.showError("Invalid move!");
-            }
-        } catch (IllegalArgumentException e) {
-            this.view.showError("Invalid position format! Use 'e2 e4' format.");
-        }
-    }
-
-    /**
-     * Parse une position à partir d'une chaîne de caractères.
-     *
-     * @param pos la position à parser, représentée sous forme de chaîne de caractères.
-     * @return la position parsée.
-     * @throws IllegalArgumentException si le format de la position est invalide.
-     */
-    private Position parsePosition(String pos) {
-        if (pos.length() != 2) {
-            throw new IllegalArgumentException("Invalid position format");
-        }
-        int column = pos.charAt(0) - 'a';
-        int row = Character.getNumericValue(pos.charAt(1)) - 1;
-        return new Position(row, column);
-    }
-
-    /**
-     * Met à jour l'état du jeu et affiche les messages appropriés.
-     */
-    private void updateGameStatus() {
-        switch (Game.getStatus()) {
-            case CHECK:
-                this.view.showMessage("Check!");
-                break;
-            case CHECKMATE:
-                this.view.showMessage("\nGame Over!\nCheckmate! " +
-                (Game.getCurrentTurn() == Color.WHITE ? "Black" : "White") + " wins!");
-                break;
-            case STALEMATE:
-                this.view.showMessage("Stalemate! Game is drawn.");
-                break;
-            case ACTIVE:
-                break;
-            default:
-                break;
-        }
-    }
-
-    /**
-     * Joue un coup aléatoire pour l'IA.
-     */
-    public void playRandomMove() {
-        // Obtient l'instance unique du jeu
-        Game game = Game.getGameInstance();
-        // Obtient l'échiquier du jeu
-        Board board = game.getBoard();
-        // Liste pour stocker les coups légaux
-        ArrayList<Move> legalMoves = new ArrayList<Move>();
-        // Détermine la couleur de l'IA en fonction de la couleur du joueur
-        Color aiColor = (Game.getPlayerColor() == Color.WHITE) ? Color.BLACK : Color.WHITE;
-
-        // Parcourt toutes les positions de l'échiquier pour trouver les pièces de l'IA
-        for (int fromRow = 0; fromRow < 8; fromRow++) {
-            for (int fromCol = 0; fromCol < 8; fromCol++) {
-                Position from = new Position(fromRow, fromCol);
-                Piece piece = board.getPiece(from);
-                // Vérifie si la pièce appartient à l'IA
-                if (piece != null && piece.getColor() == aiColor) {
-                    // Parcourt toutes les positions possibles pour déplacer la pièce
-                    for (int toRow = 0; toRow < 8; toRow++) {
-                        for (int toCol = 0; toCol < 8; toCol++) {
-                            Position to = new Position(toRow, toCol);
-                            // Vérifie si le mouvement est valide
-                            if (piece.isValidMove(to)) {
-                                // Effectue le mouvement temporairement
-                                board.movePiece(from, to);
-                                // Trouve la position du roi de l'IA
-                                Position kingPos = board.findKing(aiColor);
-                                // Vérifie si le roi est en échec après le mouvement
-                                boolean inCheck = board.isUnderAttack(kingPos, getOppositeColor(aiColor));
-                                // Annule le mouvement temporaire
-                                board.undoLastMove();
-
-                                // Si le roi n'est pas en échec, ajoute le mouvement à la liste des coups légaux
-                                if (!inCheck) {
-                                    legalMoves.add(new Move(piece, from, to, board.getPiece(to)));
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-
-        // Si aucun coup légal n'est trouvé, affiche un message d'erreur
-        if (legalMoves.isEmpty()) {
-            this.view.showError("AI couldn't find any legal moves!");
-            return;
-        }
-
-        // Sélectionne un coup aléatoire parmi les coups légaux
-        var random = new Random();
-        Move selectedMove = legalMoves.get(random.nextInt(legalMoves.size()));
-
-        // Effectue le coup sélectionné
-        boolean moveSuccess = game.makeMove(selectedMove.getFrom(), selectedMove.getTo());
-        if (moveSuccess) {
-            // Affiche un message indiquant le coup joué par l'IA
-            this.view.showMessage("AI (" + aiColor + ") has moved " +
-                selectedMove.getPiece() + " from " + selectedMove.getFrom() + " to " + selectedMove.getTo());
-
-            // Vérifie si la pièce déplacée est un pion et si elle doit être promue
-            Piece movedPiece = board.getPiece(selectedMove.getTo());
-            if (movedPiece.getType() == PieceType.PAWN && (selectedMove.getTo().getRow() == 0 || selectedMove.getTo().getRow() == 7)) {
-                game.promotePawn(selectedMove.getTo(), PieceType.QUEEN);
-            }
-
-            // Met à jour le statut du jeu
-            updateGameStatus();
-        } else {
-            // Affiche un message d'erreur si le coup n'a pas pu être joué
-            this.view.showError("AI couldn't play the move!");
-        }
-    }
-
-
-    /**
-     * Retourne la couleur opposée à la couleur donnée.
-     *
-     * @param color la couleur donnée.
-     * @return la couleur opposée à la couleur donnée.
-     */
-    private Color getOppositeColor(Color color) {
-        return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
-    }
-}
+package controllers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import views.GameView;
+
+import engine.Engine;
+import engine.OpeningBook;
+import engine.SearchLimits;
+import engine.SearchResult;
+import models.Bitbases;
+import models.Color;
+import models.Game;
+import models.PackedMove;
+import models.Piece;
+import models.PieceType;
+import models.Position;
+
+/**
+ * La classe GameController gère les commandes et les mouvements dans un jeu d'échecs.
+ * Elle interagit avec la vue du jeu (GameView) et le modèle du jeu (Game) pour traiter les commandes
+ * et mettre à jour l'état du jeu.
+ * L'IA consulte d'abord le livre d'ouvertures, dont le chemin est donné par la propriété système
+ * « chess.book » (« book.bin » par défaut), et ne lance une recherche que hors du livre.
+ * Les tables de finales sont lues dans le répertoire donné par la propriété système « chess.bitbases »
+ * (« bitbases » par défaut) ; elles se calculent à part (voir Bitbases.main) et ne sont pas consultées
+ * si elles manquent.
+ * Le moteur, le livre et les tables ne sont ouverts qu'au premier coup de l'IA : une partie entre joueurs
+ * n'en a pas besoin. Ils sont ensuite partagés par toutes les parties contre l'IA du processus, si bien que
+ * les fils de recherche et la table de transposition ne sont alloués qu'une fois, quel que soit le nombre
+ * de parties jouées.
+ */
+public class GameController implements ChessController {
+    // Temps de réponse maximal de l'IA pour chaque coup, en millisecondes
+    private static final long AI_MOVE_TIME_MILLIS = 2_000L;
+
+    // Moteur, livre et tables partagés par les parties contre l'IA, créés au premier coup de l'IA
+    private static Engine sharedEngine;
+    private static OpeningBook sharedBook;
+    private static Bitbases sharedBitbases;
+
+    private GameView view;
+    private Game game;
+    private volatile Engine engine;
+    private OpeningBook book;
+    private Random random;
+
+    /**
+     * Constructeur de la classe GameController.
+     *
+     * @param view la vue du jeu à associer à ce contrôleur.
+     * @param game la partie pilotée par ce contrôleur.
+     */
+    public GameController(GameView view, Game game) {
+        this.view = view;
+        this.game = game;
+        this.random = new Random();
+    }
+
+    /**
+     * Retourne le moteur de l'IA et rattache à la partie le livre d'ouvertures et les tables de finales
+     * lors du premier appel.
+     *
+     * @return le moteur de l'IA, partagé par toutes les parties.
+     */
+    private Engine getEngine() {
+        if (this.engine == null) {
+            Engine engine = openSharedEngine();
+            synchronized (GameController.class) {
+                this.book = sharedBook;
+                this.game.setBitbases(sharedBitbases);
+            }
+            this.engine = engine;
+        }
+        return this.engine;
+    }
+
+    /**
+     * Retourne le moteur partagé, après l'avoir créé avec le livre d'ouvertures et les tables de finales
+     * lors du premier appel dans le processus.
+     *
+     * @return le moteur partagé.
+     */
+    private static synchronized Engine openSharedEngine() {
+        if (sharedEngine == null) {
+            sharedBook = openBook(Path.of(System.getProperty("chess.book", "book.bin")));
+            sharedBitbases = openBitbases(Path.of(System.getProperty("chess.bitbases", "bitbases")));
+
+            // Un fil de recherche par cœur disponible, tous partageant la même table de transposition
+            Engine engine = new Engine(SearchLimits.moveTime(AI_MOVE_TIME_MILLIS), Engine.DEFAULT_HASH_MEGABYTES,
+                Runtime.getRuntime().availableProcessors());
+            engine.setBitbases(sharedBitbases);
+            sharedEngine = engine;
+        }
+        return sharedEngine;
+    }
+
+    /**
+     * Ouvre le livre d'ouvertures s'il existe.
+     *
+     * @param path le chemin du livre.
+     * @return le livre, ou null s'il est absent ou illisible.
+     */
+    private static OpeningBook openBook(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            return new OpeningBook(path);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Opening book ignored: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Ouvre les tables de finales si elles existent. Elles ne sont pas calculées ici : le calcul prend
+     * plusieurs secondes et écrirait dans le répertoire courant.
+     *
+     * @param directory le répertoire des tables.
+     * @return les tables, ou null si elles sont absentes ou illisibles.
+     */
+    private static Bitbases openBitbases(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        try {
+            return Bitbases.open(directory);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Endgame bitbases ignored: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Gère une commande dans le jeu d'échecs.
+     *
+     * @param command la commande à gérer, représentée sous forme de chaîne de caractères.
+     */
+    @Override
+    public void handleCommand(String command) {
+        switch (command) {
+            case "quit", "exit":
+                System.out.println("Game ended by player.");
+                this.game.stopGame(this.view);
+                return;
+            case "help":
+                this.view.showHelp();
+                break;
+            case "undo":
+                if(this.game.getBoard().getMoveHistory().size() == 0) {
+                    this.view.showError("No moves to undo!");
+                    return;
+                }
+                this.game.undoMove();
+                break;
+            default:
+                handleMove(command);
+                break;
+        }
+    }
+
+    /**
+     * Gère un mouvement dans le jeu d'échecs.
+     *
+     * @param moveCommand la commande de mouvement à gérer, représentée sous forme de chaîne de caractères.
+     */
+    public void handleMove(String moveCommand) {
+        String[] parts = moveCommand.split(" ");
+        if (parts.length != 2) {
+            this.view.showError("Invalid command format! Use 'e2 e4' format.");
+            return;
+        }
+
+        try {
+            Position from = parsePosition(parts[0]);
+            Position to = parsePosition(parts[1]);
+
+            if (!from.isValid() || !to.isValid()) {
+                this.view.showError("Invalid position!");
+                return;
+            }
+
+            if (this.game.makeMove(from, to)) {
+                Piece piece = this.game.getBoard().getPiece(to);
+                if (piece.getType() == PieceType.PAWN && (to.getRow() == 0 || to.getRow() == 7)) {
+                    PieceType promotionType = (this.view).askPromotionPawn();
+                    this.game.promotePawn(to, promotionType);
+                }
+                this.updateGameStatus();
+            } else {
+                this.view.showError("Invalid move!");
+            }
+        } catch (IllegalArgumentException e) {
+            this.view.showError("Invalid position format! Use 'e2 e4' format.");
+        }
+    }
+
+    /**
+     * Parse une position à partir d'une chaîne de caractères.
+     *
+     * @param pos la position à parser, représentée sous forme de chaîne de caractères.
+     * @return la position parsée.
+     * @throws IllegalArgumentException si le format de la position est invalide.
+     */
+    private Position parsePosition(String pos) {
+        if (pos.length() != 2) {
+            throw new IllegalArgumentException("Invalid position format");
+        }
+        int column = pos.charAt(0) - 'a';
+        int row = Character.getNumericValue(pos.charAt(1)) - 1;
+        return new Position(row, column);
+    }
+
+    /**
+     * Met à jour l'état du jeu et affiche les messages appropriés.
+     */
+    private void updateGameStatus() {
+        switch (this.game.getStatus()) {
+            case CHECK:
+                this.view.showMessage("Check!");
+                break;
+            case CHECKMATE:
+                this.view.showMessage("\nGame Over!\nCheckmate! " +
+                (this.game.getCurrentTurn() == Color.WHITE ? "Black" : "White") + " wins!");
+                break;
+            case STALEMATE:
+                this.view.showMessage("Stalemate! Game is drawn.");
+                break;
+            case DRAW:
+                this.view.showMessage("\nGame Over!\nDrawn endgame: neither side can win.");
+                break;
+            case ACTIVE:
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Joue le coup de l'IA, choisi par le moteur de recherche dans son temps de réponse maximal.
+     */
+    public void playAiMove() {
+        this.playAiMove(this.getEngine().getDefaultLimits());
+    }
+
+    /**
+     * Joue le coup de l'IA en fonction de la pendule de l'IA.
+     *
+     * @param remainingMillis le temps restant à la pendule de l'IA, en millisecondes.
+     * @param incrementMillis l'incrément par coup, en millisecondes.
+     */
+    public void playAiMove(long remainingMillis, long incrementMillis) {
+        this.playAiMove(SearchLimits.clock(remainingMillis, incrementMillis));
+    }
+
+    /**
+     * Interrompt la réflexion de l'IA depuis un autre fil : l'IA joue aussitôt le meilleur coup trouvé jusque-là.
+     */
+    public void cancelAiMove() {
+        // Sans moteur, aucune recherche n'est en cours : il n'y a rien à interrompre
+        Engine engine = this.engine;
+        if (engine != null) {
+            engine.stop();
+        }
+    }
+
+    /**
+     * Joue le coup de l'IA, choisi par le moteur de recherche dans les limites données.
+     *
+     * @param limits les limites de la recherche.
+     */
+    private void playAiMove(SearchLimits limits) {
+        // Détermine la couleur de l'IA en fonction de la couleur du joueur
+        Color aiColor = (this.game.getPlayerColor() == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        Engine engine = this.getEngine();
+
+        // Joue le livre d'ouvertures tant qu'il connaît la position, sinon cherche sur une copie de l'échiquier
+        int selectedMove = (this.book != null) ? this.book.probe(this.game.getBoard(), this.random) : PackedMove.NONE;
+        SearchResult result = null;
+        if (selectedMove == PackedMove.NONE) {
+            result = engine.search(this.game.getBoard(), limits);
+            selectedMove = result.getBestMove();
+        }
+
+        // Si aucun coup légal n'est trouvé, affiche un message d'erreur
+        if (selectedMove == PackedMove.NONE) {
+            this.view.showError("AI couldn't find any legal moves!");
+            return;
+        }
+
+        Position from = Position.fromSquare(PackedMove.from(selectedMove));
+        Position to = Position.fromSquare(PackedMove.to(selectedMove));
+        Piece piece = this.game.getBoard().getPiece(from);
+
+        // Effectue le coup sélectionné
+        boolean moveSuccess = this.game.makeMove(from, to);
+        if (moveSuccess) {
+            // Affiche le coup joué par l'IA et les statistiques de la recherche
+            this.view.showMessage("AI (" + aiColor + ") has moved " +
+                piece + " from " + from + " to " + to + ((result == null) ? " (book)" :
+                " (depth " + result.getDepth() + ", " + result.getNodes() + " nodes, " +
+                result.getNodesPerSecond() + " nodes/s, hash " + engine.getTranspositionTable() + ")"));
+
+            // Promeut le pion si le coup choisi est une promotion
+            if (PackedMove.isPromotion(selectedMove)) {
+                this.game.promotePawn(to, PackedMove.promotion(selectedMove));
+            }
+
+            // Met à jour le statut du jeu
+            updateGameStatus();
+        } else {
+            // Affiche un message d'erreur si le coup n'a pas pu être joué
+            this.view.showError("AI couldn't play the move!");
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package controllers;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import models.Bitbases;
+import models.Game;
+import models.MoveJournal;
+
+/**
+ * La classe GameManager héberge un grand nombre de parties simultanées dans le même processus.
+ * Elle crée, retrouve et retire les parties par identifiant, et achemine leurs commandes.
+ * Chaque partie est servie par un fil virtuel : un fil en attente de commande ne retient aucun fil système,
+ * si bien que le nombre de parties actives n'est limité que par la mémoire, elle-même bornée par le nombre
+ * maximal de parties et de commandes en attente par partie.
+ * Avec un journal (voir setJournal), les parties survivent à un arrêt du processus : restoreGames les reprend
+ * au démarrage suivant, sous leurs identifiants d'origine.
+ */
+public class GameManager implements AutoCloseable {
+    private final ConcurrentHashMap<Long, GameSession> sessions;
+    private final ExecutorService executor;
+    private final AtomicLong nextId;
+    private final AtomicLong retiredCommands;
+    // Places réservées par les parties actives, à ne jamais porter au-delà de maxGames
+    private final AtomicInteger reservedGames;
+    private final int maxGames;
+    private final int queueCapacity;
+    private volatile Bitbases bitbases;
+    private volatile MoveJournal journal;
+    private volatile boolean closing;
+
+    /**
+     * Constructeur de la classe GameManager.
+     *
+     * @param maxGames le nombre maximal de parties actives.
+     * @param queueCapacity le nombre maximal de commandes en attente par partie.
+     */
+    public GameManager(int maxGames, int queueCapacity) {
+        if (maxGames < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Les limites du gestionnaire doivent être strictement positives.");
+        }
+        this.sessions = new ConcurrentHashMap<Long, GameSession>();
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.nextId = new AtomicLong();
+        this.retiredCommands = new AtomicLong();
+        this.reservedGames = new AtomicInteger();
+        this.maxGames = maxGames;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Définit les tables de finales partagées par les parties créées ensuite, qui s'en servent pour arbitrer
+     * les finales nulles. Les tables sont en lecture seule et peuvent être consultées par tous les fils.
+     *
+     * @param bitbases les tables de finales, ou null pour ne pas arbitrer.
+     */
+    public void setBitbases(Bitbases bitbases) {
+        this.bitbases = bitbases;
+    }
+
+    /**
+     * Définit le journal dans lequel sont consignées les parties créées ensuite.
+     * Le gestionnaire ne ferme pas le journal : l'appelant le ferme après close.
+     *
+     * @param journal le journal, ou null pour ne rien consigner.
+     */
+    public void setJournal(MoveJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Reprend les parties reconstruites à l'ouverture du journal, sous leurs identifiants d'origine.
+     * Les parties créées ensuite reçoivent des identifiants supérieurs.
+     *
+     * @return le nombre de parties reprises.
+     * @throws IllegalStateException si aucun journal n'est défini ou si le nombre maximal de parties est atteint.
+     */
+    public int restoreGames() {
+        MoveJournal journal = this.journal;
+        if (journal == null) {
+            throw new IllegalStateException("Aucun journal défini.");
+        }
+        int restored = 0;
+        for (Map.Entry<Long, Game> entry : journal.getRecoveredGames().entrySet()) {
+            long id = entry.getKey();
+            if (this.sessions.containsKey(id)) {
+                continue;
+            }
+            this.nextId.accumulateAndGet(id, Math::max);
+            this.startSession(id, entry.getValue(), false);
+            restored++;
+        }
+        return restored;
+    }
+
+    /**
+     * Crée une partie et démarre son fil virtuel.
+     *
+     * @return l'identifiant de la nouvelle partie.
+     * @throws IllegalStateException si le nombre maximal de parties actives est atteint.
+     */
+    public long createGame() {
+        long id = this.nextId.incrementAndGet();
+        this.startSession(id, new Game(), true);
+        return id;
+    }
+
+    /**
+     * Démarre le fil virtuel d'une partie, rattachée au journal s'il y en a un.
+     *
+     * @param id l'identifiant de la partie.
+     * @param game la partie.
+     * @param created true pour une nouvelle partie, dont le début est consigné dans le journal.
+     * @throws IllegalStateException si le nombre maximal de parties actives est atteint.
+     */
+    private void startSession(long id, Game game, boolean created) {
+        // La place est réservée avant l'insertion : deux créations simultanées ne peuvent pas dépasser la limite
+        int reserved;
+        do {
+            reserved = this.reservedGames.get();
+            if (reserved >= this.maxGames) {
+                throw new IllegalStateException("Nombre maximal de parties atteint : " + this.maxGames + ".");
+            }
+        } while (!this.reservedGames.compareAndSet(reserved, reserved + 1));
+
+        MoveJournal journal = this.journal;
+        try {
+            if (created && journal != null) {
+                journal.logStart(id);
+            }
+            game.setBitbases(this.bitbases);
+            game.setJournal(journal, id);
+            GameSession session = new GameSession(id, this.queueCapacity, game, journal);
+            this.sessions.put(id, session);
+            this.executor.execute(() -> {
+                try {
+                    session.run();
+                } finally {
+                    // Une partie terminée par « quit » ou par retire est oubliée par le gestionnaire ;
+                    // à l'arrêt du gestionnaire, elle reste au contraire à reprendre depuis le journal
+                    this.sessions.remove(id);
+                    this.reservedGames.decrementAndGet();
+                    this.retiredCommands.addAndGet(session.getProcessedCommands());
+                    if (journal != null && !this.closing) {
+                        journal.logEnd(id);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // La partie n'a pas démarré : sa place est rendue
+            this.sessions.remove(id);
+            this.reservedGames.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Retrouve une partie active.
+     *
+     * @param id l'identifiant de la partie.
+     * @return la partie, ou null si aucune partie active ne porte cet identifiant.
+     */
+    public GameSession getGame(long id) {
+        return this.sessions.get(id);
+    }
+
+    /**
+     * Envoie une commande à une partie.
+     * Les commandes d'une même partie sont traitées dans leur ordre d'envoi ; celles de parties différentes
+     * le sont en parallèle.
+     *
+     * @param id l'identifiant de la partie.
+     * @param command la commande (voir GameSession).
+     * @return la réponse à la commande, disponible une fois celle-ci traitée.
+     * @throws IllegalArgumentException si aucune partie active ne porte cet identifiant.
+     * @throws IllegalStateException si la partie est terminée ou si trop de commandes sont en attente.
+     */
+    public CompletableFuture<String> submit(long id, String command) {
+        GameSession session = this.sessions.get(id);
+        if (session == null) {
+            throw new IllegalArgumentException("Aucune partie active avec l'identifiant " + id + ".");
+        }
+        return session.submit(command);
+    }
+
+    /**
+     * Retire une partie : son fil s'arrête après la commande en cours et les commandes en attente sont refusées.
+     *
+     * @param id l'identifiant de la partie.
+     * @return true si une partie active a été retirée, false sinon.
+     */
+    public boolean retireGame(long id) {
+        GameSession session = this.sessions.get(id);
+        if (session == null) {
+            return false;
+        }
+        session.retire();
+        return true;
+    }
+
+    /**
+     * Retourne le nombre de parties actives.
+     *
+     * @return le nombre de parties actives.
+     */
+    public int getActiveGameCount() {
+        return this.sessions.size();
+    }
+
+    /**
+     * Retourne le débit moyen d'une partie depuis sa création.
+     *
+     * @param id l'identifiant de la partie.
+     * @return le nombre de commandes traitées par seconde, ou 0 si la partie n'est pas active.
+     */
+    public double getThroughput(long id) {
+        GameSession session = this.sessions.get(id);
+        return (session == null) ? 0.0 : session.getThroughput();
+    }
+
+    /**
+     * Retourne le nombre total de commandes traitées, parties retirées comprises.
+     *
+     * @return le nombre de commandes traitées.
+     */
+    public long getProcessedCommands() {
+        long total = this.retiredCommands.get();
+        for (GameSession session : this.sessions.values()) {
+            total += session.getProcessedCommands();
+        }
+        return total;
+    }
+
+    /**
+     * Retire toutes les parties et attend l'arrêt de leurs fils.
+     * Les parties consignées dans un journal n'y sont pas marquées comme terminées : elles seront reprises.
+     */
+    @Override
+    public void close() {
+        this.closing = true;
+        for (GameSession session : this.sessions.values()) {
+            session.retire();
+        }
+        this.executor.close();
+    }
+}
@@ -0,0 +1,319 @@
+package controllers;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import models.Color;
+import models.Game;
+import models.MoveJournal;
+import models.Piece;
+import models.PieceType;
+import models.Position;
+
+/**
+ * La classe GameSession représente une partie hébergée par le GameManager, sans console.
+ * Elle traite les commandes de la partie avec la même sémantique que GameController (coups « e2 e4 »,
+ * « undo », « help », « quit »), une à la fois et dans leur ordre d'arrivée, sur le fil virtuel qui lui est dédié.
+ * Les messages produits par une commande ne sont pas affichés : ils sont collectés pour former sa réponse.
+ * Lorsque la partie est consignée dans un journal, la réponse n'est rendue qu'une fois les modifications
+ * de la commande forcées sur le disque.
+ */
+public class GameSession implements ChessController {
+    // Commande spéciale signalant au fil de la partie qu'il doit s'arrêter
+    private static final PendingCommand STOP = new PendingCommand(null, null);
+
+    private final long id;
+    private final Game game;
+    private final MoveJournal journal;
+    private final BlockingQueue<PendingCommand> commands;
+    private final StringBuilder output;
+    private final AtomicLong processedCommands;
+    private final long createdAt;
+    // Rend atomiques la vérification du retrait et l'ajout d'une commande (voir submit et run)
+    private final Object submitLock;
+    private volatile boolean retired;
+
+    /**
+     * Constructeur de la classe GameSession, pour une nouvelle partie ou une partie reconstruite depuis un journal.
+     *
+     * @param id l'identifiant de la partie.
+     * @param capacity le nombre maximal de commandes en attente.
+     * @param game la partie, déjà rattachée au journal s'il y en a un.
+     * @param journal le journal dont la durabilité est attendue avant chaque réponse, ou null.
+     */
+    public GameSession(long id, int capacity, Game game, MoveJournal journal) {
+        this.id = id;
+        this.game = game;
+        this.journal = journal;
+        this.commands = new LinkedBlockingQueue<PendingCommand>(capacity);
+        this.output = new StringBuilder();
+        this.processedCommands = new AtomicLong();
+        this.createdAt = System.nanoTime();
+        this.submitLock = new Object();
+        this.retired = false;
+    }
+
+    /**
+     * Ajoute une commande à la file de la partie.
+     *
+     * @param command la commande à traiter.
+     * @return la réponse à la commande, disponible une fois celle-ci traitée.
+     * @throws IllegalStateException si la partie est retirée ou si trop de commandes sont en attente.
+     */
+    public CompletableFuture<String> submit(String command) {
+        CompletableFuture<String> response = new CompletableFuture<String>();
+        // Une commande acceptée ici l'est avant que run ne vide la file : sa réponse sera toujours rendue
+        synchronized (this.submitLock) {
+            if (this.retired) {
+                throw new IllegalStateException("La partie " + this.id + " est terminée.");
+            }
+            if (!this.commands.offer(new PendingCommand(command, response))) {
+                throw new IllegalStateException("Trop de commandes en attente pour la partie " + this.id + ".");
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Traite les commandes de la partie jusqu'à son retrait.
+     * Cette méthode est exécutée par le fil virtuel de la partie, qui reste suspendu tant que la file est vide.
+     */
+    public void run() {
+        try {
+            while (!this.retired) {
+                PendingCommand pending = this.commands.take();
+                if (pending == STOP) {
+                    break;
+                }
+                this.output.setLength(0);
+                try {
+                    this.handleCommand(pending.command());
+                    if (this.journal != null) {
+                        // Les coups de toutes les parties sont forcés sur le disque ensemble
+                        this.journal.awaitDurable(this.game.getJournalSequence());
+                    }
+                    pending.response().complete(this.output.toString());
+                } catch (RuntimeException e) {
+                    pending.response().completeExceptionally(e);
+                } catch (InterruptedException e) {
+                    pending.response().completeExceptionally(e);
+                    throw e;
+                }
+                this.processedCommands.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Après ce bloc, submit refuse toute commande : la file peut être vidée une fois pour toutes
+        synchronized (this.submitLock) {
+            this.retired = true;
+        }
+
+        // Les commandes restées en attente ne seront jamais traitées
+        PendingCommand pending;
+        while ((pending = this.commands.poll()) != null) {
+            if (pending != STOP) {
+                pending.response().completeExceptionally(
+                    new IllegalStateException("La partie " + this.id + " est terminée."));
+            }
+        }
+    }
+
+    /**
+     * Retire la partie : le fil de la partie s'arrête après la commande en cours,
+     * et les commandes en attente comme les nouvelles commandes sont refusées.
+     */
+    public void retire() {
+        this.retired = true;
+        // Réveille le fil s'il attend une commande ; si la file est pleine, il verra le retrait après la commande en cours
+        this.commands.offer(STOP);
+    }
+
+    /**
+     * Gère une commande de la partie.
+     *
+     * @param command la commande à gérer, représentée sous forme de chaîne de caractères.
+     */
+    @Override
+    public void handleCommand(String command) {
+        switch (command.trim().toLowerCase()) {
+            case "quit", "exit":
+                this.showMessage("Game ended by player.");
+                this.retired = true;
+                return;
+            case "help":
+                this.showHelp();
+                break;
+            case "undo":
+                if (this.game.getBoard().getMoveHistory().isEmpty()) {
+                    this.showError("No moves to undo!");
+                    return;
+                }
+                this.game.undoMove();
+                break;
+            default:
+                this.handleMove(command.trim().toLowerCase());
+                break;
+        }
+    }
+
+    /**
+     * Gère un mouvement, suivi facultativement de la pièce de promotion (par exemple « e7 e8 n »).
+     * Sans précision, un pion atteignant la dernière rangée est promu en dame.
+     *
+     * @param moveCommand la commande de mouvement à gérer.
+     */
+    private void handleMove(String moveCommand) {
+        String[] parts = moveCommand.split(" ");
+        if (parts.length != 2 && parts.length != 3) {
+            this.showError("Invalid command format! Use 'e2 e4' format.");
+            return;
+        }
+
+        Position from = parsePosition(parts[0]);
+        Position to = parsePosition(parts[1]);
+        if (from == null || to == null) {
+            this.showError("Invalid position format! Use 'e2 e4' format.");
+            return;
+        }
+
+        if (!this.game.makeMove(from, to)) {
+            this.showError("Invalid move!");
+            return;
+        }
+
+        Piece piece = this.game.getBoard().getPiece(to);
+        if (piece.getType() == PieceType.PAWN && (to.getRow() == 0 || to.getRow() == 7)) {
+            this.game.promotePawn(to, parts.length == 3 ? parsePromotion(parts[2]) : PieceType.QUEEN);
+        }
+
+        switch (this.game.getStatus()) {
+            case CHECK:
+                this.showMessage("Check!");
+                break;
+            case CHECKMATE:
+                this.showMessage("Checkmate! " + (this.game.getCurrentTurn() == Color.WHITE ? "Black" : "White") + " wins!");
+                break;
+            case STALEMATE:
+                this.showMessage("Stalemate! Game is drawn.");
+                break;
+            case DRAW:
+                this.showMessage("Drawn endgame: neither side can win.");
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Parse une position à partir d'une chaîne de caractères.
+     *
+     * @param pos la position à parser, par exemple « e2 ».
+     * @return la position parsée, ou null si le format est invalide.
+     */
+    private static Position parsePosition(String pos) {
+        if (pos.length() != 2) {
+            return null;
+        }
+        Position position = new Position(pos.charAt(1) - '1', pos.charAt(0) - 'a');
+        return position.isValid() ? position : null;
+    }
+
+    /**
+     * Parse la pièce de promotion à partir de sa lettre.
+     *
+     * @param symbol la lettre de la pièce (q, r, b ou n).
+     * @return le type de la pièce, la dame si la lettre est inconnue.
+     */
+    private static PieceType parsePromotion(String symbol) {
+        return switch (symbol) {
+            case "r" -> PieceType.ROOK;
+            case "b" -> PieceType.BISHOP;
+            case "n" -> PieceType.KNIGHT;
+            default -> PieceType.QUEEN;
+        };
+    }
+
+    /**
+     * Ajoute l'aide à la réponse de la commande.
+     */
+    public void showHelp() {
+        this.showMessage("Commands: 'e2 e4' (optionally followed by q, r, b or n for a promotion), undo, help, quit.");
+    }
+
+    /**
+     * Ajoute un message à la réponse de la commande.
+     *
+     * @param message le message à ajouter.
+     */
+    public void showMessage(String message) {
+        this.output.append(message).append('\n');
+    }
+
+    /**
+     * Ajoute un message d'erreur à la réponse de la commande.
+     *
+     * @param message le message d'erreur à ajouter.
+     */
+    public void showError(String message) {
+        this.output.append("Error: ").append(message).append('\n');
+    }
+
+    /**
+     * Retourne l'identifiant de la partie.
+     *
+     * @return l'identifiant de la partie.
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * Retourne la partie.
+     * Elle n'est modifiée que par le fil de la session : les autres fils doivent passer par des commandes.
+     *
+     * @return la partie.
+     */
+    public Game getGame() {
+        return this.game;
+    }
+
+    /**
+     * Indique si la partie a été retirée.
+     *
+     * @return true si la partie est retirée, false sinon.
+     */
+    public boolean isRetired() {
+        return this.retired;
+    }
+
+    /**
+     * Retourne le nombre de commandes traitées depuis la création de la partie.
+     *
+     * @return le nombre de commandes traitées.
+     */
+    public long getProcessedCommands() {
+        return this.processedCommands.get();
+    }
+
+    /**
+     * Retourne le débit moyen de la partie depuis sa création.
+     *
+     * @return le nombre de commandes traitées par seconde.
+     */
+    public double getThroughput() {
+        long elapsed = Math.max(System.nanoTime() - this.createdAt, 1L);
+        return this.processedCommands.get() * 1e9 / elapsed;
+    }
+
+    /**
+     * Commande en attente de traitement, accompagnée de sa réponse.
+     *
+     * @param command la commande.
+     * @param response la réponse à compléter.
+     */
+    private record PendingCommand(String command, CompletableFuture<String> response) {
+    }
+}
@@ -1,7 +1,7 @@
-/**
- * Le package 'controllers' contient les classes contrôleurs qui gèrent la logique de l'application et les interactions entre les modèles et les vues.
- * Ces classes sont responsables de la gestion des commandes utilisateur, de la mise à jour de l'état du jeu,
- * et de la coordination entre les différentes parties de l'application. Elles jouent un rôle central dans la gestion
- * du flux de l'application et de la logique de jeu.
- */
-package controllers;
+/**
+ * Le package 'controllers' contient les classes contrôleurs qui gèrent la logique de l'application et les interactions entre les modèles et les vues.
+ * Ces classes sont responsables de la gestion des commandes utilisateur, de la mise à jour de l'état du jeu,
+ * et de la coordination entre les différentes parties de l'application. Elles jouent un rôle central dans la gestion
+ * du flux de l'application et de la logique de jeu.
+ */
+package controllers;
@@ -0,0 +1,187 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import models.Bitbases;
+import models.Board;
+import models.PackedMove;
+
+/**
+ * La classe Engine est le point d'entrée du moteur de recherche utilisé par l'IA.
+ * Elle cherche le meilleur mouvement d'une position dans les limites données, sur une copie de l'échiquier :
+ * l'échiquier de la partie n'est jamais modifié.
+ * La table de transposition est conservée d'une recherche à l'autre, les positions d'un coup
+ * se retrouvant souvent dans la recherche du coup suivant.
+ * Avec plusieurs fils, la recherche suit le principe du Lazy SMP : chaque fil cherche la même position
+ * sur sa propre copie de l'échiquier, et les fils s'entraident uniquement au travers de la table partagée.
+ * Les fils auxiliaires sont créés une seule fois avec le moteur et réutilisés d'une recherche à l'autre.
+ * La recherche respecte un budget de temps (voir SearchLimits) et peut être interrompue depuis un autre fil
+ * par stop ; dans les deux cas, elle retourne le meilleur mouvement trouvé jusque-là.
+ * Lorsque des tables de finales lui sont fournies, la recherche les consulte dès qu'il ne reste que trois pièces.
+ */
+public class Engine {
+    /**
+     * Taille par défaut de la table de transposition, en mégaoctets.
+     */
+    public static final int DEFAULT_HASH_MEGABYTES = 16;
+
+    private final SearchLimits defaultLimits;
+    private final TranspositionTable table;
+    private final int threads;
+    private final ExecutorService helpers;
+    private volatile SearchControl currentSearch;
+    private Bitbases bitbases;
+
+    /**
+     * Constructeur de la classe Engine, avec une table de transposition de taille par défaut et un seul fil.
+     *
+     * @param defaultLimits les limites utilisées par search(Board).
+     */
+    public Engine(SearchLimits defaultLimits) {
+        this(defaultLimits, DEFAULT_HASH_MEGABYTES, 1);
+    }
+
+    /**
+     * Constructeur de la classe Engine.
+     *
+     * @param defaultLimits les limites utilisées par search(Board).
+     * @param hashMegabytes la taille de la table de transposition, en mégaoctets.
+     * @param threads le nombre de fils de recherche.
+     */
+    public Engine(SearchLimits defaultLimits, int hashMegabytes, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Le nombre de fils doit être strictement positif.");
+        }
+        this.defaultLimits = defaultLimits;
+        this.table = new TranspositionTable(hashMegabytes);
+        this.threads = threads;
+        // Fils démons : un moteur oublié sans appel à shutdown n'empêche pas le processus de se terminer
+        AtomicInteger helperCount = new AtomicInteger();
+        this.helpers = (threads == 1) ? null : Executors.newFixedThreadPool(threads - 1, task -> {
+            Thread thread = new Thread(task, "search-helper-" + helperCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Cherche le meilleur mouvement du camp au trait dans les limites par défaut du moteur.
+     *
+     * @param board l'échiquier de la partie.
+     * @return le résultat de la recherche.
+     */
+    public SearchResult search(Board board) {
+        return this.search(board, this.defaultLimits);
+    }
+
+    /**
+     * Cherche le meilleur mouvement du camp au trait dans des limites données.
+     *
+     * @param board l'échiquier de la partie.
+     * @param limits les limites de la recherche.
+     * @return le résultat de la recherche.
+     */
+    public SearchResult search(Board board, SearchLimits limits) {
+        this.table.newSearch();
+        SearchControl control = new SearchControl(limits);
+        this.currentSearch = control;
+
+        // Les fils auxiliaires commencent une profondeur sur deux un cran plus loin pour diversifier la recherche
+        List<Future<SearchResult>> helperResults = new ArrayList<Future<SearchResult>>(this.threads - 1);
+        for (int i = 0; i < this.threads - 1; i++) {
+            Searcher helper = new Searcher(new Board(board), limits, this.table, control, this.bitbases,
+                1 + ((i + 1) & 1));
+            helperResults.add(this.helpers.submit(helper::iterate));
+        }
+
+        SearchResult result = new Searcher(new Board(board), limits, this.table, control, this.bitbases, 1).iterate();
+
+        // Le fil principal a terminé : les fils auxiliaires s'arrêtent
+        control.stop();
+        long[] threadNodes = new long[this.threads];
+        threadNodes[0] = result.getNodes();
+        for (int i = 0; i < helperResults.size(); i++) {
+            SearchResult helperResult = null;
+            try {
+                helperResult = helperResults.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Échec d'un fil de recherche auxiliaire.", e.getCause());
+            }
+            if (helperResult != null) {
+                threadNodes[i + 1] = helperResult.getNodes();
+                // Un fil auxiliaire qui a terminé une itération plus profonde fournit un meilleur résultat
+                if (helperResult.getDepth() > result.getDepth() && helperResult.getBestMove() != PackedMove.NONE) {
+                    result = helperResult;
+                }
+            }
+        }
+        this.currentSearch = null;
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(),
+            result.getPrincipalVariation(), threadNodes, control.elapsedNanos());
+    }
+
+    /**
+     * Interrompt la recherche en cours, s'il y en a une : elle retourne aussitôt le meilleur mouvement
+     * trouvé jusque-là. Sans recherche en cours, l'appel est sans effet : il ne touche pas la recherche suivante.
+     * Cette méthode est destinée à être appelée depuis un autre fil que celui de la recherche.
+     */
+    public void stop() {
+        SearchControl control = this.currentSearch;
+        if (control != null) {
+            control.stop();
+        }
+    }
+
+    /**
+     * Arrête les fils de recherche auxiliaires. Le moteur ne doit plus être utilisé ensuite.
+     */
+    public void shutdown() {
+        if (this.helpers != null) {
+            this.helpers.shutdown();
+        }
+    }
+
+    /**
+     * Définit les tables de finales consultées par les recherches suivantes.
+     *
+     * @param bitbases les tables de finales, ou null pour ne plus les consulter.
+     */
+    public void setBitbases(Bitbases bitbases) {
+        this.bitbases = bitbases;
+    }
+
+    /**
+     * Retourne le nombre de fils de recherche.
+     *
+     * @return le nombre de fils.
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /**
+     * Retourne la table de transposition, pour en consulter les statistiques.
+     *
+     * @return la table de transposition.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return this.table;
+    }
+
+    /**
+     * Retourne les limites utilisées par défaut.
+     *
+     * @return les limites par défaut.
+     */
+    public SearchLimits getDefaultLimits() {
+        return this.defaultLimits;
+    }
+}
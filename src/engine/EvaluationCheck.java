@@ -0,0 +1,107 @@
+package engine;
+
+import models.Board;
+import models.Fen;
+import models.MoveGenerator;
+import models.MoveList;
+import models.Piece;
+import models.PieceSquareTables;
+
+/**
+ * La classe EvaluationCheck vérifie que les termes de l'évaluation maintenus incrémentalement par Board
+ * (scores de milieu et de fin de partie, phase) sont toujours égaux à ceux recalculés sur tout l'échiquier.
+ * Elle parcourt l'arbre des mouvements légaux des positions de référence du perft, promotions, prises en passant
+ * et roques compris, et compare les deux calculs après chaque mouvement et chaque annulation.
+ * Arguments : [profondeur].
+ */
+public class EvaluationCheck {
+    // Positions de référence du perft : position initiale, « Kiwipete », puis positions 3, 4 et 5
+    private static final String[] POSITIONS = {
+        Fen.START_POSITION,
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"
+    };
+
+    /**
+     * Constructeur privé : classe non instanciable.
+     */
+    private EvaluationCheck() {
+    }
+
+    /**
+     * Parcourt les positions de référence et affiche le nombre de positions vérifiées pour chacune.
+     *
+     * @param args les arguments de la ligne de commande.
+     * @throws IllegalStateException à la première position dont l'évaluation incrémentale est fausse.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        long total = 0;
+        for (String fen : POSITIONS) {
+            Board board = Fen.toBoard(fen);
+            check(board);
+            MoveList[] lists = new MoveList[depth + 1];
+            for (int i = 0; i <= depth; i++) {
+                lists[i] = new MoveList();
+            }
+            long positions = walk(board, depth, lists);
+            System.out.println(fen + " : " + positions + " positions vérifiées");
+            total += positions;
+        }
+        System.out.println("Total : " + total + " positions, évaluation incrémentale exacte.");
+    }
+
+    /**
+     * Joue et annule chaque mouvement légal jusqu'à la profondeur donnée, en vérifiant l'évaluation
+     * après chaque mouvement et chaque annulation.
+     *
+     * @param board l'échiquier, rendu dans son état d'origine.
+     * @param depth la profondeur restante.
+     * @param lists les listes de mouvements, indexées par profondeur restante.
+     * @return le nombre de positions vérifiées.
+     */
+    private static long walk(Board board, int depth, MoveList[] lists) {
+        if (depth == 0) {
+            return 0;
+        }
+        MoveList moves = lists[depth];
+        MoveGenerator.generateLegalMoves(board, moves);
+        long positions = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            check(board);
+            positions += 1 + walk(board, depth - 1, lists);
+            board.undoLastMove();
+            check(board);
+        }
+        return positions;
+    }
+
+    /**
+     * Recalcule entièrement les termes de l'évaluation et les compare aux valeurs maintenues incrémentalement.
+     *
+     * @param board l'échiquier.
+     * @throws IllegalStateException si le score de milieu de partie, celui de fin de partie ou la phase diffère.
+     */
+    private static void check(Board board) {
+        int middlegame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            Piece piece = board.getPiece(square);
+            if (piece != null) {
+                middlegame += PieceSquareTables.middlegame(piece.getType(), piece.getColor(), square);
+                endgame += PieceSquareTables.endgame(piece.getType(), piece.getColor(), square);
+                phase += PieceSquareTables.phaseWeight(piece.getType());
+            }
+        }
+        if (middlegame != board.getMiddlegameScore() || endgame != board.getEndgameScore()
+                || phase != board.getPhase()) {
+            throw new IllegalStateException("Évaluation incrémentale fausse dans la position " + Fen.toFen(board)
+                + " : " + board.getMiddlegameScore() + "/" + board.getEndgameScore() + "/" + board.getPhase()
+                + " au lieu de " + middlegame + "/" + endgame + "/" + phase + ".");
+        }
+    }
+}
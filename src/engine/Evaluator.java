@@ -0,0 +1,48 @@
+package engine;
+
+import models.Board;
+import models.Color;
+import models.PieceSquareTables;
+import models.PieceType;
+
+/**
+ * La classe Evaluator fournit l'évaluation statique d'une position.
+ * L'évaluation combine le matériel et les tables pièce-case, dont les scores de milieu et de fin de partie
+ * sont entretenus par l'échiquier à chaque mouvement : elle interpole ces deux scores selon la phase de jeu,
+ * en temps constant, et l'exprime en centièmes de pion du point de vue du camp au trait.
+ * Les valeurs simples des pièces restent disponibles pour l'ordre des mouvements et l'élagage.
+ */
+public final class Evaluator {
+    // Valeur de chaque type de pièce, dans l'ordre de PieceType
+    private static final int[] PIECE_VALUES = {100, 500, 320, 330, 900, 0};
+
+    /**
+     * Constructeur privé : classe utilitaire non instanciable.
+     */
+    private Evaluator() {
+    }
+
+    /**
+     * Retourne la valeur d'un type de pièce.
+     *
+     * @param type le type de la pièce.
+     * @return la valeur, en centièmes de pion.
+     */
+    public static int pieceValue(PieceType type) {
+        return PIECE_VALUES[type.ordinal()];
+    }
+
+    /**
+     * Évalue une position du point de vue du camp au trait.
+     *
+     * @param board l'échiquier.
+     * @return l'évaluation, en centièmes de pion.
+     */
+    public static int evaluate(Board board) {
+        // Les promotions peuvent porter la phase au-delà de sa valeur initiale
+        int phase = Math.min(board.getPhase(), PieceSquareTables.MAX_PHASE);
+        int score = (board.getMiddlegameScore() * phase
+            + board.getEndgameScore() * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        return (board.getSideToMove() == Color.WHITE) ? score : -score;
+    }
+}
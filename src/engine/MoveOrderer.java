@@ -0,0 +1,168 @@
+package engine;
+
+import java.util.Arrays;
+
+import models.Color;
+import models.MoveList;
+import models.PackedMove;
+import models.PieceType;
+
+/**
+ * La classe MoveOrderer classe les mouvements d'une position pour que l'alpha-bêta examine d'abord ceux qui ont
+ * le plus de chances de provoquer une coupure :
+ * <ol>
+ * <li>le mouvement de la variante principale ou de la table de transposition ;</li>
+ * <li>les captures et promotions, la victime la plus précieuse d'abord, prise par l'attaquant le moins précieux
+ * (MVV-LVA) ;</li>
+ * <li>les deux mouvements tranquilles qui ont le plus récemment provoqué une coupure au même demi-coup (killers) ;</li>
+ * <li>les autres mouvements tranquilles, selon l'historique des coupures de chaque couple de cases.</li>
+ * </ol>
+ * Toutes les données sont conservées dans des tableaux de types primitifs, propres à un fil de recherche.
+ */
+class MoveOrderer {
+    // Bandes de score : chaque catégorie de mouvements passe avant la suivante
+    private static final int PRIORITY_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27;
+    // Au-delà, l'historique est divisé par deux pour rester sous les killers et suivre la partie
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private static final PieceType[] TYPES = PieceType.values();
+    // Score MVV-LVA indexé par victime * 8 + attaquant
+    private static final int[] MVV_LVA = new int[8 * 8];
+
+    static {
+        for (PieceType victim : TYPES) {
+            for (PieceType attacker : TYPES) {
+                // Le roi attaquant est compté comme la pièce la plus précieuse
+                int attackerValue = (attacker == PieceType.KING) ? 2000 : Evaluator.pieceValue(attacker);
+                MVV_LVA[victim.ordinal() * 8 + attacker.ordinal()] =
+                    Evaluator.pieceValue(victim) * 16 - attackerValue / 10;
+            }
+        }
+    }
+
+    private final int[] killers;
+    private final int[] history;
+
+    /**
+     * Constructeur de la classe MoveOrderer.
+     *
+     * @param maxPly le nombre maximal de demi-coups depuis la racine.
+     */
+    MoveOrderer(int maxPly) {
+        this.killers = new int[maxPly * 2];
+        // Table « butterfly » : une entrée par camp, case de départ et case d'arrivée
+        this.history = new int[2 * 64 * 64];
+    }
+
+    /**
+     * Prépare une nouvelle recherche : les killers sont oubliés et l'historique perd la moitié de son poids.
+     */
+    void newSearch() {
+        Arrays.fill(this.killers, PackedMove.NONE);
+        for (int i = 0; i < this.history.length; i++) {
+            this.history[i] >>= 1;
+        }
+    }
+
+    /**
+     * Attribue un score de tri à chaque mouvement d'une liste.
+     *
+     * @param moves les mouvements de la position.
+     * @param scores le tableau des scores, de même indice que les mouvements.
+     * @param ply le nombre de demi-coups depuis la racine.
+     * @param priorityMove le mouvement à examiner en premier, ou PackedMove.NONE.
+     * @param us le camp au trait.
+     */
+    void scoreMoves(MoveList moves, int[] scores, int ply, int priorityMove, Color us) {
+        int killer1 = this.killers[ply * 2];
+        int killer2 = this.killers[ply * 2 + 1];
+        int side = us.ordinal() << 12;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (move == priorityMove) {
+                scores[i] = PRIORITY_SCORE;
+            } else if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+                scores[i] = CAPTURE_SCORE + captureScore(move);
+            } else if (move == killer1) {
+                scores[i] = KILLER_SCORE + 1;
+            } else if (move == killer2) {
+                scores[i] = KILLER_SCORE;
+            } else {
+                scores[i] = this.history[side | (PackedMove.from(move) << 6) | PackedMove.to(move)];
+            }
+        }
+    }
+
+    /**
+     * Calcule le score d'une capture ou d'une promotion.
+     *
+     * @param move le mouvement encodé.
+     * @return le score MVV-LVA, augmenté de la valeur de la pièce de promotion.
+     */
+    private static int captureScore(int move) {
+        int score = 0;
+        if (PackedMove.isCapture(move)) {
+            score += MVV_LVA[PackedMove.captured(move).ordinal() * 8 + PackedMove.piece(move).ordinal()];
+        }
+        PieceType promotion = PackedMove.promotion(move);
+        if (promotion != null) {
+            score += Evaluator.pieceValue(promotion) * 16;
+        }
+        return score;
+    }
+
+    /**
+     * Place en position index le mouvement de meilleur score parmi ceux qui restent, et le retourne.
+     * Le tri est ainsi fait au fur et à mesure : après une coupure, les mouvements restants ne sont jamais triés.
+     *
+     * @param moves les mouvements de la position.
+     * @param scores les scores des mouvements.
+     * @param index l'indice du prochain mouvement à examiner.
+     * @return le mouvement à examiner.
+     */
+    static int pickNext(MoveList moves, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        if (best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    /**
+     * Enregistre un mouvement tranquille qui a provoqué une coupure bêta : il devient le premier killer
+     * du demi-coup et son historique augmente d'autant plus que la recherche était profonde.
+     *
+     * @param move le mouvement qui a provoqué la coupure.
+     * @param ply le nombre de demi-coups depuis la racine.
+     * @param depth la profondeur restante.
+     * @param us le camp au trait.
+     */
+    void recordCutoff(int move, int ply, int depth, Color us) {
+        if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+            return;
+        }
+        if (this.killers[ply * 2] != move) {
+            this.killers[ply * 2 + 1] = this.killers[ply * 2];
+            this.killers[ply * 2] = move;
+        }
+        int index = (us.ordinal() << 12) | (PackedMove.from(move) << 6) | PackedMove.to(move);
+        this.history[index] += depth * depth;
+        if (this.history[index] > HISTORY_LIMIT) {
+            for (int i = 0; i < this.history.length; i++) {
+                this.history[i] >>= 1;
+            }
+        }
+    }
+}
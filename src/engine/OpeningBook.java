@@ -0,0 +1,281 @@
+package engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import models.Board;
+import models.MoveGenerator;
+import models.MoveList;
+import models.PackedMove;
+import models.PieceType;
+
+/**
+ * La classe OpeningBook lit un livre d'ouvertures projeté en mémoire.
+ * Le fichier reprend la disposition d'un livre Polyglot : des entrées de 16 octets triées par clé,
+ * chacune formée de la clé de la position (8 octets), du mouvement (2 octets), de son poids (2 octets)
+ * et d'un champ d'apprentissage inutilisé (4 octets), en gros-boutiste.
+ * Les clés sont celles de Board.getHashKey, et non les clés aléatoires de Polyglot : un livre doit donc
+ * être construit par la méthode main de cette classe.
+ * Le fichier est projeté par FileChannel.map et jamais copié dans le tas : l'ouverture ne lit rien,
+ * et une recherche par dichotomie ne touche que les quelques pages qu'elle parcourt.
+ */
+public class OpeningBook {
+    // Taille d'une entrée, en octets
+    private static final int ENTRY_SIZE = 16;
+    // Poids maximal d'un mouvement, sur 16 bits non signés
+    private static final int MAX_WEIGHT = 0xFFFF;
+    // Pièces de promotion dans l'ordre du codage Polyglot (1 = cavalier ... 4 = dame)
+    private static final PieceType[] PROMOTIONS = {null, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK,
+        PieceType.QUEEN};
+
+    private final ByteBuffer entries;
+    private final int entryCount;
+
+    /**
+     * Constructeur de la classe OpeningBook : projette le fichier en mémoire, sans le lire.
+     *
+     * @param path le chemin du livre.
+     * @throws IOException si le fichier ne peut pas être ouvert ou projeté.
+     * @throws IllegalArgumentException si la taille du fichier n'est pas celle d'un livre.
+     */
+    public OpeningBook(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % ENTRY_SIZE != 0 || size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Fichier de livre d'ouvertures invalide : " + path + ".");
+            }
+            // La projection reste valide après la fermeture du canal
+            this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            this.entryCount = (int) (size / ENTRY_SIZE);
+        }
+    }
+
+    /**
+     * Choisit un mouvement du livre pour une position, au hasard en proportion des poids.
+     * Comme dans le format Polyglot, un poids nul signifie « ne jamais jouer ».
+     *
+     * @param board l'échiquier.
+     * @param random le générateur aléatoire.
+     * @return le mouvement encodé (voir PackedMove), ou PackedMove.NONE si la position n'est pas dans le livre
+     *         ou si tous ses mouvements ont un poids nul.
+     */
+    public int probe(Board board, Random random) {
+        long key = board.getHashKey();
+        int first = this.lowerBound(key);
+        int totalWeight = 0;
+        int last = first;
+        while (last < this.entryCount && this.keyAt(last) == key) {
+            totalWeight += this.weightAt(last);
+            last++;
+        }
+        if (totalWeight == 0) {
+            return PackedMove.NONE;
+        }
+
+        // Tirage pondéré : les mouvements de poids nul ne sont jamais tirés
+        int chosen = first;
+        int ticket = random.nextInt(totalWeight);
+        while (ticket >= this.weightAt(chosen)) {
+            ticket -= this.weightAt(chosen);
+            chosen++;
+        }
+        return decodeMove(board, this.moveAt(chosen));
+    }
+
+    /**
+     * Retourne l'indice de la première entrée dont la clé n'est pas inférieure à une clé donnée.
+     * Les clés sont comparées comme des entiers non signés, dans l'ordre du fichier.
+     *
+     * @param key la clé recherchée.
+     * @return l'indice de la première entrée, ou le nombre d'entrées si toutes les clés sont inférieures.
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = this.entryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(this.keyAt(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Retourne la clé d'une entrée.
+     *
+     * @param index l'indice de l'entrée.
+     * @return la clé de la position.
+     */
+    private long keyAt(int index) {
+        return this.entries.getLong(index * ENTRY_SIZE);
+    }
+
+    /**
+     * Retourne le mouvement d'une entrée, au codage Polyglot.
+     *
+     * @param index l'indice de l'entrée.
+     * @return le mouvement sur 16 bits.
+     */
+    private int moveAt(int index) {
+        return this.entries.getShort(index * ENTRY_SIZE + 8) & 0xFFFF;
+    }
+
+    /**
+     * Retourne le poids d'une entrée.
+     *
+     * @param index l'indice de l'entrée.
+     * @return le poids, sur 16 bits non signés.
+     */
+    private int weightAt(int index) {
+        return this.entries.getShort(index * ENTRY_SIZE + 10) & 0xFFFF;
+    }
+
+    /**
+     * Retourne le nombre d'entrées du livre.
+     *
+     * @return le nombre d'entrées.
+     */
+    public int getEntryCount() {
+        return this.entryCount;
+    }
+
+    /**
+     * Code un mouvement au format Polyglot : case d'arrivée (bits 0 à 5), case de départ (bits 6 à 11)
+     * et pièce de promotion (bits 12 à 14). Un roque est codé comme la prise de sa propre tour par le roi.
+     *
+     * @param move le mouvement encodé (voir PackedMove).
+     * @return le mouvement sur 16 bits.
+     */
+    static int encodeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        if (PackedMove.isCastling(move)) {
+            to = (to > from) ? to + 1 : to - 2;
+        }
+        int promotion = 0;
+        for (int i = 1; i < PROMOTIONS.length; i++) {
+            if (PROMOTIONS[i] == PackedMove.promotion(move)) {
+                promotion = i;
+            }
+        }
+        return to | (from << 6) | (promotion << 12);
+    }
+
+    /**
+     * Retrouve parmi les mouvements légaux le mouvement correspondant à un codage Polyglot.
+     *
+     * @param board l'échiquier.
+     * @param bookMove le mouvement sur 16 bits.
+     * @return le mouvement encodé, ou PackedMove.NONE s'il n'est pas légal dans la position.
+     */
+    static int decodeMove(Board board, int bookMove) {
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (encodeMove(moves.get(i)) == bookMove) {
+                return moves.get(i);
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    /**
+     * Construit un livre à partir d'un fichier texte de parties, une par ligne, en notation en coordonnées
+     * séparée par des espaces (par exemple « e2e4 e7e5 g1f3 », une promotion s'écrivant « e7e8q »).
+     * Le poids d'un mouvement est le nombre de parties qui le jouent dans la position.
+     *
+     * @param lines le fichier des parties.
+     * @param book le livre à écrire.
+     * @throws IOException si un fichier ne peut pas être lu ou écrit.
+     * @throws IllegalArgumentException si une partie contient un mouvement illégal.
+     */
+    public static void build(Path lines, Path book) throws IOException {
+        Map<Long, Map<Integer, Integer>> weights = new HashMap<Long, Map<Integer, Integer>>();
+        MoveList moves = new MoveList();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(lines, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            Board board = new Board();
+            for (String text : line.trim().split("\\s+")) {
+                if (text.isEmpty()) {
+                    continue;
+                }
+                int move = findMove(board, moves, text);
+                if (move == PackedMove.NONE) {
+                    throw new IllegalArgumentException("Mouvement illégal ligne " + lineNumber + " : " + text + ".");
+                }
+                weights.computeIfAbsent(board.getHashKey(), k -> new HashMap<Integer, Integer>())
+                    .merge(encodeMove(move), 1, Integer::sum);
+                board.makeMove(move);
+            }
+        }
+
+        // Entrées triées par clé non signée, puis par poids décroissant
+        List<long[]> sorted = new ArrayList<long[]>();
+        for (Map.Entry<Long, Map<Integer, Integer>> position : weights.entrySet()) {
+            for (Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+                sorted.add(new long[] {position.getKey(), move.getKey(), Math.min(move.getValue(), MAX_WEIGHT)});
+            }
+        }
+        sorted.sort((a, b) -> (a[0] != b[0]) ? Long.compareUnsigned(a[0], b[0]) : Long.compare(b[2], a[2]));
+        try (OutputStream file = Files.newOutputStream(book);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            for (long[] entry : sorted) {
+                out.writeLong(entry[0]);
+                out.writeShort((int) entry[1]);
+                out.writeShort((int) entry[2]);
+                out.writeInt(0);
+            }
+        }
+    }
+
+    /**
+     * Retrouve un mouvement légal écrit en notation en coordonnées.
+     *
+     * @param board l'échiquier.
+     * @param moves la liste de travail.
+     * @param text le mouvement, par exemple « g1f3 » ou « e7e8q ».
+     * @return le mouvement encodé, ou PackedMove.NONE s'il n'est pas légal.
+     */
+    private static int findMove(Board board, MoveList moves, String text) {
+        MoveGenerator.generateLegalMoves(board, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (PackedMove.toString(moves.get(i)).equals(text)) {
+                return moves.get(i);
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    /**
+     * Construit un livre d'ouvertures.
+     * Arguments : fichier des parties, fichier du livre.
+     *
+     * @param args les arguments de la ligne de commande.
+     * @throws IOException si un fichier ne peut pas être lu ou écrit.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage : OpeningBook <parties.txt> <livre.bin>");
+            return;
+        }
+        build(Path.of(args[0]), Path.of(args[1]));
+        System.out.println("Livre écrit : " + new OpeningBook(Path.of(args[1])).getEntryCount() + " entrées.");
+    }
+}
@@ -0,0 +1,285 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import models.Board;
+import models.BoardSnapshot;
+import models.MoveGenerator;
+import models.MoveList;
+import models.PackedMove;
+
+/**
+ * La classe Perft compte les feuilles de l'arbre des mouvements légaux jusqu'à une profondeur donnée.
+ * Elle sert d'oracle de correction pour la génération des mouvements (les comptes de référence sont publiés
+ * pour de nombreuses positions) et de mesure de son débit.
+ * Les premiers niveaux de l'arbre sont répartis entre les fils d'un ForkJoinPool : chaque tâche reçoit
+ * un instantané immuable de sa position (voir BoardSnapshot), obtenu par play depuis celui de sa tâche mère,
+ * et n'en tire un échiquier que pour générer ses mouvements ou compter son sous-arbre.
+ * Les comptes des sous-arbres peuvent être mémorisés dans une table partagée indexée par la clé de Zobrist
+ * de la position et la profondeur restante.
+ */
+public class Perft {
+    // Profondeur restante en dessous de laquelle un sous-arbre n'est plus découpé en tâches
+    private static final int SPLIT_DEPTH = 3;
+
+    // Nombre de demi-coups depuis la racine sur lesquels les sous-arbres sont découpés en tâches
+    private static final int SPLIT_PLIES = 2;
+
+    private final ForkJoinPool pool;
+    private final long[] table;
+    private final int tableMask;
+
+    /**
+     * Constructeur de la classe Perft.
+     *
+     * @param parallelism le nombre de fils de calcul.
+     * @param tableBits le logarithme en base 2 du nombre d'entrées de la table des sous-arbres,
+     *                  ou 0 pour ne pas mémoriser les sous-arbres.
+     */
+    public Perft(int parallelism, int tableBits) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Le nombre de fils doit être strictement positif.");
+        }
+        if (tableBits < 0 || tableBits > 30) {
+            throw new IllegalArgumentException("La taille de la table doit être comprise entre 0 et 30 bits.");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        // Chaque entrée occupe deux mots : la clé mélangée aux données, puis les données
+        this.table = (tableBits == 0) ? null : new long[2 << tableBits];
+        this.tableMask = (1 << tableBits) - 1;
+    }
+
+    /**
+     * Compte les feuilles de l'arbre des mouvements légaux à une profondeur donnée.
+     * L'échiquier fourni n'est pas modifié.
+     *
+     * @param board l'échiquier de départ.
+     * @param depth la profondeur, en demi-coups.
+     * @return le nombre de feuilles.
+     */
+    public long perft(Board board, int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("La profondeur ne peut pas être négative.");
+        }
+        return this.pool.invoke(new PerftTask(BoardSnapshot.of(board), depth, 0));
+    }
+
+    /**
+     * Compte les feuilles du sous-arbre de chaque mouvement légal de la racine.
+     * Les sous-arbres sont calculés en parallèle ; l'échiquier fourni n'est pas modifié.
+     *
+     * @param board l'échiquier de départ.
+     * @param depth la profondeur, en demi-coups (au moins 1).
+     * @return le nombre de feuilles de chaque mouvement, indexé par sa notation en coordonnées.
+     */
+    public Map<String, Long> divide(Board board, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("La profondeur doit être au moins égale à 1.");
+        }
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegalMoves(board, moves);
+
+        BoardSnapshot root = BoardSnapshot.of(board);
+        PerftTask[] tasks = new PerftTask[moves.size()];
+        for (int i = 0; i < moves.size(); i++) {
+            tasks[i] = new PerftTask(root.play(moves.get(i)), depth - 1, 1);
+            this.pool.execute(tasks[i]);
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<String, Long>();
+        for (int i = 0; i < moves.size(); i++) {
+            counts.put(PackedMove.toString(moves.get(i)), tasks[i].join());
+        }
+        return counts;
+    }
+
+    /**
+     * Vide la table des sous-arbres.
+     */
+    public void clearTable() {
+        if (this.table != null) {
+            Arrays.fill(this.table, 0L);
+        }
+    }
+
+    /**
+     * Arrête les fils de calcul.
+     */
+    public void shutdown() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Recherche le compte mémorisé d'un sous-arbre.
+     * La clé est stockée mélangée aux données : une entrée écrite simultanément par deux fils
+     * ne correspond plus à aucune clé et est simplement ignorée.
+     *
+     * @param key la clé de Zobrist de la position.
+     * @param depth la profondeur restante.
+     * @return le nombre de feuilles, ou -1 si le sous-arbre n'est pas mémorisé.
+     */
+    private long probe(long key, int depth) {
+        int index = ((int) key & this.tableMask) << 1;
+        long data = this.table[index + 1];
+        if ((this.table[index] ^ data) == key && (data & 0x3F) == depth) {
+            return data >>> 6;
+        }
+        return -1L;
+    }
+
+    /**
+     * Mémorise le compte d'un sous-arbre.
+     *
+     * @param key la clé de Zobrist de la position.
+     * @param depth la profondeur restante.
+     * @param nodes le nombre de feuilles.
+     */
+    private void store(long key, int depth, long nodes) {
+        int index = ((int) key & this.tableMask) << 1;
+        long data = (nodes << 6) | depth;
+        this.table[index] = key ^ data;
+        this.table[index + 1] = data;
+    }
+
+    /**
+     * Compte séquentiellement les feuilles d'un sous-arbre en jouant et annulant les mouvements.
+     *
+     * @param board l'échiquier, rendu dans son état initial.
+     * @param depth la profondeur restante (au moins 1).
+     * @param lists une liste de mouvements par profondeur restante.
+     * @return le nombre de feuilles.
+     */
+    private long count(Board board, int depth, MoveList[] lists) {
+        MoveList moves = lists[depth];
+        // Au dernier niveau, les feuilles sont les mouvements légaux eux-mêmes
+        if (depth == 1) {
+            MoveGenerator.generateLegalMoves(board, moves);
+            return moves.size();
+        }
+
+        long key = board.getHashKey();
+        if (this.table != null) {
+            long cached = this.probe(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+
+        MoveGenerator.generateLegalMoves(board, moves);
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += this.count(board, depth - 1, lists);
+            board.undoLastMove();
+        }
+
+        if (this.table != null) {
+            this.store(key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    /**
+     * Tâche comptant les feuilles d'un sous-arbre à partir de l'instantané de sa position.
+     * Près de la racine, la tâche crée une sous-tâche par mouvement ; plus bas, elle compte séquentiellement
+     * sur un échiquier qui lui est propre.
+     */
+    private class PerftTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        // Les tâches ne sont jamais sérialisées : l'instantané n'a pas à l'être
+        private final transient BoardSnapshot position;
+        private final int depth;
+        private final int ply;
+
+        /**
+         * Constructeur de la classe PerftTask.
+         *
+         * @param position l'instantané de la position de la tâche.
+         * @param depth la profondeur restante.
+         * @param ply le nombre de demi-coups depuis la racine.
+         */
+        PerftTask(BoardSnapshot position, int depth, int ply) {
+            this.position = position;
+            this.depth = depth;
+            this.ply = ply;
+        }
+
+        /**
+         * Compte les feuilles du sous-arbre.
+         *
+         * @return le nombre de feuilles.
+         */
+        @Override
+        protected Long compute() {
+            if (this.depth == 0) {
+                return 1L;
+            }
+            if (this.depth <= SPLIT_DEPTH || this.ply >= SPLIT_PLIES) {
+                return Perft.this.count(this.position.toBoard(), this.depth, newMoveLists(this.depth));
+            }
+
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegalMoves(this.position.toBoard(), moves);
+            PerftTask[] tasks = new PerftTask[moves.size()];
+            for (int i = 0; i < moves.size(); i++) {
+                tasks[i] = new PerftTask(this.position.play(moves.get(i)), this.depth - 1, this.ply + 1);
+            }
+            invokeAll(tasks);
+
+            long nodes = 0;
+            for (PerftTask task : tasks) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Crée une liste de mouvements par profondeur restante, réutilisées pendant tout un sous-arbre.
+     *
+     * @param depth la profondeur maximale.
+     * @return les listes, indexées par profondeur restante.
+     */
+    private static MoveList[] newMoveLists(int depth) {
+        MoveList[] lists = new MoveList[depth + 1];
+        for (int i = 0; i <= depth; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+    /**
+     * Lance un perft depuis la position initiale et affiche le détail par mouvement,
+     * le total, la durée et le débit en nœuds par seconde.
+     * Arguments : profondeur [nombre de fils] [bits de la table].
+     *
+     * @param args les arguments de la ligne de commande.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int tableBits = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        Perft perft = new Perft(parallelism, tableBits);
+        Board board = new Board();
+        long start = System.nanoTime();
+        Map<String, Long> counts = perft.divide(board, depth);
+        long elapsed = System.nanoTime() - start;
+        perft.shutdown();
+
+        long total = 0;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        System.out.println();
+        System.out.println("Nœuds : " + total);
+        System.out.println("Durée : " + (elapsed / 1_000_000) + " ms");
+        System.out.println("Débit : " + (total * 1_000_000_000L / Math.max(elapsed, 1)) + " nœuds/s");
+    }
+}
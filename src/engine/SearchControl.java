@@ -0,0 +1,89 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * La classe SearchControl est partagée par tous les fils d'une même recherche.
+ * Elle cumule les nœuds visités par les fils, surveille les échéances de temps et porte le signal d'arrêt :
+ * dès que le budget de nœuds est épuisé, que le temps dur est écoulé, que le fil principal a terminé
+ * ou qu'un autre fil a annulé la recherche, tous les fils s'arrêtent.
+ * L'horloge n'est consultée qu'au moment où un fil reporte un lot de nœuds, ce qui en rend le coût négligeable.
+ */
+class SearchControl {
+    private final long maxNodes;
+    private final long startNanos;
+    private final long softTimeNanos;
+    private final long hardTimeNanos;
+    private final AtomicLong nodes;
+    private volatile boolean stopped;
+
+    /**
+     * Constructeur de la classe SearchControl ; le temps de la recherche commence à courir.
+     *
+     * @param limits les limites de la recherche.
+     */
+    SearchControl(SearchLimits limits) {
+        this.maxNodes = limits.getMaxNodes();
+        this.startNanos = System.nanoTime();
+        this.softTimeNanos = toNanos(limits.getSoftTimeMillis());
+        this.hardTimeNanos = toNanos(limits.getHardTimeMillis());
+        this.nodes = new AtomicLong();
+        this.stopped = false;
+    }
+
+    /**
+     * Convertit une durée en nanosecondes, un temps non limité restant non limité.
+     *
+     * @param millis la durée en millisecondes, ou SearchLimits.NO_TIME_LIMIT.
+     * @return la durée en nanosecondes, ou Long.MAX_VALUE.
+     */
+    private static long toNanos(long millis) {
+        return (millis >= Long.MAX_VALUE / 1_000_000L) ? Long.MAX_VALUE : millis * 1_000_000L;
+    }
+
+    /**
+     * Ajoute des nœuds au total de la recherche et demande l'arrêt si le budget de nœuds
+     * ou le temps dur est épuisé.
+     *
+     * @param count le nombre de nœuds visités par un fil depuis son dernier appel.
+     */
+    void addNodes(long count) {
+        if (this.nodes.addAndGet(count) >= this.maxNodes || this.elapsedNanos() >= this.hardTimeNanos) {
+            this.stopped = true;
+        }
+    }
+
+    /**
+     * Indique si le temps souple est écoulé : une nouvelle itération ne doit pas être commencée.
+     *
+     * @return true si le temps souple est écoulé, false sinon.
+     */
+    boolean isSoftTimeUp() {
+        return this.elapsedNanos() >= this.softTimeNanos;
+    }
+
+    /**
+     * Retourne le temps écoulé depuis le début de la recherche.
+     *
+     * @return le temps écoulé, en nanosecondes.
+     */
+    long elapsedNanos() {
+        return System.nanoTime() - this.startNanos;
+    }
+
+    /**
+     * Demande l'arrêt de tous les fils de la recherche. Cette méthode peut être appelée depuis n'importe quel fil.
+     */
+    void stop() {
+        this.stopped = true;
+    }
+
+    /**
+     * Indique si l'arrêt de la recherche a été demandé.
+     *
+     * @return true si les fils doivent s'arrêter, false sinon.
+     */
+    boolean isStopped() {
+        return this.stopped;
+    }
+}
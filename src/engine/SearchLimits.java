@@ -0,0 +1,150 @@
+package engine;
+
+/**
+ * La classe SearchLimits regroupe les limites d'une recherche : profondeur maximale, nombre maximal de nœuds
+ * et budget de temps. La recherche s'arrête dès que l'une d'elles est atteinte et retourne le meilleur mouvement
+ * trouvé jusque-là.
+ * Le budget de temps comporte deux bornes : passé le temps souple, aucune nouvelle itération n'est commencée,
+ * car elle a peu de chances de se terminer ; le temps dur est une échéance stricte qui interrompt la recherche.
+ */
+public class SearchLimits {
+    /**
+     * Profondeur maximale acceptée par le moteur, en demi-coups.
+     */
+    public static final int MAX_DEPTH = 100;
+
+    /**
+     * Valeur d'un temps non limité.
+     */
+    public static final long NO_TIME_LIMIT = Long.MAX_VALUE;
+
+    // Nombre de coups restants supposé lorsque la pendule ne donne que le temps restant
+    private static final int MOVES_TO_GO = 30;
+    // Temps réservé à la pendule pour jouer effectivement le coup
+    private static final long SAFETY_MARGIN_MILLIS = 50;
+
+    private final int maxDepth;
+    private final long maxNodes;
+    private final long softTimeMillis;
+    private final long hardTimeMillis;
+
+    /**
+     * Constructeur de la classe SearchLimits.
+     *
+     * @param maxDepth la profondeur maximale, en demi-coups (de 1 à MAX_DEPTH).
+     * @param maxNodes le nombre maximal de nœuds visités (au moins 1).
+     */
+    public SearchLimits(int maxDepth, long maxNodes) {
+        this(maxDepth, maxNodes, NO_TIME_LIMIT, NO_TIME_LIMIT);
+    }
+
+    /**
+     * Constructeur de la classe SearchLimits avec un budget de temps.
+     *
+     * @param maxDepth la profondeur maximale, en demi-coups (de 1 à MAX_DEPTH).
+     * @param maxNodes le nombre maximal de nœuds visités (au moins 1).
+     * @param softTimeMillis le temps au-delà duquel aucune itération n'est commencée, en millisecondes.
+     * @param hardTimeMillis le temps au-delà duquel la recherche est interrompue, en millisecondes.
+     */
+    public SearchLimits(int maxDepth, long maxNodes, long softTimeMillis, long hardTimeMillis) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("La profondeur doit être comprise entre 1 et " + MAX_DEPTH + ".");
+        }
+        if (maxNodes < 1) {
+            throw new IllegalArgumentException("Le nombre de nœuds doit être strictement positif.");
+        }
+        if (softTimeMillis < 1 || hardTimeMillis < softTimeMillis) {
+            throw new IllegalArgumentException("Le temps souple doit être positif et ne pas dépasser le temps dur.");
+        }
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.softTimeMillis = softTimeMillis;
+        this.hardTimeMillis = hardTimeMillis;
+    }
+
+    /**
+     * Crée des limites ne portant que sur la profondeur.
+     *
+     * @param maxDepth la profondeur maximale, en demi-coups.
+     * @return les limites correspondantes.
+     */
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, Long.MAX_VALUE);
+    }
+
+    /**
+     * Crée des limites ne portant que sur le nombre de nœuds.
+     *
+     * @param maxNodes le nombre maximal de nœuds.
+     * @return les limites correspondantes.
+     */
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(MAX_DEPTH, maxNodes);
+    }
+
+    /**
+     * Crée des limites accordant un temps fixe au coup : la recherche se poursuit jusqu'à l'échéance.
+     *
+     * @param moveTimeMillis le temps accordé, en millisecondes.
+     * @return les limites correspondantes.
+     */
+    public static SearchLimits moveTime(long moveTimeMillis) {
+        return new SearchLimits(MAX_DEPTH, Long.MAX_VALUE, moveTimeMillis, moveTimeMillis);
+    }
+
+    /**
+     * Crée des limites à partir de la pendule : le temps restant est réparti sur les coups à venir,
+     * augmenté de la plus grande partie de l'incrément. Le temps dur autorise à dépasser cette part
+     * pour terminer une itération, sans jamais entamer la marge de sécurité du temps restant.
+     *
+     * @param remainingMillis le temps restant à la pendule, en millisecondes.
+     * @param incrementMillis l'incrément par coup, en millisecondes.
+     * @return les limites correspondantes.
+     */
+    public static SearchLimits clock(long remainingMillis, long incrementMillis) {
+        if (remainingMillis < 1 || incrementMillis < 0) {
+            throw new IllegalArgumentException("Le temps restant doit être strictement positif et l'incrément positif.");
+        }
+        long available = Math.max(remainingMillis - SAFETY_MARGIN_MILLIS, 1);
+        long share = remainingMillis / MOVES_TO_GO + incrementMillis * 3 / 4;
+        long hard = Math.max(Math.min(share * 3, available), 1);
+        long soft = Math.max(Math.min(share, hard), 1);
+        return new SearchLimits(MAX_DEPTH, Long.MAX_VALUE, soft, hard);
+    }
+
+    /**
+     * Retourne la profondeur maximale.
+     *
+     * @return la profondeur maximale, en demi-coups.
+     */
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    /**
+     * Retourne le nombre maximal de nœuds.
+     *
+     * @return le nombre maximal de nœuds.
+     */
+    public long getMaxNodes() {
+        return this.maxNodes;
+    }
+
+    /**
+     * Retourne le temps au-delà duquel aucune nouvelle itération n'est commencée.
+     *
+     * @return le temps souple en millisecondes, ou NO_TIME_LIMIT.
+     */
+    public long getSoftTimeMillis() {
+        return this.softTimeMillis;
+    }
+
+    /**
+     * Retourne le temps au-delà duquel la recherche est interrompue.
+     *
+     * @return le temps dur en millisecondes, ou NO_TIME_LIMIT.
+     */
+    public long getHardTimeMillis() {
+        return this.hardTimeMillis;
+    }
+}
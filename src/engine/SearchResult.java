@@ -0,0 +1,134 @@
+package engine;
+
+import models.PackedMove;
+
+/**
+ * La classe SearchResult contient le résultat d'une recherche : meilleur mouvement, évaluation,
+ * variante principale et statistiques (profondeur atteinte, nœuds visités, durée).
+ */
+public class SearchResult {
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final int[] principalVariation;
+    private final long[] threadNodes;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    /**
+     * Constructeur de la classe SearchResult.
+     *
+     * @param bestMove le meilleur mouvement encodé, ou PackedMove.NONE s'il n'y a aucun mouvement légal.
+     * @param score l'évaluation de la position pour le camp au trait, en centièmes de pion.
+     * @param depth la profondeur de la dernière itération terminée.
+     * @param principalVariation la variante principale, en mouvements encodés.
+     * @param threadNodes le nombre de nœuds visités par chaque fil de recherche.
+     * @param elapsedNanos la durée de la recherche, en nanosecondes.
+     */
+    public SearchResult(int bestMove, int score, int depth, int[] principalVariation, long[] threadNodes,
+            long elapsedNanos) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.principalVariation = principalVariation;
+        this.threadNodes = threadNodes;
+        long total = 0;
+        for (long count : threadNodes) {
+            total += count;
+        }
+        this.nodes = total;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Retourne le meilleur mouvement.
+     *
+     * @return le meilleur mouvement encodé, ou PackedMove.NONE s'il n'y a aucun mouvement légal.
+     */
+    public int getBestMove() {
+        return this.bestMove;
+    }
+
+    /**
+     * Retourne l'évaluation de la position pour le camp au trait.
+     *
+     * @return l'évaluation, en centièmes de pion.
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Retourne la profondeur de la dernière itération terminée.
+     *
+     * @return la profondeur, en demi-coups.
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Retourne la variante principale.
+     *
+     * @return une copie de la variante principale, en mouvements encodés.
+     */
+    public int[] getPrincipalVariation() {
+        return this.principalVariation.clone();
+    }
+
+    /**
+     * Retourne le nombre de nœuds visités, tous fils confondus.
+     *
+     * @return le nombre de nœuds.
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /**
+     * Retourne le nombre de nœuds visités par chaque fil de recherche, le fil principal en premier.
+     *
+     * @return une copie du nombre de nœuds par fil.
+     */
+    public long[] getThreadNodes() {
+        return this.threadNodes.clone();
+    }
+
+    /**
+     * Retourne la durée de la recherche.
+     *
+     * @return la durée, en nanosecondes.
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * Retourne le débit de la recherche.
+     *
+     * @return le nombre de nœuds visités par seconde.
+     */
+    public long getNodesPerSecond() {
+        return this.nodes * 1_000_000_000L / Math.max(this.elapsedNanos, 1L);
+    }
+
+    /**
+     * Retourne une représentation sous forme de chaîne de caractères du résultat.
+     *
+     * @return une représentation sous forme de chaîne de caractères du résultat.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("depth ").append(this.depth)
+            .append(" score ").append(this.score)
+            .append(" nodes ").append(this.nodes)
+            .append(" threads ").append(this.threadNodes.length)
+            .append(" nps ").append(this.getNodesPerSecond())
+            .append(" pv");
+        for (int move : this.principalVariation) {
+            sb.append(' ').append(PackedMove.toString(move));
+        }
+        return sb.toString();
+    }
+}
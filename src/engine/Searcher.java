@@ -0,0 +1,448 @@
+package engine;
+
+import models.Bitbases;
+import models.Board;
+import models.Color;
+import models.MoveGenerator;
+import models.MoveList;
+import models.PackedMove;
+
+/**
+ * La classe Searcher mène une recherche sur sa propre copie de l'échiquier.
+ * Il s'agit d'un negamax alpha-bêta en approfondissement itératif : chaque itération commence par la variante
+ * principale de la précédente, puis les autres mouvements sont examinés avec une fenêtre nulle
+ * (recherche à variation principale) et ne sont recherchés à fenêtre complète que s'ils la dépassent.
+ * Les résultats sont partagés avec les autres recherches par la table de transposition : une position déjà
+ * recherchée assez profondément n'est pas recherchée à nouveau hors de la variation principale, et son meilleur
+ * mouvement est essayé en premier. Les autres mouvements sont classés par le MoveOrderer.
+ * Aux feuilles, une recherche de quiescence prolonge la variante par les seules captures et promotions,
+ * afin de ne jamais évaluer une position au milieu d'un échange.
+ * Plusieurs instances peuvent chercher la même position en parallèle (Lazy SMP) : chacune sur sa copie
+ * de l'échiquier, elles ne communiquent que par la table et par le contrôle de recherche partagé.
+ */
+class Searcher {
+    /**
+     * Borne supérieure des évaluations.
+     */
+    static final int INFINITY = 32_000;
+
+    /**
+     * Évaluation d'un mat immédiat ; un mat en n demi-coups vaut MATE - n.
+     */
+    static final int MATE = 31_000;
+
+    // Valeur indiquant qu'une position n'est pas couverte par les tables de finales
+    private static final int NO_SCORE = Integer.MIN_VALUE;
+
+    // Nombre maximal de demi-coups depuis la racine
+    private static final int MAX_PLY = SearchLimits.MAX_DEPTH + 1;
+
+    // Nombre de nœuds visités entre deux mises à jour du total partagé
+    private static final int NODE_BATCH = 256;
+
+    // Marge de l'élagage delta : une capture qui, même avec ce bonus, ne remonte pas à alpha est ignorée
+    private static final int DELTA_MARGIN = 200;
+
+    private final Board board;
+    private final SearchLimits limits;
+    private final TranspositionTable table;
+    private final SearchControl control;
+    private final Bitbases bitbases;
+    private final int startDepth;
+    private final MoveList[] moveLists;
+    private final int[][] moveScores;
+    private final MoveOrderer orderer;
+    private final int[][] pvTable;
+    private final int[] pvLength;
+    private final int[] previousPv;
+    private int previousPvLength;
+    private boolean followPv;
+    private final long[] keys;
+    private long nodes;
+    private boolean stopped;
+    private int rootBestMove;
+    private int rootBestScore;
+
+    /**
+     * Constructeur de la classe Searcher.
+     *
+     * @param board l'échiquier propre à la recherche ; il est modifié pendant la recherche puis rétabli.
+     * @param limits les limites de la recherche.
+     * @param table la table de transposition, partagée entre les fils.
+     * @param control le contrôle de la recherche, partagé entre les fils.
+     * @param bitbases les tables de finales consultées pendant la recherche, ou null.
+     * @param startDepth la profondeur de la première itération ; les fils auxiliaires en décalent certaines
+     *                   pour que tous ne cherchent pas la même profondeur au même moment.
+     */
+    Searcher(Board board, SearchLimits limits, TranspositionTable table, SearchControl control, Bitbases bitbases,
+            int startDepth) {
+        this.board = board;
+        this.limits = limits;
+        this.table = table;
+        this.control = control;
+        this.bitbases = bitbases;
+        this.startDepth = startDepth;
+        this.moveLists = new MoveList[MAX_PLY];
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            this.moveLists[ply] = new MoveList();
+        }
+        this.moveScores = new int[MAX_PLY][MoveList.MAX_MOVES];
+        this.orderer = new MoveOrderer(MAX_PLY);
+        this.pvTable = new int[MAX_PLY][MAX_PLY];
+        this.pvLength = new int[MAX_PLY];
+        this.previousPv = new int[MAX_PLY];
+        this.keys = new long[MAX_PLY];
+    }
+
+    /**
+     * Recherche le meilleur mouvement par approfondissement itératif, jusqu'à atteindre une limite.
+     *
+     * @return le résultat de la dernière itération terminée.
+     */
+    SearchResult iterate() {
+        long start = System.nanoTime();
+        this.nodes = 0;
+        this.stopped = false;
+        this.previousPvLength = 0;
+        this.orderer.newSearch();
+
+        // Mouvement de repli si même la première itération est interrompue
+        MoveList rootMoves = new MoveList();
+        MoveGenerator.generateLegalMoves(this.board, rootMoves);
+        int bestMove = rootMoves.isEmpty() ? PackedMove.NONE : rootMoves.get(0);
+        int bestScore = 0;
+        int completedDepth = 0;
+        int[] pv = new int[0];
+
+        for (int depth = this.startDepth; depth <= this.limits.getMaxDepth() && !rootMoves.isEmpty(); depth++) {
+            this.followPv = true;
+            this.rootBestMove = PackedMove.NONE;
+            int score = this.negamax(depth, -INFINITY, INFINITY, 0);
+            if (this.stopped) {
+                // Les mouvements de la racine déjà recherchés à cette profondeur l'ont été entièrement :
+                // le meilleur d'entre eux est plus fiable que celui de l'itération précédente
+                if (this.rootBestMove != PackedMove.NONE) {
+                    bestMove = this.rootBestMove;
+                    bestScore = this.rootBestScore;
+                    pv = new int[this.pvLength[0]];
+                    System.arraycopy(this.pvTable[0], 0, pv, 0, pv.length);
+                }
+                break;
+            }
+
+            completedDepth = depth;
+            bestScore = score;
+            pv = new int[this.pvLength[0]];
+            System.arraycopy(this.pvTable[0], 0, pv, 0, pv.length);
+            System.arraycopy(pv, 0, this.previousPv, 0, pv.length);
+            this.previousPvLength = pv.length;
+            if (pv.length > 0) {
+                bestMove = pv[0];
+            }
+
+            // Un mat trouvé ne sera pas amélioré par une recherche plus profonde
+            if (Math.abs(score) >= MATE - MAX_PLY) {
+                break;
+            }
+            // Passé le temps souple, l'itération suivante n'aurait guère de chances de se terminer
+            if (this.control.isSoftTimeUp()) {
+                break;
+            }
+        }
+        this.control.addNodes(this.nodes % NODE_BATCH);
+        return new SearchResult(bestMove, bestScore, completedDepth, pv, new long[] {this.nodes},
+            System.nanoTime() - start);
+    }
+
+    /**
+     * Recherche négamax alpha-bêta.
+     *
+     * @param depth la profondeur restante.
+     * @param alpha la borne inférieure de la fenêtre.
+     * @param beta la borne supérieure de la fenêtre.
+     * @param ply le nombre de demi-coups depuis la racine.
+     * @return l'évaluation de la position pour le camp au trait.
+     */
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if (depth == 0) {
+            return this.quiescence(alpha, beta, ply);
+        }
+        this.pvLength[ply] = ply;
+        if (this.countNode()) {
+            return 0;
+        }
+        this.keys[ply] = this.board.getHashKey();
+        if (ply > 0 && this.isRepetition(ply)) {
+            return 0;
+        }
+        if (ply > 0 && this.bitbases != null) {
+            int score = this.probeBitbases(ply);
+            if (score != NO_SCORE) {
+                return score;
+            }
+        }
+        if (ply == MAX_PLY - 1) {
+            return Evaluator.evaluate(this.board);
+        }
+
+        // Une entrée assez profonde tranche hors de la variation principale, sinon elle fournit le premier mouvement
+        long key = this.keys[ply];
+        long entry = this.table.probe(key);
+        int hashMove = PackedMove.NONE;
+        if (entry != 0L) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && beta - alpha == 1 && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.adjustScoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = this.moveLists[ply];
+        MoveGenerator.generateLegalMoves(this.board, moves);
+        Color us = this.board.getSideToMove();
+        if (moves.isEmpty()) {
+            return this.isInCheck(us) ? -MATE + ply : 0;
+        }
+        int priorityMove = this.pvMove(moves, ply);
+        int[] scores = this.moveScores[ply];
+        this.orderer.scoreMoves(moves, scores, ply, (priorityMove != PackedMove.NONE) ? priorityMove : hashMove, us);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = PackedMove.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = MoveOrderer.pickNext(moves, scores, i);
+            this.board.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -this.negamax(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                // Fenêtre nulle : il suffit de prouver que le mouvement ne dépasse pas alpha
+                score = -this.negamax(depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta) {
+                    score = -this.negamax(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            this.board.undoLastMove();
+            if (this.stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    this.updatePv(ply, move);
+                    if (ply == 0) {
+                        this.rootBestMove = move;
+                        this.rootBestScore = score;
+                    }
+                    if (alpha >= beta) {
+                        this.orderer.recordCutoff(move, ply, depth, us);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = (bestScore >= beta) ? TranspositionTable.LOWER
+            : (bestScore > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        this.table.store(key, (bound == TranspositionTable.UPPER) ? PackedMove.NONE : bestMove,
+            TranspositionTable.adjustScoreToTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Recherche de quiescence : seules les captures et les promotions sont examinées, jusqu'à une position calme.
+     * Hors échec, le camp au trait peut se contenter de l'évaluation statique (stand pat) au lieu de capturer,
+     * et les captures qui ne pourraient pas ramener l'évaluation à alpha sont élaguées (élagage delta).
+     * En échec, toutes les parades sont examinées, ce qui permet de détecter les mats.
+     *
+     * @param alpha la borne inférieure de la fenêtre.
+     * @param beta la borne supérieure de la fenêtre.
+     * @param ply le nombre de demi-coups depuis la racine.
+     * @return l'évaluation de la position pour le camp au trait.
+     */
+    private int quiescence(int alpha, int beta, int ply) {
+        this.pvLength[ply] = ply;
+        if (this.countNode()) {
+            return 0;
+        }
+        if (ply == MAX_PLY - 1) {
+            return Evaluator.evaluate(this.board);
+        }
+
+        Color us = this.board.getSideToMove();
+        boolean inCheck = this.isInCheck(us);
+        MoveList moves = this.moveLists[ply];
+        int standPat = -INFINITY;
+        int bestScore;
+        if (inCheck) {
+            MoveGenerator.generateLegalMoves(this.board, moves);
+            if (moves.isEmpty()) {
+                return -MATE + ply;
+            }
+            bestScore = -INFINITY;
+        } else {
+            standPat = Evaluator.evaluate(this.board);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+            bestScore = standPat;
+            MoveGenerator.generateLegalCaptures(this.board, moves);
+        }
+
+        int[] scores = this.moveScores[ply];
+        this.orderer.scoreMoves(moves, scores, ply, PackedMove.NONE, us);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = MoveOrderer.pickNext(moves, scores, i);
+            // Élagage delta : même en gagnant la pièce capturée, l'évaluation resterait sous alpha
+            if (!inCheck && !PackedMove.isPromotion(move)
+                    && standPat + Evaluator.pieceValue(PackedMove.captured(move)) + DELTA_MARGIN <= alpha) {
+                continue;
+            }
+
+            this.board.makeMove(move);
+            int score = -this.quiescence(-beta, -alpha, ply + 1);
+            this.board.undoLastMove();
+            if (this.stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    this.updatePv(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Compte un nœud et vérifie si la recherche doit s'arrêter.
+     *
+     * @return true si la recherche est interrompue, false sinon.
+     */
+    private boolean countNode() {
+        if (++this.nodes % NODE_BATCH == 0) {
+            this.control.addNodes(NODE_BATCH);
+        }
+        if (this.control.isStopped()) {
+            this.stopped = true;
+        }
+        return this.stopped;
+    }
+
+    /**
+     * Indique si le roi d'un camp est en échec.
+     *
+     * @param us la couleur du camp.
+     * @return true si le roi est attaqué, false sinon.
+     */
+    private boolean isInCheck(Color us) {
+        return this.board.getAttackers(this.board.getKingSquare(us),
+            (us == Color.WHITE) ? Color.BLACK : Color.WHITE, this.board.getOccupied()) != 0L;
+    }
+
+    /**
+     * Retourne le mouvement de la variante principale de l'itération précédente,
+     * tant que la recherche suit cette variante depuis la racine.
+     *
+     * @param moves les mouvements de la position.
+     * @param ply le nombre de demi-coups depuis la racine.
+     * @return le mouvement de la variante principale, ou PackedMove.NONE si la recherche ne la suit plus.
+     */
+    private int pvMove(MoveList moves, int ply) {
+        if (!this.followPv) {
+            return PackedMove.NONE;
+        }
+        this.followPv = ply < this.previousPvLength && contains(moves, this.previousPv[ply]);
+        return this.followPv ? this.previousPv[ply] : PackedMove.NONE;
+    }
+
+    /**
+     * Indique si un mouvement fait partie d'une liste.
+     *
+     * @param moves les mouvements de la position.
+     * @param move le mouvement recherché.
+     * @return true si le mouvement fait partie de la liste, false sinon.
+     */
+    private static boolean contains(MoveList moves, int move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Enregistre un nouveau meilleur mouvement et la variante qui le suit.
+     *
+     * @param ply le nombre de demi-coups depuis la racine.
+     * @param move le meilleur mouvement.
+     */
+    private void updatePv(int ply, int move) {
+        this.pvTable[ply][ply] = move;
+        int childLength = this.pvLength[ply + 1];
+        System.arraycopy(this.pvTable[ply + 1], ply + 1, this.pvTable[ply], ply + 1, childLength - ply - 1);
+        this.pvLength[ply] = childLength;
+    }
+
+    /**
+     * Consulte les tables de finales pour la position courante, qui donnent une évaluation exacte :
+     * un gain ou une perte est évalué comme un mat à la distance enregistrée dans la table.
+     *
+     * @param ply le nombre de demi-coups depuis la racine.
+     * @return l'évaluation exacte pour le camp au trait, ou NO_SCORE si la position n'est pas couverte.
+     */
+    private int probeBitbases(int ply) {
+        if (this.board.getPieceCount(Color.WHITE) + this.board.getPieceCount(Color.BLACK) > 3) {
+            return NO_SCORE;
+        }
+        return switch (this.bitbases.probe(this.board)) {
+            case Bitbases.WIN -> MATE - ply - this.bitbases.getDistanceToMate(this.board);
+            case Bitbases.LOSS -> -MATE + ply + this.bitbases.getDistanceToMate(this.board);
+            case Bitbases.DRAW -> 0;
+            default -> NO_SCORE;
+        };
+    }
+
+    /**
+     * Indique si la position courante est déjà apparue sur le chemin depuis la racine, avec le même camp au trait.
+     *
+     * @param ply le nombre de demi-coups depuis la racine.
+     * @return true si la position se répète, false sinon.
+     */
+    private boolean isRepetition(int ply) {
+        for (int previous = ply - 2; previous >= 0; previous -= 2) {
+            if (this.keys[previous] == this.keys[ply]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retourne le nombre de nœuds visités depuis le début de la recherche.
+     *
+     * @return le nombre de nœuds.
+     */
+    long getNodes() {
+        return this.nodes;
+    }
+}
@@ -0,0 +1,323 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * La classe TranspositionTable mémorise le résultat des recherches par position, indexé par la clé de Zobrist
+ * de l'échiquier, afin de ne pas rechercher plusieurs fois une position atteinte par différents chemins.
+ *
+ * La table est un simple tableau de long découpé en paniers de quatre entrées (64 octets, une ligne de cache).
+ * Chaque entrée occupe deux mots : la clé combinée par XOR aux données, puis les données. Une entrée écrite
+ * simultanément par deux fils ne vérifie plus cette combinaison et est ignorée à la lecture : la table peut donc
+ * être partagée entre plusieurs fils de recherche sans aucun verrou.
+ *
+ * Les données d'une entrée sont organisées ainsi :
+ * <ul>
+ * <li>bits 0 à 24 : meilleur mouvement encodé (voir PackedMove) ;</li>
+ * <li>bits 25 à 40 : évaluation, sur 16 bits signés ;</li>
+ * <li>bits 41 à 48 : profondeur de la recherche ;</li>
+ * <li>bits 49 et 50 : type de borne (exacte, inférieure ou supérieure) ;</li>
+ * <li>bits 51 à 58 : génération de la recherche qui a écrit l'entrée.</li>
+ * </ul>
+ */
+public class TranspositionTable {
+    /**
+     * L'évaluation est exacte.
+     */
+    public static final int EXACT = 1;
+
+    /**
+     * L'évaluation est une borne inférieure (coupure bêta).
+     */
+    public static final int LOWER = 2;
+
+    /**
+     * L'évaluation est une borne supérieure (aucun mouvement n'a dépassé alpha).
+     */
+    public static final int UPPER = 3;
+
+    private static final int BUCKET_SIZE = 4;
+    private static final int MOVE_MASK = (1 << 25) - 1;
+    private static final int SCORE_SHIFT = 25;
+    private static final int DEPTH_SHIFT = 41;
+    private static final int BOUND_SHIFT = 49;
+    private static final int AGE_SHIFT = 51;
+    // Nombre de paniers examinés pour estimer le taux de remplissage
+    private static final int FILL_SAMPLE = 1000;
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int age;
+    private final LongAdder probes;
+    private final LongAdder hits;
+    private final LongAdder stores;
+    private final LongAdder collisions;
+
+    /**
+     * Constructeur de la classe TranspositionTable.
+     *
+     * @param megabytes la taille de la table, en mégaoctets (arrondie à la puissance de deux inférieure).
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1 || megabytes > 8192) {
+            throw new IllegalArgumentException("La taille de la table doit être comprise entre 1 et 8192 Mo.");
+        }
+        long buckets = Long.highestOneBit(megabytes * 1024L * 1024L / (BUCKET_SIZE * 2 * Long.BYTES));
+        // Un tableau Java est limité à 2^31 éléments
+        buckets = Math.min(buckets, 1L << 27);
+        this.table = new long[(int) buckets * BUCKET_SIZE * 2];
+        this.bucketMask = (int) buckets - 1;
+        this.probes = new LongAdder();
+        this.hits = new LongAdder();
+        this.stores = new LongAdder();
+        this.collisions = new LongAdder();
+    }
+
+    /**
+     * Recherche l'entrée d'une position.
+     *
+     * @param key la clé de Zobrist de la position.
+     * @return les données de l'entrée, ou 0 si la position n'est pas dans la table.
+     */
+    public long probe(long key) {
+        this.probes.increment();
+        int base = this.bucketIndex(key);
+        for (int i = base; i < base + BUCKET_SIZE * 2; i += 2) {
+            long data = this.table[i + 1];
+            if ((this.table[i] ^ data) == key && data != 0L) {
+                this.hits.increment();
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Enregistre le résultat de la recherche d'une position.
+     * Dans le panier, l'entrée de la même position est remplacée en priorité, puis une entrée vide,
+     * et à défaut l'entrée la moins précieuse : la plus ancienne, puis la moins profonde.
+     *
+     * @param key la clé de Zobrist de la position.
+     * @param move le meilleur mouvement, ou PackedMove.NONE.
+     * @param score l'évaluation, ajustée par adjustScoreToTable.
+     * @param depth la profondeur de la recherche.
+     * @param bound le type de borne (EXACT, LOWER ou UPPER).
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        this.stores.increment();
+        int base = this.bucketIndex(key);
+        int currentAge = this.age;
+        int victim = base;
+        int victimValue = Integer.MAX_VALUE;
+        for (int i = base; i < base + BUCKET_SIZE * 2; i += 2) {
+            long data = this.table[i + 1];
+            if (data == 0L || (this.table[i] ^ data) == key) {
+                victim = i;
+                // Conserve le mouvement connu si la nouvelle recherche n'en a pas trouvé
+                if (data != 0L && move == 0) {
+                    move = move(data);
+                }
+                victimValue = Integer.MIN_VALUE;
+                break;
+            }
+            // Les entrées des recherches précédentes sont sacrifiées avant celles de la recherche courante
+            int value = depth(data) - (((currentAge - age(data)) & 0xFF) << 8);
+            if (value < victimValue) {
+                victim = i;
+                victimValue = value;
+            }
+        }
+        if (victimValue != Integer.MIN_VALUE && age(this.table[victim + 1]) == currentAge) {
+            this.collisions.increment();
+        }
+
+        long data = (move & MOVE_MASK)
+            | ((long) (score & 0xFFFF) << SCORE_SHIFT)
+            | ((long) depth << DEPTH_SHIFT)
+            | ((long) bound << BOUND_SHIFT)
+            | ((long) currentAge << AGE_SHIFT);
+        this.table[victim] = key ^ data;
+        this.table[victim + 1] = data;
+    }
+
+    /**
+     * Retourne l'indice du premier mot du panier d'une position.
+     *
+     * @param key la clé de Zobrist de la position.
+     * @return l'indice dans le tableau.
+     */
+    private int bucketIndex(long key) {
+        // Les bits de poids fort de la clé choisissent le panier
+        return ((int) (key >>> 32) & this.bucketMask) * BUCKET_SIZE * 2;
+    }
+
+    /**
+     * Commence une nouvelle recherche : les entrées existantes deviennent remplaçables en priorité.
+     */
+    public void newSearch() {
+        this.age = (this.age + 1) & 0xFF;
+    }
+
+    /**
+     * Vide la table et remet les statistiques à zéro.
+     */
+    public void clear() {
+        Arrays.fill(this.table, 0L);
+        this.probes.reset();
+        this.hits.reset();
+        this.stores.reset();
+        this.collisions.reset();
+    }
+
+    /**
+     * Retourne le meilleur mouvement d'une entrée.
+     *
+     * @param data les données de l'entrée.
+     * @return le mouvement encodé, ou PackedMove.NONE.
+     */
+    public static int move(long data) {
+        return (int) data & MOVE_MASK;
+    }
+
+    /**
+     * Retourne l'évaluation d'une entrée, telle qu'elle a été enregistrée.
+     *
+     * @param data les données de l'entrée.
+     * @return l'évaluation, à ajuster par adjustScoreFromTable.
+     */
+    public static int score(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    /**
+     * Retourne la profondeur d'une entrée.
+     *
+     * @param data les données de l'entrée.
+     * @return la profondeur.
+     */
+    public static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    /**
+     * Retourne le type de borne d'une entrée.
+     *
+     * @param data les données de l'entrée.
+     * @return EXACT, LOWER ou UPPER.
+     */
+    public static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * Retourne la génération d'une entrée.
+     *
+     * @param data les données de l'entrée.
+     * @return la génération.
+     */
+    private static int age(long data) {
+        return (int) (data >>> AGE_SHIFT) & 0xFF;
+    }
+
+    /**
+     * Convertit une évaluation de mat relative à la racine en évaluation relative à la position,
+     * afin qu'elle reste juste lorsque la position est atteinte à une autre distance de la racine.
+     *
+     * @param score l'évaluation relative à la racine.
+     * @param ply le nombre de demi-coups depuis la racine.
+     * @return l'évaluation à enregistrer.
+     */
+    public static int adjustScoreToTable(int score, int ply) {
+        if (score >= Searcher.MATE - SearchLimits.MAX_DEPTH) {
+            return score + ply;
+        }
+        if (score <= -Searcher.MATE + SearchLimits.MAX_DEPTH) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    /**
+     * Convertit une évaluation enregistrée en évaluation relative à la racine.
+     *
+     * @param score l'évaluation enregistrée.
+     * @param ply le nombre de demi-coups depuis la racine.
+     * @return l'évaluation relative à la racine.
+     */
+    public static int adjustScoreFromTable(int score, int ply) {
+        if (score >= Searcher.MATE - SearchLimits.MAX_DEPTH) {
+            return score - ply;
+        }
+        if (score <= -Searcher.MATE + SearchLimits.MAX_DEPTH) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Retourne la proportion des recherches dans la table qui ont trouvé la position.
+     *
+     * @return le taux de succès, entre 0 et 1.
+     */
+    public double getHitRate() {
+        long probeCount = this.probes.sum();
+        return (probeCount == 0) ? 0.0 : (double) this.hits.sum() / probeCount;
+    }
+
+    /**
+     * Retourne le nombre d'enregistrements qui ont écrasé l'entrée d'une autre position de la recherche courante.
+     *
+     * @return le nombre de collisions.
+     */
+    public long getCollisions() {
+        return this.collisions.sum();
+    }
+
+    /**
+     * Retourne le nombre d'enregistrements.
+     *
+     * @return le nombre d'enregistrements.
+     */
+    public long getStores() {
+        return this.stores.sum();
+    }
+
+    /**
+     * Estime la proportion des entrées occupées par la recherche courante, sur un échantillon de paniers.
+     *
+     * @return le taux de remplissage, entre 0 et 1.
+     */
+    public double getFillRatio() {
+        int buckets = Math.min(FILL_SAMPLE, this.bucketMask + 1);
+        int used = 0;
+        for (int i = 1; i < buckets * BUCKET_SIZE * 2; i += 2) {
+            long data = this.table[i];
+            if (data != 0L && age(data) == this.age) {
+                used++;
+            }
+        }
+        return (double) used / (buckets * BUCKET_SIZE);
+    }
+
+    /**
+     * Retourne la taille de la table.
+     *
+     * @return le nombre d'entrées.
+     */
+    public int getCapacity() {
+        return (this.bucketMask + 1) * BUCKET_SIZE;
+    }
+
+    /**
+     * Retourne une représentation sous forme de chaîne de caractères des statistiques de la table.
+     *
+     * @return une représentation sous forme de chaîne de caractères des statistiques de la table.
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "hits %.1f%% collisions %d fill %.1f%% (%d entries)",
+            this.getHitRate() * 100, this.getCollisions(), this.getFillRatio() * 100, this.getCapacity());
+    }
+}
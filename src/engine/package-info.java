@@ -0,0 +1,6 @@
+/**
+ * Le package 'engine' contient les outils de calcul qui explorent l'arbre des mouvements du jeu d'échecs.
+ * On y trouve notamment le perft, qui dénombre les positions atteignables à une profondeur donnée
+ * et sert à la fois à vérifier la génération des mouvements et à mesurer son débit.
+ */
+package engine;
\ No newline at end of file
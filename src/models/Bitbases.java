@@ -0,0 +1,536 @@
+package models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import strategies.AttackTables;
+
+/**
+ * La classe Bitbases donne le résultat exact des finales roi et dame, roi et tour, roi et pion contre roi seul
+ * (KQK, KRK et KPK) : gain, nulle ou perte pour le camp au trait, et distance au mat en demi-coups.
+ *
+ * Les tables sont calculées localement par analyse rétrograde : les positions de mat sont marquées, puis chaque
+ * passe marque les positions où le camp fort peut atteindre une position perdante en un coup, et celles où
+ * toutes les réponses du roi seul mènent à une position gagnante. Le calcul des passes est réparti sur plusieurs
+ * fils. La table KPK s'appuie sur les tables KQK et KRK pour les promotions.
+ *
+ * Chaque table est un fichier de 2 × 64 × 64 × 64 octets, indexé par le camp au trait, la case du roi fort,
+ * celle du roi seul et celle de la pièce, le camp fort étant ramené aux blancs par symétrie verticale.
+ * Un octet nul désigne une nulle ; un octet n non nul, un mat en n - 1 demi-coups. Les fichiers sont projetés
+ * en mémoire et jamais copiés dans le tas.
+ */
+public final class Bitbases {
+    /**
+     * Le camp au trait gagne.
+     */
+    public static final int WIN = 1;
+
+    /**
+     * La position est nulle.
+     */
+    public static final int DRAW = 0;
+
+    /**
+     * Le camp au trait perd.
+     */
+    public static final int LOSS = -1;
+
+    /**
+     * La position n'est pas couverte par les tables.
+     */
+    public static final int UNKNOWN = 2;
+
+    // Pièce du camp fort de chaque table, et nom du fichier correspondant
+    private static final PieceType[] PIECES = {PieceType.QUEEN, PieceType.ROOK, PieceType.PAWN};
+    private static final String[] FILE_NAMES = {"kqk.bin", "krk.bin", "kpk.bin"};
+    private static final int TABLE_SIZE = 2 * 64 * 64 * 64;
+    // Camp au trait dans l'indice d'une table
+    private static final int STRONG = 0;
+    private static final int WEAK = 1;
+    private static final byte ILLEGAL = (byte) 0xFF;
+    // Plus grande valeur d'un octet valide
+    private static final int MAX_VALUE = 0xFE;
+
+    private final ByteBuffer[] tables;
+
+    /**
+     * Constructeur privé : les tables sont obtenues par open ou openOrGenerate.
+     *
+     * @param tables les tables projetées, dans l'ordre de PIECES.
+     */
+    private Bitbases(ByteBuffer[] tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * Projette en mémoire les tables d'un répertoire.
+     *
+     * @param directory le répertoire des tables.
+     * @return les tables.
+     * @throws IOException si un fichier ne peut pas être ouvert ou projeté.
+     * @throws IllegalArgumentException si un fichier n'a pas la taille d'une table.
+     */
+    public static Bitbases open(Path directory) throws IOException {
+        ByteBuffer[] tables = new ByteBuffer[PIECES.length];
+        for (int i = 0; i < PIECES.length; i++) {
+            Path path = directory.resolve(FILE_NAMES[i]);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (channel.size() != TABLE_SIZE) {
+                    throw new IllegalArgumentException("Table de finale invalide : " + path + ".");
+                }
+                tables[i] = channel.map(FileChannel.MapMode.READ_ONLY, 0, TABLE_SIZE);
+            }
+        }
+        return new Bitbases(tables);
+    }
+
+    /**
+     * Projette en mémoire les tables d'un répertoire, après les avoir calculées si elles manquent.
+     *
+     * @param directory le répertoire des tables.
+     * @param threads le nombre de fils utilisés pour le calcul.
+     * @return les tables.
+     * @throws IOException si un fichier ne peut pas être écrit, ouvert ou projeté.
+     */
+    public static Bitbases openOrGenerate(Path directory, int threads) throws IOException {
+        for (String name : FILE_NAMES) {
+            if (!Files.isRegularFile(directory.resolve(name))) {
+                generate(directory, threads);
+                break;
+            }
+        }
+        return open(directory);
+    }
+
+    /**
+     * Donne le résultat d'une position pour le camp au trait.
+     * Deux rois seuls, ou un roi et un fou ou un cavalier contre un roi seul, sont nuls.
+     *
+     * @param board l'échiquier.
+     * @return WIN, DRAW, LOSS, ou UNKNOWN si le matériel n'est pas couvert.
+     */
+    public int probe(Board board) {
+        int value = this.lookup(board);
+        if (value < 0) {
+            return UNKNOWN;
+        }
+        if (value == 0) {
+            return DRAW;
+        }
+        return (this.isStrongToMove(board)) ? WIN : LOSS;
+    }
+
+    /**
+     * Retourne la distance au mat d'une position gagnée ou perdue, en demi-coups.
+     *
+     * @param board l'échiquier.
+     * @return le nombre de demi-coups jusqu'au mat, ou -1 si la position est nulle ou non couverte.
+     */
+    public int getDistanceToMate(Board board) {
+        int value = this.lookup(board);
+        return (value > 0) ? value - 1 : -1;
+    }
+
+    /**
+     * Indique si le camp au trait possède la pièce en plus du roi.
+     *
+     * @param board l'échiquier, dont le matériel est couvert par les tables.
+     * @return true si le camp fort a le trait, false sinon.
+     */
+    private boolean isStrongToMove(Board board) {
+        return board.getPieceCount(board.getSideToMove()) == 2;
+    }
+
+    /**
+     * Lit l'octet d'une position dans sa table.
+     *
+     * @param board l'échiquier.
+     * @return l'octet non signé (0 pour une nulle), ou -1 si la position n'est pas couverte.
+     */
+    private int lookup(Board board) {
+        int white = board.getPieceCount(Color.WHITE);
+        int black = board.getPieceCount(Color.BLACK);
+        if (white + black == 2) {
+            return 0;
+        }
+        if (white + black != 3) {
+            return -1;
+        }
+        Color strong = (white == 2) ? Color.WHITE : Color.BLACK;
+        Color weak = (strong == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        int strongKing = board.getKingSquare(strong);
+        int weakKing = board.getKingSquare(weak);
+        int piece = Bitboards.firstSquare(board.getOccupancy(strong) & ~Bitboards.bit(strongKing));
+        int table = tableOf(board.getPiece(piece).getType());
+        if (table < 0) {
+            // Un fou ou un cavalier seul ne peut pas mater
+            return 0;
+        }
+
+        // Le camp fort est ramené aux blancs par symétrie verticale
+        int flip = (strong == Color.WHITE) ? 0 : 56;
+        int stm = (board.getSideToMove() == strong) ? STRONG : WEAK;
+        int value = this.tables[table].get(index(stm, strongKing ^ flip, weakKing ^ flip, piece ^ flip)) & 0xFF;
+        return (value == (ILLEGAL & 0xFF)) ? -1 : value;
+    }
+
+    /**
+     * Retourne l'indice de la table d'une pièce.
+     *
+     * @param type le type de la pièce du camp fort.
+     * @return l'indice dans PIECES, ou -1 si aucune table ne couvre cette pièce.
+     */
+    private static int tableOf(PieceType type) {
+        for (int i = 0; i < PIECES.length; i++) {
+            if (PIECES[i] == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Calcule l'indice d'une position dans une table.
+     *
+     * @param stm STRONG ou WEAK selon le camp au trait.
+     * @param strongKing la case du roi fort.
+     * @param weakKing la case du roi seul.
+     * @param piece la case de la pièce du camp fort.
+     * @return l'indice de l'octet.
+     */
+    private static int index(int stm, int strongKing, int weakKing, int piece) {
+        return (((stm << 6) | strongKing) << 12) | (weakKing << 6) | piece;
+    }
+
+    /**
+     * Calcule les trois tables et les écrit dans un répertoire.
+     *
+     * @param directory le répertoire des tables ; il est créé si besoin.
+     * @param threads le nombre de fils utilisés pour le calcul.
+     * @throws IOException si un fichier ne peut pas être écrit.
+     */
+    public static void generate(Path directory, int threads) throws IOException {
+        Files.createDirectories(directory);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            byte[][] tables = new byte[PIECES.length][];
+            // KPK dépend de KQK et de KRK, calculées avant elle
+            for (int i = 0; i < PIECES.length; i++) {
+                tables[i] = new Generator(PIECES[i], tables[0], tables[1]).run(pool);
+                Files.write(directory.resolve(FILE_NAMES[i]), tables[i]);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Calcule les tables de finales.
+     * Arguments : [répertoire des tables] [nombre de fils].
+     *
+     * @param args les arguments de la ligne de commande.
+     * @throws IOException si un fichier ne peut pas être écrit.
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "bitbases");
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        generate(directory, threads);
+        System.out.println("Tables écrites dans " + directory + " en " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+    }
+
+    /**
+     * Calcul rétrograde d'une table.
+     * Les passes alternent entre les positions où le camp fort a le trait (passes impaires) et celles où le roi
+     * seul a le trait (passes paires) : une passe ne lit que des positions de l'autre camp, si bien que les fils
+     * peuvent écrire dans la table sans se gêner.
+     */
+    private static final class Generator {
+        private final PieceType piece;
+        private final byte[] queenTable;
+        private final byte[] rookTable;
+        private final byte[] table;
+
+        /**
+         * Constructeur de la classe Generator.
+         *
+         * @param piece la pièce du camp fort.
+         * @param queenTable la table KQK, utilisée pour les promotions en dame.
+         * @param rookTable la table KRK, utilisée pour les promotions en tour.
+         */
+        Generator(PieceType piece, byte[] queenTable, byte[] rookTable) {
+            this.piece = piece;
+            this.queenTable = queenTable;
+            this.rookTable = rookTable;
+            this.table = new byte[TABLE_SIZE];
+        }
+
+        /**
+         * Calcule la table.
+         *
+         * @param pool les fils de calcul.
+         * @return la table calculée.
+         * @throws IOException si un fil de calcul a échoué.
+         */
+        byte[] run(ExecutorService pool) throws IOException {
+            this.runPass(pool, 0);
+
+            // Les promotions peuvent mener à des mats plus longs que tous ceux déjà trouvés dans cette table
+            int dependencyMax = 0;
+            if (this.piece == PieceType.PAWN) {
+                dependencyMax = Math.max(maxValue(this.queenTable), maxValue(this.rookTable));
+            }
+            boolean previousChanged = true;
+            for (int pass = 1; pass < MAX_VALUE; pass++) {
+                boolean changed = this.runPass(pool, pass);
+                if (!changed && !previousChanged && pass > dependencyMax) {
+                    break;
+                }
+                previousChanged = changed;
+            }
+            return this.table;
+        }
+
+        /**
+         * Exécute une passe, répartie par case du roi fort.
+         *
+         * @param pool les fils de calcul.
+         * @param pass le numéro de la passe (0 pour l'initialisation).
+         * @return true si la passe a marqué au moins une position, false sinon.
+         * @throws IOException si un fil de calcul a échoué.
+         */
+        private boolean runPass(ExecutorService pool, int pass) throws IOException {
+            List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+            for (int strongKing = 0; strongKing < 64; strongKing++) {
+                int square = strongKing;
+                tasks.add(() -> (pass == 0) ? this.initialize(square) : this.resolve(square, pass));
+            }
+            boolean changed = false;
+            try {
+                for (Future<Boolean> result : pool.invokeAll(tasks)) {
+                    changed |= result.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Calcul des tables interrompu.", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Échec du calcul des tables.", e.getCause());
+            }
+            return changed;
+        }
+
+        /**
+         * Marque les positions illégales et les mats pour une case du roi fort.
+         *
+         * @param strongKing la case du roi fort.
+         * @return true si un mat a été marqué, false sinon.
+         */
+        private boolean initialize(int strongKing) {
+            boolean changed = false;
+            for (int weakKing = 0; weakKing < 64; weakKing++) {
+                for (int square = 0; square < 64; square++) {
+                    for (int stm = STRONG; stm <= WEAK; stm++) {
+                        int index = index(stm, strongKing, weakKing, square);
+                        if (!this.isLegal(stm, strongKing, weakKing, square)) {
+                            this.table[index] = ILLEGAL;
+                        } else if (stm == WEAK && this.weakMoves(strongKing, weakKing, square, 0) == 0
+                                && this.isWeakInCheck(strongKing, weakKing, square)) {
+                            this.table[index] = 1;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * Marque, pour une case du roi fort, les positions dont le résultat est établi à cette passe.
+         *
+         * @param strongKing la case du roi fort.
+         * @param pass le numéro de la passe.
+         * @return true si une position a été marquée, false sinon.
+         */
+        private boolean resolve(int strongKing, int pass) {
+            int stm = (pass % 2 == 1) ? STRONG : WEAK;
+            boolean changed = false;
+            for (int weakKing = 0; weakKing < 64; weakKing++) {
+                for (int square = 0; square < 64; square++) {
+                    int index = index(stm, strongKing, weakKing, square);
+                    if (this.table[index] != 0) {
+                        continue;
+                    }
+                    boolean resolved = (stm == STRONG)
+                        ? this.hasMoveToLoss(strongKing, weakKing, square, pass)
+                        : this.weakMoves(strongKing, weakKing, square, pass) < 0;
+                    if (resolved) {
+                        this.table[index] = (byte) (pass + 1);
+                        changed = true;
+                    }
+                }
+            }
+            return changed;
+        }
+
+        /**
+         * Indique si une position est légale : trois cases distinctes, rois non adjacents, pion hors des rangées
+         * extrêmes, et roi seul hors d'échec lorsque le camp fort a le trait.
+         *
+         * @param stm STRONG ou WEAK selon le camp au trait.
+         * @param strongKing la case du roi fort.
+         * @param weakKing la case du roi seul.
+         * @param square la case de la pièce.
+         * @return true si la position est légale, false sinon.
+         */
+        private boolean isLegal(int stm, int strongKing, int weakKing, int square) {
+            if (strongKing == weakKing || strongKing == square || weakKing == square) {
+                return false;
+            }
+            if ((AttackTables.kingAttacks(strongKing) & Bitboards.bit(weakKing)) != 0L) {
+                return false;
+            }
+            if (this.piece == PieceType.PAWN && ((Bitboards.RANK_1 | Bitboards.RANK_8) & Bitboards.bit(square)) != 0L) {
+                return false;
+            }
+            return stm == WEAK || !this.isWeakInCheck(strongKing, weakKing, square);
+        }
+
+        /**
+         * Retourne les cases attaquées par la pièce du camp fort.
+         *
+         * @param square la case de la pièce.
+         * @param occupied le bitboard des cases occupées.
+         * @return le bitboard des cases attaquées.
+         */
+        private long pieceAttacks(int square, long occupied) {
+            return switch (this.piece) {
+                case QUEEN -> AttackTables.queenAttacks(square, occupied);
+                case ROOK -> AttackTables.rookAttacks(square, occupied);
+                default -> AttackTables.pawnAttacks(Color.WHITE, square);
+            };
+        }
+
+        /**
+         * Indique si le roi seul est attaqué par la pièce du camp fort.
+         *
+         * @param strongKing la case du roi fort.
+         * @param weakKing la case du roi seul.
+         * @param square la case de la pièce.
+         * @return true si le roi seul est en échec, false sinon.
+         */
+        private boolean isWeakInCheck(int strongKing, int weakKing, int square) {
+            long occupied = Bitboards.bit(strongKing) | Bitboards.bit(weakKing) | Bitboards.bit(square);
+            return (this.pieceAttacks(square, occupied) & Bitboards.bit(weakKing)) != 0L;
+        }
+
+        /**
+         * Examine les coups du roi seul.
+         * Avec une passe nulle, compte simplement les coups légaux. Sinon, indique si tous les coups mènent
+         * à une position déjà gagnée par le camp fort, une prise de la pièce menant à une nulle.
+         *
+         * @param strongKing la case du roi fort.
+         * @param weakKing la case du roi seul.
+         * @param square la case de la pièce.
+         * @param pass le numéro de la passe, ou 0 pour compter les coups.
+         * @return le nombre de coups légaux, ou -1 si le roi seul a au moins un coup et que tous sont perdants.
+         */
+        private int weakMoves(int strongKing, int weakKing, int square, int pass) {
+            // Le roi seul ne masque pas les cases situées derrière lui sur la ligne de la pièce
+            long occupied = Bitboards.bit(strongKing) | Bitboards.bit(square);
+            long guarded = AttackTables.kingAttacks(strongKing) | this.pieceAttacks(square, occupied);
+            long targets = AttackTables.kingAttacks(weakKing) & ~guarded;
+            int count = 0;
+            while (targets != 0L) {
+                int to = Bitboards.firstSquare(targets);
+                targets &= targets - 1;
+                count++;
+                if (pass > 0 && (to == square || this.table[index(STRONG, strongKing, to, square)] == 0)) {
+                    // La prise de la pièce, ou une position nulle ou non encore gagnée, sauve le roi seul
+                    return count;
+                }
+            }
+            return (pass > 0 && count > 0) ? -1 : count;
+        }
+
+        /**
+         * Indique si le camp fort a un coup menant à une position perdue en pass - 1 demi-coups par le roi seul.
+         *
+         * @param strongKing la case du roi fort.
+         * @param weakKing la case du roi seul.
+         * @param square la case de la pièce.
+         * @param pass le numéro de la passe.
+         * @return true si un tel coup existe, false sinon.
+         */
+        private boolean hasMoveToLoss(int strongKing, int weakKing, int square, int pass) {
+            byte target = (byte) pass;
+            long occupied = Bitboards.bit(strongKing) | Bitboards.bit(weakKing) | Bitboards.bit(square);
+
+            // Coups du roi fort, qui ne peut approcher le roi seul
+            long kingTargets = AttackTables.kingAttacks(strongKing) & ~AttackTables.kingAttacks(weakKing)
+                & ~Bitboards.bit(square);
+            while (kingTargets != 0L) {
+                int to = Bitboards.firstSquare(kingTargets);
+                kingTargets &= kingTargets - 1;
+                if (this.table[index(WEAK, to, weakKing, square)] == target) {
+                    return true;
+                }
+            }
+
+            if (this.piece != PieceType.PAWN) {
+                long pieceTargets = this.pieceAttacks(square, occupied) & ~occupied;
+                while (pieceTargets != 0L) {
+                    int to = Bitboards.firstSquare(pieceTargets);
+                    pieceTargets &= pieceTargets - 1;
+                    if (this.table[index(WEAK, strongKing, weakKing, to)] == target) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            // Poussées du pion, la promotion menant aux tables KQK et KRK
+            int single = square + 8;
+            if ((occupied & Bitboards.bit(single)) != 0L) {
+                return false;
+            }
+            if (single >= 56) {
+                int promoted = index(WEAK, strongKing, weakKing, single);
+                return this.queenTable[promoted] == target || this.rookTable[promoted] == target;
+            }
+            if (this.table[index(WEAK, strongKing, weakKing, single)] == target) {
+                return true;
+            }
+            int twice = square + 16;
+            return square < 16 && (occupied & Bitboards.bit(twice)) == 0L
+                && this.table[index(WEAK, strongKing, weakKing, twice)] == target;
+        }
+
+        /**
+         * Retourne la plus grande valeur valide d'une table.
+         *
+         * @param table la table.
+         * @return la plus grande valeur, illégales exceptées.
+         */
+        private static int maxValue(byte[] table) {
+            int max = 0;
+            for (byte value : table) {
+                int unsigned = value & 0xFF;
+                if (unsigned != (ILLEGAL & 0xFF) && unsigned > max) {
+                    max = unsigned;
+                }
+            }
+            return max;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package models;
+
+/**
+ * La classe Bitboards regroupe les constantes et les opérations utilitaires sur les bitboards.
+ * Un bitboard est un mot de 64 bits où le bit n correspond à la case n de l'échiquier,
+ * la case 0 étant a1, la case 7 étant h1 et la case 63 étant h8 (case = ligne * 8 + colonne).
+ */
+public final class Bitboards {
+    /**
+     * Bitboard de la colonne a.
+     */
+    public static final long FILE_A = 0x0101010101010101L;
+
+    /**
+     * Bitboard de la colonne h.
+     */
+    public static final long FILE_H = FILE_A << 7;
+
+    /**
+     * Bitboard de la première rangée.
+     */
+    public static final long RANK_1 = 0xFFL;
+
+    /**
+     * Bitboard de la huitième rangée.
+     */
+    public static final long RANK_8 = RANK_1 << 56;
+
+    /**
+     * Nombre de bitboards de pièces (six types pour chacune des deux couleurs).
+     */
+    public static final int PIECE_BITBOARD_COUNT = 12;
+
+    /**
+     * Constructeur privé : classe utilitaire non instanciable.
+     */
+    private Bitboards() {
+    }
+
+    /**
+     * Retourne l'indice de case correspondant à une ligne et une colonne.
+     *
+     * @param row la ligne de la case.
+     * @param column la colonne de la case.
+     * @return l'indice de la case (0 à 63).
+     */
+    public static int square(int row, int column) {
+        return row * 8 + column;
+    }
+
+    /**
+     * Retourne la ligne d'une case.
+     *
+     * @param square l'indice de la case.
+     * @return la ligne de la case.
+     */
+    public static int rowOf(int square) {
+        return square >>> 3;
+    }
+
+    /**
+     * Retourne la colonne d'une case.
+     *
+     * @param square l'indice de la case.
+     * @return la colonne de la case.
+     */
+    public static int columnOf(int square) {
+        return square & 7;
+    }
+
+    /**
+     * Retourne le bitboard ne contenant que la case donnée.
+     *
+     * @param square l'indice de la case.
+     * @return le bitboard de la case.
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Retourne l'indice du bitboard associé à un type de pièce et une couleur.
+     *
+     * @param type le type de la pièce.
+     * @param color la couleur de la pièce.
+     * @return l'indice du bitboard (0 à 11).
+     */
+    public static int index(PieceType type, Color color) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * Retourne l'indice de la case la plus basse présente dans le bitboard.
+     *
+     * @param bitboard le bitboard à examiner (non vide).
+     * @return l'indice de la première case occupée.
+     */
+    public static int firstSquare(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+
+    /**
+     * Retourne une représentation textuelle d'un bitboard, rangée 8 en haut.
+     *
+     * @param bitboard le bitboard à afficher.
+     * @return une représentation sous forme de chaîne de caractères du bitboard.
+     */
+    public static String toString(long bitboard) {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 7; row >= 0; row--) {
+            for (int col = 0; col < 8; col++) {
+                sb.append((bitboard & bit(square(row, col))) != 0 ? "1 " : ". ");
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+}
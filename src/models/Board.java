@@ -1,284 +1,865 @@
-package models;
-
-import java.util.ArrayList;
-
-/**
- * La classe Board représente l'échiquier dans un jeu d'échecs.
- * Elle gère la disposition des pièces, l'historique des mouvements et les règles de déplacement.
- */
-public class Board {
-    private Piece[][] squares;
-    private ArrayList<Move> moveHistory;
-
-    /**
-     * Constructeur de la classe Board.
-     * Initialise l'échiquier avec les pièces à leurs positions de départ.
-     */
-    public Board() {
-        this.squares = new Piece[8][8];
-        this.moveHistory = new ArrayList<Move>();
-        initializeBoard();
-    }
-
-    /**
-     * Initialise l'échiquier avec les pièces à leurs positions de départ.
-     */
-    public void initializeBoard() {
-        // Place les pions
-        for (int col = 0; col < 8; col++) {
-            this.squares[1][col] = new Piece(PieceType.PAWN, Color.WHITE, new Position(1, col));
-            this.squares[6][col] = new Piece(PieceType.PAWN, Color.BLACK, new Position(6, col));
-        }
-
-        // Place les pièces majeures
-        // Pièces blanches
-        placePiece(0, 0, PieceType.ROOK, Color.WHITE);
-        placePiece(0, 1, PieceType.KNIGHT, Color.WHITE);
-        placePiece(0, 2, PieceType.BISHOP, Color.WHITE);
-        placePiece(0, 3, PieceType.QUEEN, Color.WHITE);
-        placePiece(0, 4, PieceType.KING, Color.WHITE);
-        placePiece(0, 5, PieceType.BISHOP, Color.WHITE);
-        placePiece(0, 6, PieceType.KNIGHT, Color.WHITE);
-        placePiece(0, 7, PieceType.ROOK, Color.WHITE);
-
-        // Pièces noires
-        placePiece(7, 0, PieceType.ROOK, Color.BLACK);
-        placePiece(7, 1, PieceType.KNIGHT, Color.BLACK);
-        placePiece(7, 2, PieceType.BISHOP, Color.BLACK);
-        placePiece(7, 3, PieceType.QUEEN, Color.BLACK);
-        placePiece(7, 4, PieceType.KING, Color.BLACK);
-        placePiece(7, 5, PieceType.BISHOP, Color.BLACK);
-        placePiece(7, 6, PieceType.KNIGHT, Color.BLACK);
-        placePiece(7, 7, PieceType.ROOK, Color.BLACK);
-
-        for (int row = 2; row < 6; row++) {
-            for (int col = 0; col < 8; col++) {
-                this.squares[row][col] = null;
-            }
-        }
-    }
-
-    /**
-     * Place une pièce à une position spécifique sur l'échiquier.
-     *
-     * @param row la ligne de la position.
-     * @param col la colonne de la position.
-     * @param type le type de la pièce.
-     * @param color la couleur de la pièce.
-     */
-    private void placePiece(int row, int col, PieceType type, Color color) {
-        Position pos = new Position(row, col);
-        this.squares[row][col] = new Piece(type, color, pos);
-    }
-
-    /**
-     * Récupère la pièce à une position spécifique sur l'échiquier.
-     *
-     * @param position la position de la pièce.
-     * @return la pièce à la position spécifiée, ou null si aucune pièce n'est présente.
-     */
-    public Piece getPiece(Position position) {
-        return this.squares[position.getRow()][position.getColumn()];
-    }
-
-    /**
-     * Place une pièce à une position spécifique sur l'échiquier.
-     *
-     * @param position la position où placer la pièce.
-     * @param piece la pièce à placer.
-     */
-    public void setPiece(Position position, Piece piece) {
-        this.squares[position.getRow()][position.getColumn()] = piece;
-    }
-
-    /**
-     * Déplace une pièce d'une position à une autre sur l'échiquier.
-     *
-     * @param from la position de départ.
-     * @param to la position d'arrivée.
-     */
-    public void movePiece(Position from, Position to) {
-        Piece piece = getPiece(from);
-        Piece capturedPiece = getPiece(to);
-
-        this.moveHistory.add(new Move(piece, from, to, capturedPiece));
-
-        this.squares[to.getRow()][to.getColumn()] = piece;
-        this.squares[from.getRow()][from.getColumn()] = null;
-        piece.setPosition(to);
-        piece.setMoved();
-
-        // Gère le roque
-        if (piece.getType() == PieceType.KING && Math.abs(to.getColumn() - from.getColumn()) == 2) {
-            this.handleCastling(from, to);
-        }
-    }
-
-    /**
-     * Gère le roque en déplaçant la tour et le roi.
-     *
-     * @param kingFrom la position de départ du roi.
-     * @param kingTo la position d'arrivée du roi.
-     */
-    private void handleCastling(Position kingFrom, Position kingTo) {
-        int row = kingFrom.getRow();
-        // Roque côté roi
-        if (kingTo.getColumn() == 6) {
-            Position rookFrom = new Position(row, 7);
-            Position rookTo = new Position(row, 5);
-            Piece rook = getPiece(rookFrom);
-            this.squares[rookTo.getRow()][rookTo.getColumn()] = rook;
-            this.squares[rookFrom.getRow()][rookFrom.getColumn()] = null;
-            rook.setPosition(rookTo);
-            rook.setMoved();
-        }
-        // Roque côté dame
-        else if (kingTo.getColumn() == 2) {
-            Position rookFrom = new Position(row, 0);
-            Position rookTo = new Position(row, 3);
-            Piece rook = getPiece(rookFrom);
-            this.squares[rookTo.getRow()][rookTo.getColumn()] = rook;
-            this.squares[rookFrom.getRow()][rookFrom.getColumn()] = null;
-            rook.setPosition(rookTo);
-            rook.setMoved();
-        }
-    }
-
-    /**
-     * Annule le dernier mouvement effectué sur l'échiquier.
-     */
-    public void undoLastMove() {
-        if (this.moveHistory.isEmpty())
-            return;
-
-        Move lastMove = this.moveHistory.remove(moveHistory.size() - 1);
-
-        // Rétablit les pièces à leurs positions d'origine
-        this.squares[lastMove.getFrom().getRow()][lastMove.getFrom().getColumn()] = lastMove.getPiece();
-        this.squares[lastMove.getTo().getRow()][lastMove.getTo().getColumn()] = lastMove.getCapturedPiece();
-
-        // Met à jour la position de la pièce
-        lastMove.getPiece().setPosition(lastMove.getFrom());
-
-        // Gère l'annulation du roque
-        if (lastMove.getPiece().getType() == PieceType.KING &&
-            Math.abs(lastMove.getTo().getColumn() - lastMove.getFrom().getColumn()) == 2) {
-                this.undoCastling(lastMove.getFrom(), lastMove.getTo());
-        }
-
-        // Réinitialise le statut de déplacement si c'était le premier mouvement de la pièce
-        if (lastMove.isFirstMove()) {
-            lastMove.getPiece().setMoved(false);
-        }
-    }
-
-    /**
-     * Annule le roque en rétablissant les positions de la tour et du roi.
-     *
-     * @param kingFrom la position de départ du roi.
-     * @param kingTo la position d'arrivée du roi.
-     */
-    private void undoCastling(Position kingFrom, Position kingTo) {
-        int row = kingFrom.getRow();
-        // Annule le roque côté roi
-        if (kingTo.getColumn() == 6) {
-            Position rookFrom = new Position(row, 7);
-            Position rookTo = new Position(row, 5);
-            Piece rook = getPiece(rookTo);
-            this.squares[rookFrom.getRow()][rookFrom.getColumn()] = rook;
-            this.squares[rookTo.getRow()][rookTo.getColumn()] = null;
-            rook.setPosition(rookFrom);
-            rook.setMoved(false);
-        }
-        // Annule le roque côté dame
-        else if (kingTo.getColumn() == 2) {
-            Position rookFrom = new Position(row, 0);
-            Position rookTo = new Position(row, 3);
-            Piece rook = getPiece(rookTo);
-            this.squares[rookFrom.getRow()][rookFrom.getColumn()] = rook;
-            this.squares[rookTo.getRow()][rookTo.getColumn()] = null;
-            rook.setPosition(rookFrom);
-            rook.setMoved(false);
-        }
-    }
-
-    /**
-     * Trouve la position du roi d'une couleur spécifique sur l'échiquier.
-     *
-     * @param color la couleur du roi à trouver.
-     * @return la position du roi.
-     * @throws IllegalStateException si le roi n'est pas trouvé.
-     */
-    public Position findKing(Color color) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = this.squares[row][col];
-                if (piece != null && piece.getType() == PieceType.KING && piece.getColor() == color) {
-                    return new Position(row, col);
-                }
-            }
-        }
-        throw new IllegalStateException("King not found for color: " + color);
-    }
-
-    /**
-     * Vérifie si une position est attaquée par une pièce d'une couleur spécifique.
-     *
-     * @param position la position à vérifier.
-     * @param attackingColor la couleur de la pièce attaquante.
-     * @return true si la position est attaquée, false sinon.
-     */
-    public boolean isUnderAttack(Position position, Color attackingColor) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = this.squares[row][col];
-                if (piece != null && piece.getColor() == attackingColor) {
-                    if (piece.isValidMove(position)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Récupère l'historique des mouvements effectués sur l'échiquier.
-     *
-     * @return l'historique des mouvements.
-     */
-    public ArrayList<Move> getMoveHistory() {
-        return this.moveHistory;
-    }
-
-    /**
-     * Vérifie si une position est valide sur l'échiquier.
-     *
-     * @param position la position à vérifier.
-     * @return true si la position est valide, false sinon.
-     */
-    public boolean isValidPosition(Position position) {
-        return position.getRow() >= 0 && position.getRow() < 8 &&
-               position.getColumn() >= 0 && position.getColumn() < 8;
-    }
-
-    /**
-     * Retourne une représentation sous forme de chaîne de caractères de l'échiquier.
-     *
-     * @return une représentation sous forme de chaîne de caractères de l'échiquier.
-     */
-    @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        for (int row = 7; row >= 0; row--) {
-            sb.append(row + 1).append(" ");
-            for (int col = 0; col < 8; col++) {
-                Piece piece = squares[row][col];
-                sb.append(piece == null ? "." : piece.toString()).append(" ");
-            }
-            sb.append("\n");
-        }
-        sb.append("  a b c d e f g h");
-        return sb.toString();
-    }
-}
+package models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import strategies.AttackTables;
+
+/**
+ * La classe Board représente l'échiquier dans un jeu d'échecs.
+ * Elle gère la disposition des pièces, l'historique des mouvements et les règles de déplacement.
+ * L'état de l'échiquier est porté par des bitboards (un mot de 64 bits par type de pièce et par couleur,
+ * plus les mots d'occupation) ; le tableau des pièces n'est qu'une vue objet synchronisée avec ces bitboards.
+ * Une clé de Zobrist identifiant la position est maintenue incrémentalement à chaque mouvement,
+ * de même que la liste des cases occupées par chaque camp et la case de chaque roi.
+ * Les termes de l'évaluation (matériel et tables pièce-case, en milieu et en fin de partie, ainsi que la phase)
+ * sont entretenus de la même manière, si bien que l'évaluation d'une position ne parcourt jamais l'échiquier.
+ */
+public class Board {
+    /**
+     * Droit de petit roque des blancs.
+     */
+    public static final int WHITE_KINGSIDE = 1;
+
+    /**
+     * Droit de grand roque des blancs.
+     */
+    public static final int WHITE_QUEENSIDE = 2;
+
+    /**
+     * Droit de petit roque des noirs.
+     */
+    public static final int BLACK_KINGSIDE = 4;
+
+    /**
+     * Droit de grand roque des noirs.
+     */
+    public static final int BLACK_QUEENSIDE = 8;
+
+    /**
+     * Ensemble des droits de roque de la position initiale.
+     */
+    public static final int ALL_CASTLING_RIGHTS = 15;
+
+    // Droits de roque conservés lorsqu'une pièce quitte ou atteint chaque case
+    static final int[] CASTLING_MASKS = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASKS, ALL_CASTLING_RIGHTS);
+        CASTLING_MASKS[Bitboards.square(0, 0)] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASKS[Bitboards.square(0, 4)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASKS[Bitboards.square(0, 7)] &= ~WHITE_KINGSIDE;
+        CASTLING_MASKS[Bitboards.square(7, 0)] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASKS[Bitboards.square(7, 4)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASKS[Bitboards.square(7, 7)] &= ~BLACK_KINGSIDE;
+    }
+
+    private Piece[] squares;
+    private long[] pieceBitboards;
+    private long[] colorOccupancy;
+    private long occupied;
+    private int[][] pieceLists;
+    private int[] pieceCounts;
+    private int[] pieceListIndex;
+    private int[] kingSquares;
+    private Color sideToMove;
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock;
+    private int fullmoveNumber;
+    private long hashKey;
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+    private ArrayList<Move> moveHistory;
+    // Pièces retirées par clearForReuse, réutilisées au chargement d'une position (par type et couleur)
+    private Piece[][] sparePieces;
+    private int[] spareCounts;
+
+    /**
+     * Constructeur de la classe Board.
+     * Initialise l'échiquier avec les pièces à leurs positions de départ.
+     */
+    public Board() {
+        this.squares = new Piece[64];
+        this.pieceBitboards = new long[Bitboards.PIECE_BITBOARD_COUNT];
+        this.colorOccupancy = new long[2];
+        this.pieceLists = new int[2][64];
+        this.pieceCounts = new int[2];
+        this.pieceListIndex = new int[64];
+        this.kingSquares = new int[2];
+        this.moveHistory = new ArrayList<Move>();
+        initializeBoard();
+    }
+
+    /**
+     * Constructeur de copie de la classe Board.
+     * Crée un échiquier indépendant dans la même position, avec ses propres pièces.
+     * L'historique des mouvements n'est pas copié : la copie ne peut annuler que ses propres mouvements.
+     *
+     * @param other l'échiquier à copier.
+     */
+    public Board(Board other) {
+        this.squares = new Piece[64];
+        for (int square = 0; square < 64; square++) {
+            Piece piece = other.squares[square];
+            if (piece != null) {
+                Piece copy = new Piece(piece.getType(), piece.getColor(), piece.getPosition());
+                copy.setMoved(piece.hasMoved());
+                this.squares[square] = copy;
+            }
+        }
+        this.pieceBitboards = other.pieceBitboards.clone();
+        this.colorOccupancy = other.colorOccupancy.clone();
+        this.occupied = other.occupied;
+        this.pieceLists = new int[][] {other.pieceLists[0].clone(), other.pieceLists[1].clone()};
+        this.pieceCounts = other.pieceCounts.clone();
+        this.pieceListIndex = other.pieceListIndex.clone();
+        this.kingSquares = other.kingSquares.clone();
+        this.sideToMove = other.sideToMove;
+        this.castlingRights = other.castlingRights;
+        this.enPassantSquare = other.enPassantSquare;
+        this.halfmoveClock = other.halfmoveClock;
+        this.fullmoveNumber = other.fullmoveNumber;
+        this.hashKey = other.hashKey;
+        this.middlegameScore = other.middlegameScore;
+        this.endgameScore = other.endgameScore;
+        this.phase = other.phase;
+        this.moveHistory = new ArrayList<Move>();
+    }
+
+    /**
+     * Initialise l'échiquier avec les pièces à leurs positions de départ.
+     */
+    public void initializeBoard() {
+        this.clear();
+
+        // Place les pions
+        for (int col = 0; col < 8; col++) {
+            placePiece(1, col, PieceType.PAWN, Color.WHITE);
+            placePiece(6, col, PieceType.PAWN, Color.BLACK);
+        }
+
+        // Place les pièces majeures
+        // Pièces blanches
+        placePiece(0, 0, PieceType.ROOK, Color.WHITE);
+        placePiece(0, 1, PieceType.KNIGHT, Color.WHITE);
+        placePiece(0, 2, PieceType.BISHOP, Color.WHITE);
+        placePiece(0, 3, PieceType.QUEEN, Color.WHITE);
+        placePiece(0, 4, PieceType.KING, Color.WHITE);
+        placePiece(0, 5, PieceType.BISHOP, Color.WHITE);
+        placePiece(0, 6, PieceType.KNIGHT, Color.WHITE);
+        placePiece(0, 7, PieceType.ROOK, Color.WHITE);
+
+        // Pièces noires
+        placePiece(7, 0, PieceType.ROOK, Color.BLACK);
+        placePiece(7, 1, PieceType.KNIGHT, Color.BLACK);
+        placePiece(7, 2, PieceType.BISHOP, Color.BLACK);
+        placePiece(7, 3, PieceType.QUEEN, Color.BLACK);
+        placePiece(7, 4, PieceType.KING, Color.BLACK);
+        placePiece(7, 5, PieceType.BISHOP, Color.BLACK);
+        placePiece(7, 6, PieceType.KNIGHT, Color.BLACK);
+        placePiece(7, 7, PieceType.ROOK, Color.BLACK);
+
+        this.castlingRights = ALL_CASTLING_RIGHTS;
+        this.hashKey = this.computeHashKey();
+    }
+
+    /**
+     * Vide l'échiquier : retire toutes les pièces et efface l'historique des mouvements.
+     */
+    public void clear() {
+        Arrays.fill(this.squares, null);
+        Arrays.fill(this.pieceBitboards, 0L);
+        Arrays.fill(this.colorOccupancy, 0L);
+        this.occupied = 0L;
+        Arrays.fill(this.pieceCounts, 0);
+        Arrays.fill(this.kingSquares, -1);
+        this.sideToMove = Color.WHITE;
+        this.castlingRights = 0;
+        this.enPassantSquare = -1;
+        this.halfmoveClock = 0;
+        this.fullmoveNumber = 1;
+        this.hashKey = 0L;
+        this.middlegameScore = 0;
+        this.endgameScore = 0;
+        this.phase = 0;
+        this.moveHistory.clear();
+    }
+
+    /**
+     * Vide l'échiquier comme clear, mais conserve les pièces retirées pour que placeReusedPiece
+     * les réutilise : recharger une position ne crée alors aucun objet.
+     * Les pièces obtenues auparavant par getPiece ne doivent plus être utilisées.
+     */
+    void clearForReuse() {
+        if (this.sparePieces == null) {
+            this.sparePieces = new Piece[Bitboards.PIECE_BITBOARD_COUNT][];
+            this.spareCounts = new int[Bitboards.PIECE_BITBOARD_COUNT];
+        }
+        for (int color = 0; color < 2; color++) {
+            for (int i = 0; i < this.pieceCounts[color]; i++) {
+                Piece piece = this.squares[this.pieceLists[color][i]];
+                int index = Bitboards.index(piece.getType(), piece.getColor());
+                Piece[] spares = this.sparePieces[index];
+                if (spares == null || this.spareCounts[index] == spares.length) {
+                    spares = (spares == null) ? new Piece[8] : Arrays.copyOf(spares, spares.length * 2);
+                    this.sparePieces[index] = spares;
+                }
+                spares[this.spareCounts[index]++] = piece;
+            }
+        }
+        this.clear();
+    }
+
+    /**
+     * Pose sur une case vide une pièce conservée par clearForReuse, ou une nouvelle pièce s'il n'en reste pas.
+     *
+     * @param square l'indice de la case.
+     * @param type le type de la pièce.
+     * @param color la couleur de la pièce.
+     */
+    void placeReusedPiece(int square, PieceType type, Color color) {
+        int index = Bitboards.index(type, color);
+        Position position = Position.fromSquare(square);
+        Piece piece;
+        if (this.sparePieces != null && this.spareCounts[index] > 0) {
+            piece = this.sparePieces[index][--this.spareCounts[index]];
+            piece.setPosition(position);
+            piece.setMoved(false);
+        } else {
+            piece = new Piece(type, color, position);
+        }
+        this.putPiece(square, piece);
+    }
+
+    /**
+     * Définit le trait, les droits de roque, la case de prise en passant et les compteurs de coups,
+     * par exemple après avoir posé les pièces d'une position chargée. La clé de hachage est mise à jour.
+     * Les droits de roque dont le roi ou la tour n'est pas sur sa case d'origine sont ignorés, de même
+     * qu'une case de prise en passant derrière laquelle ne se trouve pas le pion adverse qui vient d'avancer.
+     *
+     * @param sideToMove le camp au trait.
+     * @param castlingRights la combinaison des constantes de droits de roque.
+     * @param enPassantSquare la case traversée par le dernier double pas de pion, ou -1.
+     * @param halfmoveClock le nombre de demi-coups depuis la dernière prise ou le dernier mouvement de pion.
+     * @param fullmoveNumber le numéro du coup, qui commence à 1 et augmente après chaque coup des noirs.
+     * @throws IllegalArgumentException si une valeur est hors de son domaine.
+     */
+    public void setState(Color sideToMove, int castlingRights, int enPassantSquare, int halfmoveClock,
+            int fullmoveNumber) {
+        if (castlingRights < 0 || castlingRights > ALL_CASTLING_RIGHTS) {
+            throw new IllegalArgumentException("Droits de roque invalides : " + castlingRights + ".");
+        }
+        int enPassantRow = (sideToMove == Color.WHITE) ? 5 : 2;
+        if (enPassantSquare != -1 && (enPassantSquare < 0 || enPassantSquare > 63
+                || Bitboards.rowOf(enPassantSquare) != enPassantRow)) {
+            throw new IllegalArgumentException("Case de prise en passant invalide : " + enPassantSquare + ".");
+        }
+        if (halfmoveClock < 0 || fullmoveNumber < 1) {
+            throw new IllegalArgumentException("Compteurs de coups invalides : " + halfmoveClock + ", "
+                + fullmoveNumber + ".");
+        }
+
+        this.hashKey ^= this.enPassantHash();
+        if (sideToMove != this.sideToMove) {
+            this.switchSide();
+        }
+        this.setCastlingRights(castlingRights & this.possibleCastlingRights());
+        this.enPassantSquare = this.isPossibleEnPassant(enPassantSquare) ? enPassantSquare : -1;
+        this.hashKey ^= this.enPassantHash();
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Indique si une case de prise en passant est compatible avec la position : vide, ainsi que la case
+     * de départ du double pas, avec le pion adverse juste devant elle.
+     *
+     * @param square la case de prise en passant, sur la bonne rangée pour le camp au trait, ou -1.
+     * @return true si la case est possible, false sinon.
+     */
+    private boolean isPossibleEnPassant(int square) {
+        if (square < 0) {
+            return false;
+        }
+        Color them = (this.sideToMove == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        int forward = (them == Color.WHITE) ? 8 : -8;
+        return (this.occupied & (Bitboards.bit(square) | Bitboards.bit(square - forward))) == 0L
+            && (this.pieceBitboards[Bitboards.index(PieceType.PAWN, them)] & Bitboards.bit(square + forward)) != 0L;
+    }
+
+    /**
+     * Retourne les droits de roque compatibles avec la disposition des rois et des tours.
+     *
+     * @return la combinaison des droits dont le roi et la tour sont sur leurs cases d'origine.
+     */
+    private int possibleCastlingRights() {
+        int rights = 0;
+        for (Color color : Color.values()) {
+            int row = (color == Color.WHITE) ? 0 : 7;
+            int shift = (color == Color.WHITE) ? 0 : 2;
+            long rooks = this.pieceBitboards[Bitboards.index(PieceType.ROOK, color)];
+            if (this.kingSquares[color.ordinal()] != Bitboards.square(row, 4)) {
+                continue;
+            }
+            if ((rooks & Bitboards.bit(Bitboards.square(row, 7))) != 0L) {
+                rights |= WHITE_KINGSIDE << shift;
+            }
+            if ((rooks & Bitboards.bit(Bitboards.square(row, 0))) != 0L) {
+                rights |= WHITE_QUEENSIDE << shift;
+            }
+        }
+        return rights;
+    }
+
+    /**
+     * Place une pièce à une position spécifique sur l'échiquier.
+     *
+     * @param row la ligne de la position.
+     * @param col la colonne de la position.
+     * @param type le type de la pièce.
+     * @param color la couleur de la pièce.
+     */
+    private void placePiece(int row, int col, PieceType type, Color color) {
+        Position pos = Position.fromSquare(Bitboards.square(row, col));
+        this.putPiece(pos.getSquare(), new Piece(type, color, pos));
+    }
+
+    /**
+     * Pose une pièce sur une case vide et met à jour les bitboards.
+     *
+     * @param square l'indice de la case.
+     * @param piece la pièce à poser.
+     */
+    private void putPiece(int square, Piece piece) {
+        long bit = Bitboards.bit(square);
+        this.squares[square] = piece;
+        this.pieceBitboards[Bitboards.index(piece.getType(), piece.getColor())] |= bit;
+        this.colorOccupancy[piece.getColor().ordinal()] |= bit;
+        this.occupied |= bit;
+        this.hashKey ^= Zobrist.pieceKey(piece.getType(), piece.getColor(), square);
+        this.middlegameScore += PieceSquareTables.middlegame(piece.getType(), piece.getColor(), square);
+        this.endgameScore += PieceSquareTables.endgame(piece.getType(), piece.getColor(), square);
+        this.phase += PieceSquareTables.phaseWeight(piece.getType());
+
+        // Ajoute la case à la fin de la liste des pièces du camp
+        int color = piece.getColor().ordinal();
+        this.pieceListIndex[square] = this.pieceCounts[color];
+        this.pieceLists[color][this.pieceCounts[color]++] = square;
+        if (piece.getType() == PieceType.KING) {
+            this.kingSquares[color] = square;
+        }
+    }
+
+    /**
+     * Retire la pièce présente sur une case et met à jour les bitboards.
+     *
+     * @param square l'indice de la case.
+     * @return la pièce retirée, ou null si la case était vide.
+     */
+    private Piece removePiece(int square) {
+        Piece piece = this.squares[square];
+        if (piece != null) {
+            long mask = ~Bitboards.bit(square);
+            this.squares[square] = null;
+            this.pieceBitboards[Bitboards.index(piece.getType(), piece.getColor())] &= mask;
+            this.colorOccupancy[piece.getColor().ordinal()] &= mask;
+            this.occupied &= mask;
+            this.hashKey ^= Zobrist.pieceKey(piece.getType(), piece.getColor(), square);
+            this.middlegameScore -= PieceSquareTables.middlegame(piece.getType(), piece.getColor(), square);
+            this.endgameScore -= PieceSquareTables.endgame(piece.getType(), piece.getColor(), square);
+            this.phase -= PieceSquareTables.phaseWeight(piece.getType());
+
+            // Remplace la case par la dernière de la liste des pièces du camp
+            int color = piece.getColor().ordinal();
+            int lastSquare = this.pieceLists[color][--this.pieceCounts[color]];
+            this.pieceLists[color][this.pieceListIndex[square]] = lastSquare;
+            this.pieceListIndex[lastSquare] = this.pieceListIndex[square];
+            if (piece.getType() == PieceType.KING && this.kingSquares[color] == square) {
+                this.kingSquares[color] = -1;
+            }
+        }
+        return piece;
+    }
+
+    /**
+     * Déplace la pièce d'une case vers une case vide, sans enregistrer de mouvement.
+     *
+     * @param fromSquare la case de départ.
+     * @param toSquare la case d'arrivée.
+     * @return la pièce déplacée.
+     */
+    private Piece relocatePiece(int fromSquare, int toSquare) {
+        Piece piece = this.removePiece(fromSquare);
+        this.putPiece(toSquare, piece);
+        piece.setPosition(Position.fromSquare(toSquare));
+        return piece;
+    }
+
+    /**
+     * Récupère la pièce à une position spécifique sur l'échiquier.
+     *
+     * @param position la position de la pièce.
+     * @return la pièce à la position spécifiée, ou null si aucune pièce n'est présente.
+     */
+    public Piece getPiece(Position position) {
+        return this.squares[position.getSquare()];
+    }
+
+    /**
+     * Récupère la pièce présente sur une case donnée par son indice.
+     *
+     * @param square l'indice de la case (0 à 63).
+     * @return la pièce présente sur la case, ou null si la case est vide.
+     */
+    public Piece getPiece(int square) {
+        return this.squares[square];
+    }
+
+    /**
+     * Place une pièce à une position spécifique sur l'échiquier.
+     *
+     * @param position la position où placer la pièce.
+     * @param piece la pièce à placer.
+     */
+    public void setPiece(Position position, Piece piece) {
+        int square = position.getSquare();
+        this.removePiece(square);
+        if (piece != null) {
+            this.putPiece(square, piece);
+            piece.setPosition(position);
+        }
+    }
+
+    /**
+     * Déplace une pièce d'une position à une autre sur l'échiquier.
+     *
+     * @param from la position de départ.
+     * @param to la position d'arrivée.
+     */
+    public void movePiece(Position from, Position to) {
+        Piece piece = getPiece(from);
+        Piece capturedPiece = getPiece(to);
+
+        // Prise en passant : le pion capturé n'est pas sur la case d'arrivée
+        if (piece.getType() == PieceType.PAWN && capturedPiece == null && from.getColumn() != to.getColumn()) {
+            capturedPiece = getPiece(Bitboards.square(from.getRow(), to.getColumn()));
+        }
+
+        this.moveHistory.add(new Move(piece, from, to, capturedPiece, this.castlingRights, this.enPassantSquare,
+            this.halfmoveClock));
+        this.hashKey ^= this.enPassantHash();
+
+        if (capturedPiece != null) {
+            this.removePiece(capturedPiece.getPosition().getSquare());
+        }
+        this.removePiece(from.getSquare());
+        this.putPiece(to.getSquare(), piece);
+        piece.setPosition(to);
+        piece.setMoved();
+
+        // Gère le roque
+        if (piece.getType() == PieceType.KING && Math.abs(to.getColumn() - from.getColumn()) == 2) {
+            this.handleCastling(from, to);
+        }
+
+        // Met à jour les droits de roque, la case de prise en passant et le trait
+        this.setCastlingRights(this.castlingRights & CASTLING_MASKS[from.getSquare()] & CASTLING_MASKS[to.getSquare()]);
+        this.enPassantSquare = (piece.getType() == PieceType.PAWN && Math.abs(to.getRow() - from.getRow()) == 2)
+            ? Bitboards.square((from.getRow() + to.getRow()) / 2, from.getColumn()) : -1;
+        this.halfmoveClock = (piece.getType() == PieceType.PAWN || capturedPiece != null) ? 0 : this.halfmoveClock + 1;
+        if (this.sideToMove == Color.BLACK) {
+            this.fullmoveNumber++;
+        }
+        this.switchSide();
+        this.hashKey ^= this.enPassantHash();
+    }
+
+    /**
+     * Change le trait et met à jour la clé de hachage.
+     */
+    private void switchSide() {
+        this.sideToMove = (this.sideToMove == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        this.hashKey ^= Zobrist.sideKey();
+    }
+
+    /**
+     * Modifie les droits de roque et met à jour la clé de hachage.
+     *
+     * @param rights les nouveaux droits de roque.
+     */
+    private void setCastlingRights(int rights) {
+        this.hashKey ^= Zobrist.castlingKey(this.castlingRights) ^ Zobrist.castlingKey(rights);
+        this.castlingRights = rights;
+    }
+
+    /**
+     * Retourne la contribution de la case de prise en passant à la clé de hachage.
+     * La colonne n'est prise en compte que si un pion du camp au trait peut effectivement prendre en passant,
+     * afin que deux positions identiques en pratique partagent la même clé.
+     *
+     * @return la clé de la colonne de prise en passant, ou 0.
+     */
+    private long enPassantHash() {
+        if (this.enPassantSquare < 0) {
+            return 0L;
+        }
+        int column = Bitboards.columnOf(this.enPassantSquare);
+        int pawnRow = (this.sideToMove == Color.WHITE) ? 4 : 3;
+        long neighbours = 0L;
+        if (column > 0) {
+            neighbours |= Bitboards.bit(Bitboards.square(pawnRow, column - 1));
+        }
+        if (column < 7) {
+            neighbours |= Bitboards.bit(Bitboards.square(pawnRow, column + 1));
+        }
+        long pawns = this.pieceBitboards[Bitboards.index(PieceType.PAWN, this.sideToMove)];
+        return (pawns & neighbours) != 0L ? Zobrist.enPassantKey(column) : 0L;
+    }
+
+    /**
+     * Joue un mouvement encodé (voir PackedMove), promotion comprise.
+     * Le mouvement est enregistré dans l'historique et peut être annulé par undoLastMove.
+     *
+     * @param move le mouvement encodé à jouer.
+     */
+    public void makeMove(int move) {
+        Position to = Position.fromSquare(PackedMove.to(move));
+        this.movePiece(Position.fromSquare(PackedMove.from(move)), to);
+
+        PieceType promotion = PackedMove.promotion(move);
+        if (promotion != null) {
+            this.setPiece(to, new Piece(promotion, this.squares[to.getSquare()].getColor(), to));
+        }
+    }
+
+    /**
+     * Gère le roque en déplaçant la tour et le roi.
+     *
+     * @param kingFrom la position de départ du roi.
+     * @param kingTo la position d'arrivée du roi.
+     */
+    private void handleCastling(Position kingFrom, Position kingTo) {
+        int row = kingFrom.getRow();
+        // Roque côté roi
+        if (kingTo.getColumn() == 6) {
+            this.relocatePiece(Bitboards.square(row, 7), Bitboards.square(row, 5)).setMoved();
+        }
+        // Roque côté dame
+        else if (kingTo.getColumn() == 2) {
+            this.relocatePiece(Bitboards.square(row, 0), Bitboards.square(row, 3)).setMoved();
+        }
+    }
+
+    /**
+     * Annule le dernier mouvement effectué sur l'échiquier.
+     */
+    public void undoLastMove() {
+        if (this.moveHistory.isEmpty())
+            return;
+
+        Move lastMove = this.moveHistory.remove(moveHistory.size() - 1);
+        this.hashKey ^= this.enPassantHash();
+        this.switchSide();
+        if (this.sideToMove == Color.BLACK) {
+            this.fullmoveNumber--;
+        }
+
+        // Rétablit les pièces à leurs positions d'origine (la pièce capturée a conservé sa position)
+        this.removePiece(lastMove.getTo().getSquare());
+        if (lastMove.getCapturedPiece() != null) {
+            this.putPiece(lastMove.getCapturedPiece().getPosition().getSquare(), lastMove.getCapturedPiece());
+        }
+        this.putPiece(lastMove.getFrom().getSquare(), lastMove.getPiece());
+
+        // Met à jour la position de la pièce
+        lastMove.getPiece().setPosition(lastMove.getFrom());
+
+        // Gère l'annulation du roque
+        if (lastMove.getPiece().getType() == PieceType.KING &&
+            Math.abs(lastMove.getTo().getColumn() - lastMove.getFrom().getColumn()) == 2) {
+                this.undoCastling(lastMove.getFrom(), lastMove.getTo());
+        }
+
+        // Réinitialise le statut de déplacement si c'était le premier mouvement de la pièce
+        if (lastMove.isFirstMove()) {
+            lastMove.getPiece().setMoved(false);
+        }
+
+        // Rétablit les droits de roque et la case de prise en passant
+        this.setCastlingRights(lastMove.getPreviousCastlingRights());
+        this.enPassantSquare = lastMove.getPreviousEnPassantSquare();
+        this.halfmoveClock = lastMove.getPreviousHalfmoveClock();
+        this.hashKey ^= this.enPassantHash();
+    }
+
+    /**
+     * Annule le roque en rétablissant les positions de la tour et du roi.
+     *
+     * @param kingFrom la position de départ du roi.
+     * @param kingTo la position d'arrivée du roi.
+     */
+    private void undoCastling(Position kingFrom, Position kingTo) {
+        int row = kingFrom.getRow();
+        // Annule le roque côté roi
+        if (kingTo.getColumn() == 6) {
+            this.relocatePiece(Bitboards.square(row, 5), Bitboards.square(row, 7)).setMoved(false);
+        }
+        // Annule le roque côté dame
+        else if (kingTo.getColumn() == 2) {
+            this.relocatePiece(Bitboards.square(row, 3), Bitboards.square(row, 0)).setMoved(false);
+        }
+    }
+
+    /**
+     * Trouve la position du roi d'une couleur spécifique sur l'échiquier.
+     *
+     * @param color la couleur du roi à trouver.
+     * @return la position du roi.
+     * @throws IllegalStateException si le roi n'est pas trouvé.
+     */
+    public Position findKing(Color color) {
+        int square = this.kingSquares[color.ordinal()];
+        if (square < 0) {
+            throw new IllegalStateException("King not found for color: " + color);
+        }
+        return Position.fromSquare(square);
+    }
+
+    /**
+     * Retourne la case du roi d'une couleur, suivie à chaque mouvement.
+     *
+     * @param color la couleur du roi.
+     * @return l'indice de la case du roi, ou -1 s'il n'est pas sur l'échiquier.
+     */
+    public int getKingSquare(Color color) {
+        return this.kingSquares[color.ordinal()];
+    }
+
+    /**
+     * Retourne le nombre de pièces d'une couleur présentes sur l'échiquier.
+     *
+     * @param color la couleur des pièces.
+     * @return le nombre de pièces de cette couleur.
+     */
+    public int getPieceCount(Color color) {
+        return this.pieceCounts[color.ordinal()];
+    }
+
+    /**
+     * Retourne la case d'une pièce de la liste des pièces d'une couleur.
+     * Les indices vont de 0 à getPieceCount(color) - 1 ; l'ordre de la liste change au fil des captures.
+     *
+     * @param color la couleur des pièces.
+     * @param index l'indice dans la liste des pièces.
+     * @return l'indice de la case occupée par cette pièce.
+     */
+    public int getPieceSquare(Color color, int index) {
+        return this.pieceLists[color.ordinal()][index];
+    }
+
+    /**
+     * Vérifie si une position est attaquée par une pièce d'une couleur spécifique.
+     *
+     * @param position la position à vérifier.
+     * @param attackingColor la couleur de la pièce attaquante.
+     * @return true si la position est attaquée, false sinon.
+     */
+    public boolean isUnderAttack(Position position, Color attackingColor) {
+        return this.getAttackers(position.getSquare(), attackingColor, this.occupied) != 0L;
+    }
+
+    /**
+     * Calcule l'ensemble des pièces d'une couleur qui attaquent une case.
+     * Le calcul part de la case visée : une pièce l'attaque si une pièce du même type placée sur la case
+     * l'attaquerait en retour, ce qui ne demande qu'une consultation des tables d'attaques par type.
+     *
+     * @param square l'indice de la case visée.
+     * @param attackingColor la couleur des pièces attaquantes.
+     * @param occupied le bitboard d'occupation à utiliser pour les pièces glissantes.
+     * @return le bitboard des pièces attaquant la case.
+     */
+    public long getAttackers(int square, Color attackingColor, long occupied) {
+        Color defendingColor = (attackingColor == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        int offset = attackingColor.ordinal() * 6;
+        long queens = this.pieceBitboards[offset + PieceType.QUEEN.ordinal()];
+        return (AttackTables.pawnAttacks(defendingColor, square) & this.pieceBitboards[offset + PieceType.PAWN.ordinal()])
+            | (AttackTables.knightAttacks(square) & this.pieceBitboards[offset + PieceType.KNIGHT.ordinal()])
+            | (AttackTables.kingAttacks(square) & this.pieceBitboards[offset + PieceType.KING.ordinal()])
+            | (AttackTables.bishopAttacks(square, occupied) & (this.pieceBitboards[offset + PieceType.BISHOP.ordinal()] | queens))
+            | (AttackTables.rookAttacks(square, occupied) & (this.pieceBitboards[offset + PieceType.ROOK.ordinal()] | queens));
+    }
+
+    /**
+     * Retourne le bitboard des pièces d'un type et d'une couleur donnés.
+     *
+     * @param type le type de pièce.
+     * @param color la couleur des pièces.
+     * @return le bitboard des cases occupées par ces pièces.
+     */
+    public long getBitboard(PieceType type, Color color) {
+        return this.pieceBitboards[Bitboards.index(type, color)];
+    }
+
+    /**
+     * Retourne le bitboard des cases occupées par une couleur.
+     *
+     * @param color la couleur des pièces.
+     * @return le bitboard d'occupation de cette couleur.
+     */
+    public long getOccupancy(Color color) {
+        return this.colorOccupancy[color.ordinal()];
+    }
+
+    /**
+     * Retourne le bitboard de toutes les cases occupées.
+     *
+     * @return le bitboard d'occupation globale.
+     */
+    public long getOccupied() {
+        return this.occupied;
+    }
+
+    /**
+     * Retourne la clé de Zobrist de la position courante, maintenue incrémentalement.
+     *
+     * @return la clé de hachage de 64 bits de la position.
+     */
+    public long getHashKey() {
+        return this.hashKey;
+    }
+
+    /**
+     * Recalcule entièrement la clé de Zobrist de la position courante.
+     *
+     * @return la clé de hachage calculée à partir de l'état complet de l'échiquier.
+     */
+    public long computeHashKey() {
+        long key = 0L;
+        for (int square = 0; square < 64; square++) {
+            Piece piece = this.squares[square];
+            if (piece != null) {
+                key ^= Zobrist.pieceKey(piece.getType(), piece.getColor(), square);
+            }
+        }
+        key ^= Zobrist.castlingKey(this.castlingRights) ^ this.enPassantHash();
+        if (this.sideToMove == Color.BLACK) {
+            key ^= Zobrist.sideKey();
+        }
+        return key;
+    }
+
+    /**
+     * Retourne le score de milieu de partie (matériel et tables pièce-case), maintenu incrémentalement.
+     *
+     * @return le score en centièmes de pion, du point de vue des blancs.
+     */
+    public int getMiddlegameScore() {
+        return this.middlegameScore;
+    }
+
+    /**
+     * Retourne le score de fin de partie (matériel et tables pièce-case), maintenu incrémentalement.
+     *
+     * @return le score en centièmes de pion, du point de vue des blancs.
+     */
+    public int getEndgameScore() {
+        return this.endgameScore;
+    }
+
+    /**
+     * Retourne la phase de jeu, maintenue incrémentalement.
+     * Elle peut dépasser PieceSquareTables.MAX_PHASE après des promotions.
+     *
+     * @return la somme des poids de phase des pièces présentes.
+     */
+    public int getPhase() {
+        return this.phase;
+    }
+
+    /**
+     * Retourne la couleur du camp qui a le trait sur cet échiquier.
+     *
+     * @return la couleur du camp au trait.
+     */
+    public Color getSideToMove() {
+        return this.sideToMove;
+    }
+
+    /**
+     * Retourne les droits de roque courants.
+     *
+     * @return la combinaison des constantes de droits de roque encore valides.
+     */
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    /**
+     * Retourne la case de prise en passant courante.
+     *
+     * @return l'indice de la case traversée par le dernier double pas de pion, ou -1.
+     */
+    public int getEnPassantSquare() {
+        return this.enPassantSquare;
+    }
+
+    /**
+     * Retourne le nombre de demi-coups joués depuis la dernière prise ou le dernier mouvement de pion.
+     *
+     * @return le compteur de la règle des cinquante coups.
+     */
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    /**
+     * Retourne le numéro du coup en cours, qui commence à 1 et augmente après chaque coup des noirs.
+     *
+     * @return le numéro du coup.
+     */
+    public int getFullmoveNumber() {
+        return this.fullmoveNumber;
+    }
+
+    /**
+     * Récupère l'historique des mouvements effectués sur l'échiquier.
+     *
+     * @return l'historique des mouvements.
+     */
+    public ArrayList<Move> getMoveHistory() {
+        return this.moveHistory;
+    }
+
+    /**
+     * Vérifie si une position est valide sur l'échiquier.
+     *
+     * @param position la position à vérifier.
+     * @return true si la position est valide, false sinon.
+     */
+    public boolean isValidPosition(Position position) {
+        return position.getRow() >= 0 && position.getRow() < 8 &&
+               position.getColumn() >= 0 && position.getColumn() < 8;
+    }
+
+    /**
+     * Retourne une représentation sous forme de chaîne de caractères de l'échiquier.
+     *
+     * @return une représentation sous forme de chaîne de caractères de l'échiquier.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 7; row >= 0; row--) {
+            sb.append(row + 1).append(" ");
+            for (int col = 0; col < 8; col++) {
+                Piece piece = squares[Bitboards.square(row, col)];
+                sb.append(piece == null ? "." : piece.toString()).append(" ");
+            }
+            sb.append("\n");
+        }
+        sb.append("  a b c d e f g h");
+        return sb.toString();
+    }
+}
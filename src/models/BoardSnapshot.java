@@ -0,0 +1,324 @@
+package models;
+
+import java.util.Arrays;
+
+/**
+ * La classe BoardSnapshot est un instantané immuable d'une position : douze bitboards de pièces,
+ * le trait, les droits de roque, la case de prise en passant, les compteurs de coups et la clé de Zobrist.
+ * Contrairement à Board, il ne référence aucun objet Piece ni Position : il peut être partagé librement
+ * entre les fils, sans verrou, et jouer un mouvement (play) rend un nouvel instantané sans modifier l'original,
+ * ce qui dispense de toute pile d'annulation.
+ * La clé de hachage est la même que celle de Board pour la même position, si bien que les instantanés
+ * et les échiquiers peuvent partager une table de transposition.
+ * La génération des mouvements reste celle de Board : un fil convertit l'instantané qui lui est confié
+ * par toBoard, puis répartit ses sous-arbres par play.
+ */
+public final class BoardSnapshot {
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private final long[] pieces;
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
+    private final Color sideToMove;
+    private final int castlingRights;
+    private final int enPassantSquare;
+    private final int halfmoveClock;
+    private final int fullmoveNumber;
+    private final long hashKey;
+
+    /**
+     * Constructeur de la classe BoardSnapshot.
+     *
+     * @param pieces les bitboards des pièces, indexés par Bitboards.index ; le tableau n'est pas copié.
+     * @param sideToMove le camp au trait.
+     * @param castlingRights les droits de roque.
+     * @param enPassantSquare la case de prise en passant, ou -1.
+     * @param halfmoveClock le nombre de demi-coups depuis la dernière prise ou le dernier mouvement de pion.
+     * @param fullmoveNumber le numéro du coup.
+     * @param hashKey la clé de Zobrist.
+     */
+    private BoardSnapshot(long[] pieces, Color sideToMove, int castlingRights, int enPassantSquare,
+            int halfmoveClock, int fullmoveNumber, long hashKey) {
+        this.pieces = pieces;
+        long white = 0L;
+        long black = 0L;
+        for (int type = 0; type < 6; type++) {
+            white |= pieces[type];
+            black |= pieces[6 + type];
+        }
+        this.whiteOccupancy = white;
+        this.blackOccupancy = black;
+        this.sideToMove = sideToMove;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        this.hashKey = hashKey;
+    }
+
+    /**
+     * Crée l'instantané de la position d'un échiquier. L'historique des mouvements n'est pas conservé.
+     *
+     * @param board l'échiquier, qui n'est pas modifié.
+     * @return l'instantané.
+     */
+    public static BoardSnapshot of(Board board) {
+        long[] pieces = new long[Bitboards.PIECE_BITBOARD_COUNT];
+        for (Color color : Color.values()) {
+            for (PieceType type : TYPES) {
+                pieces[Bitboards.index(type, color)] = board.getBitboard(type, color);
+            }
+        }
+        return new BoardSnapshot(pieces, board.getSideToMove(), board.getCastlingRights(),
+            board.getEnPassantSquare(), board.getHalfmoveClock(), board.getFullmoveNumber(), board.getHashKey());
+    }
+
+    /**
+     * Crée un échiquier dans la position de l'instantané, sans historique.
+     *
+     * @return le nouvel échiquier.
+     */
+    public Board toBoard() {
+        Board board = new Board();
+        this.copyTo(board);
+        return board;
+    }
+
+    /**
+     * Place la position de l'instantané dans un échiquier existant, dont les pièces sont réutilisées
+     * et l'historique effacé.
+     *
+     * @param board l'échiquier à réutiliser.
+     */
+    public void copyTo(Board board) {
+        board.clearForReuse();
+        for (int index = 0; index < Bitboards.PIECE_BITBOARD_COUNT; index++) {
+            for (long squares = this.pieces[index]; squares != 0L; squares &= squares - 1) {
+                board.placeReusedPiece(Bitboards.firstSquare(squares), TYPES[index % 6],
+                    (index < 6) ? Color.WHITE : Color.BLACK);
+            }
+        }
+        board.setState(this.sideToMove, this.castlingRights, this.enPassantSquare, this.halfmoveClock,
+            this.fullmoveNumber);
+    }
+
+    /**
+     * Joue un mouvement et rend l'instantané de la position obtenue ; cet instantané n'est pas modifié.
+     * Le mouvement doit être légal et complet, tel que le produit MoveGenerator : la pièce déplacée,
+     * la pièce prise et les indicateurs sont lus dans son encodage, sans être vérifiés.
+     *
+     * @param move le mouvement encodé (voir PackedMove).
+     * @return le nouvel instantané.
+     */
+    public BoardSnapshot play(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        PieceType type = PackedMove.piece(move);
+        Color us = this.sideToMove;
+        Color them = (us == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        long[] pieces = this.pieces.clone();
+        long key = this.hashKey ^ enPassantHash(this.pieces, us, this.enPassantSquare);
+
+        // Pièce prise, sur la case d'arrivée ou, en passant, derrière elle
+        boolean capture = PackedMove.isCapture(move);
+        if (capture) {
+            PieceType captured = PackedMove.captured(move);
+            int square = PackedMove.isEnPassant(move) ? to + ((us == Color.WHITE) ? -8 : 8) : to;
+            pieces[Bitboards.index(captured, them)] &= ~Bitboards.bit(square);
+            key ^= Zobrist.pieceKey(captured, them, square);
+        }
+
+        // Pièce déplacée, éventuellement promue
+        PieceType promotion = PackedMove.promotion(move);
+        PieceType arriving = (promotion != null) ? promotion : type;
+        pieces[Bitboards.index(type, us)] &= ~Bitboards.bit(from);
+        pieces[Bitboards.index(arriving, us)] |= Bitboards.bit(to);
+        key ^= Zobrist.pieceKey(type, us, from) ^ Zobrist.pieceKey(arriving, us, to);
+
+        // Tour d'un roque
+        if (PackedMove.isCastling(move)) {
+            int rookFrom = (to > from) ? to + 1 : to - 2;
+            int rookTo = (to > from) ? to - 1 : to + 1;
+            pieces[Bitboards.index(PieceType.ROOK, us)] ^= Bitboards.bit(rookFrom) | Bitboards.bit(rookTo);
+            key ^= Zobrist.pieceKey(PieceType.ROOK, us, rookFrom) ^ Zobrist.pieceKey(PieceType.ROOK, us, rookTo);
+        }
+
+        int rights = this.castlingRights & Board.CASTLING_MASKS[from] & Board.CASTLING_MASKS[to];
+        key ^= Zobrist.castlingKey(this.castlingRights) ^ Zobrist.castlingKey(rights) ^ Zobrist.sideKey();
+        int enPassant = (type == PieceType.PAWN && Math.abs(to - from) == 16) ? (from + to) / 2 : -1;
+        int halfmove = (type == PieceType.PAWN || capture) ? 0 : this.halfmoveClock + 1;
+        int fullmove = (us == Color.BLACK) ? this.fullmoveNumber + 1 : this.fullmoveNumber;
+        key ^= enPassantHash(pieces, them, enPassant);
+        return new BoardSnapshot(pieces, them, rights, enPassant, halfmove, fullmove, key);
+    }
+
+    /**
+     * Retourne la contribution de la case de prise en passant à la clé de hachage, selon la même règle que Board :
+     * la colonne ne compte que si un pion du camp au trait peut effectivement prendre en passant.
+     *
+     * @param pieces les bitboards des pièces.
+     * @param sideToMove le camp au trait.
+     * @param enPassantSquare la case de prise en passant, ou -1.
+     * @return la clé de la colonne de prise en passant, ou 0.
+     */
+    private static long enPassantHash(long[] pieces, Color sideToMove, int enPassantSquare) {
+        if (enPassantSquare < 0) {
+            return 0L;
+        }
+        int column = Bitboards.columnOf(enPassantSquare);
+        int pawnRow = (sideToMove == Color.WHITE) ? 4 : 3;
+        long neighbours = 0L;
+        if (column > 0) {
+            neighbours |= Bitboards.bit(Bitboards.square(pawnRow, column - 1));
+        }
+        if (column < 7) {
+            neighbours |= Bitboards.bit(Bitboards.square(pawnRow, column + 1));
+        }
+        long pawns = pieces[Bitboards.index(PieceType.PAWN, sideToMove)];
+        return (pawns & neighbours) != 0L ? Zobrist.enPassantKey(column) : 0L;
+    }
+
+    /**
+     * Retourne le bitboard des pièces d'un type et d'une couleur.
+     *
+     * @param type le type des pièces.
+     * @param color la couleur des pièces.
+     * @return le bitboard.
+     */
+    public long getBitboard(PieceType type, Color color) {
+        return this.pieces[Bitboards.index(type, color)];
+    }
+
+    /**
+     * Retourne le bitboard des cases occupées par une couleur.
+     *
+     * @param color la couleur.
+     * @return le bitboard.
+     */
+    public long getOccupancy(Color color) {
+        return (color == Color.WHITE) ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    /**
+     * Retourne le bitboard des cases occupées.
+     *
+     * @return le bitboard.
+     */
+    public long getOccupied() {
+        return this.whiteOccupancy | this.blackOccupancy;
+    }
+
+    /**
+     * Retourne le type de la pièce présente sur une case.
+     *
+     * @param square l'indice de la case.
+     * @return le type, ou null si la case est vide.
+     */
+    public PieceType getPieceType(int square) {
+        long bit = Bitboards.bit(square);
+        for (int index = 0; index < Bitboards.PIECE_BITBOARD_COUNT; index++) {
+            if ((this.pieces[index] & bit) != 0L) {
+                return TYPES[index % 6];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retourne la couleur de la pièce présente sur une case.
+     *
+     * @param square l'indice de la case.
+     * @return la couleur, ou null si la case est vide.
+     */
+    public Color getPieceColor(int square) {
+        long bit = Bitboards.bit(square);
+        if ((this.whiteOccupancy & bit) != 0L) {
+            return Color.WHITE;
+        }
+        return ((this.blackOccupancy & bit) != 0L) ? Color.BLACK : null;
+    }
+
+    /**
+     * Retourne le camp au trait.
+     *
+     * @return la couleur du camp au trait.
+     */
+    public Color getSideToMove() {
+        return this.sideToMove;
+    }
+
+    /**
+     * Retourne les droits de roque.
+     *
+     * @return la combinaison des constantes de droits de roque de Board.
+     */
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    /**
+     * Retourne la case de prise en passant.
+     *
+     * @return la case traversée par le dernier double pas de pion, ou -1.
+     */
+    public int getEnPassantSquare() {
+        return this.enPassantSquare;
+    }
+
+    /**
+     * Retourne le nombre de demi-coups depuis la dernière prise ou le dernier mouvement de pion.
+     *
+     * @return le compteur de demi-coups.
+     */
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    /**
+     * Retourne le numéro du coup.
+     *
+     * @return le numéro du coup, à partir de 1.
+     */
+    public int getFullmoveNumber() {
+        return this.fullmoveNumber;
+    }
+
+    /**
+     * Retourne la clé de Zobrist de la position, identique à celle de Board.
+     *
+     * @return la clé de hachage.
+     */
+    public long getHashKey() {
+        return this.hashKey;
+    }
+
+    /**
+     * Compare deux instantanés : ils sont égaux s'ils décrivent la même position, compteurs compris.
+     *
+     * @param other l'objet à comparer.
+     * @return true si les positions sont identiques, false sinon.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof BoardSnapshot snapshot)) {
+            return false;
+        }
+        return this.hashKey == snapshot.hashKey && this.sideToMove == snapshot.sideToMove
+            && this.castlingRights == snapshot.castlingRights && this.enPassantSquare == snapshot.enPassantSquare
+            && this.halfmoveClock == snapshot.halfmoveClock && this.fullmoveNumber == snapshot.fullmoveNumber
+            && Arrays.equals(this.pieces, snapshot.pieces);
+    }
+
+    /**
+     * Retourne le code de hachage de l'instantané, tiré de sa clé de Zobrist.
+     *
+     * @return le code de hachage.
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.hashKey);
+    }
+}
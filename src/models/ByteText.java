@@ -0,0 +1,67 @@
+package models;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * La classe ByteText présente un tampon d'octets ASCII, typiquement un fichier projeté en mémoire,
+ * sous forme de CharSequence en lecture seule et sans copie.
+ * Les lectures par indice absolu ne modifient pas le tampon, qui peut donc être partagé entre les fils.
+ */
+final class ByteText implements CharSequence {
+    private final ByteBuffer data;
+
+    /**
+     * Constructeur de la classe ByteText.
+     *
+     * @param data le tampon.
+     */
+    ByteText(ByteBuffer data) {
+        this.data = data;
+    }
+
+    /**
+     * Retourne la longueur du tampon.
+     *
+     * @return le nombre d'octets.
+     */
+    @Override
+    public int length() {
+        return this.data.limit();
+    }
+
+    /**
+     * Retourne le caractère d'un octet.
+     *
+     * @param index l'indice de l'octet.
+     * @return le caractère.
+     */
+    @Override
+    public char charAt(int index) {
+        return (char) (this.data.get(index) & 0xFF);
+    }
+
+    /**
+     * Copie une portion du tampon dans une chaîne.
+     *
+     * @param start le début de la portion.
+     * @param end la fin de la portion.
+     * @return la chaîne.
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        this.data.get(start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Copie tout le tampon dans une chaîne.
+     *
+     * @return la chaîne.
+     */
+    @Override
+    public String toString() {
+        return this.subSequence(0, this.length()).toString();
+    }
+}
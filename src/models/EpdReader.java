@@ -0,0 +1,268 @@
+package models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * La classe EpdReader parcourt un fichier de positions EPD, une position par ligne : les quatre premiers champs
+ * d'une position FEN, suivis d'opérations facultatives (par exemple « bm e4; id "test 1"; »).
+ * Le fichier est projeté en mémoire et lu directement dans ses octets : aucune chaîne n'est créée par ligne,
+ * et chaque position est chargée dans un échiquier réutilisé (voir Fen).
+ * Les positions peuvent être lues une à une par next, ou sous forme de Stream découpable en parallèle :
+ * chaque portion du fichier y est alors lue par un fil avec son propre échiquier.
+ */
+public class EpdReader {
+    // Taille en dessous de laquelle une portion du fichier n'est plus découpée entre les fils
+    private static final int MIN_SPLIT_BYTES = 1 << 16;
+    // Longueur moyenne supposée d'une ligne, pour estimer le nombre de positions d'une portion
+    private static final int AVERAGE_LINE_BYTES = 64;
+
+    private final ByteBuffer data;
+    private final ByteText text;
+    private int position;
+    private int lineNumber;
+    private int operationsStart;
+    private int operationsEnd;
+
+    /**
+     * Constructeur de la classe EpdReader : projette le fichier en mémoire, sans le lire.
+     *
+     * @param path le chemin du fichier EPD.
+     * @throws IOException si le fichier ne peut pas être ouvert ou projeté.
+     * @throws IllegalArgumentException si le fichier dépasse 2 Go.
+     */
+    public EpdReader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Fichier EPD trop volumineux : " + path + ".");
+            }
+            this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        this.text = new ByteText(this.data);
+        this.position = 0;
+        this.lineNumber = 0;
+    }
+
+    /**
+     * Charge la position suivante du fichier dans un échiquier, les lignes vides étant ignorées.
+     *
+     * @param board l'échiquier à réutiliser.
+     * @return true si une position a été chargée, false à la fin du fichier.
+     * @throws IllegalArgumentException si la ligne n'est pas une position valide.
+     */
+    public boolean next(Board board) {
+        int size = this.data.limit();
+        while (this.position < size) {
+            int start = this.position;
+            int end = this.lineEnd(start, size);
+            this.position = end + 1;
+            this.lineNumber++;
+            end = this.trimEnd(start, end);
+            if (Fen.skipSpaces(this.text, start, end) == end) {
+                continue;
+            }
+            try {
+                this.operationsStart = Fen.skipSpaces(this.text, Fen.parse(board, this.text, start, end, false), end);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Ligne " + this.lineNumber + " : " + e.getMessage(), e);
+            }
+            this.operationsEnd = end;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Retourne les opérations EPD de la dernière position chargée par next.
+     * La chaîne n'est créée qu'à l'appel de cette méthode.
+     *
+     * @return les opérations, éventuellement vides.
+     */
+    public String getOperations() {
+        return this.text.subSequence(this.operationsStart, this.operationsEnd).toString();
+    }
+
+    /**
+     * Retourne le numéro de la dernière ligne lue par next.
+     *
+     * @return le numéro de ligne, à partir de 1.
+     */
+    public int getLineNumber() {
+        return this.lineNumber;
+    }
+
+    /**
+     * Retourne les positions du fichier sous forme de Stream, indépendamment de next.
+     * L'échiquier fourni pour chaque position est réutilisé pour les suivantes : il ne doit pas être conservé.
+     * Le Stream peut être rendu parallèle par parallel() ; chaque fil reçoit alors son propre échiquier.
+     *
+     * @return le Stream des positions.
+     */
+    public Stream<Board> positions() {
+        return StreamSupport.stream(new PositionSpliterator(0, this.data.limit()), false);
+    }
+
+    /**
+     * Retourne l'indice du saut de ligne qui termine une ligne.
+     *
+     * @param start le début de la ligne.
+     * @param limit la fin de la portion lue.
+     * @return l'indice du saut de ligne, ou limit s'il n'y en a pas.
+     */
+    private int lineEnd(int start, int limit) {
+        int index = start;
+        while (index < limit && this.data.get(index) != '\n') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Retire les espaces et le retour chariot qui terminent une ligne.
+     *
+     * @param start le début de la ligne.
+     * @param end la fin de la ligne.
+     * @return la nouvelle fin de la ligne.
+     */
+    private int trimEnd(int start, int end) {
+        while (end > start && (this.data.get(end - 1) == '\r' || this.data.get(end - 1) == ' ')) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Compte les positions d'un fichier EPD et mesure le débit de lecture, en séquentiel puis en parallèle.
+     * Arguments : fichier EPD.
+     *
+     * @param args les arguments de la ligne de commande.
+     * @throws IOException si le fichier ne peut pas être lu.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage : EpdReader <positions.epd>");
+            return;
+        }
+        EpdReader reader = new EpdReader(Path.of(args[0]));
+        Board board = new Board();
+        long start = System.nanoTime();
+        long count = 0;
+        while (reader.next(board)) {
+            count++;
+        }
+        report("séquentiel", count, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        count = reader.positions().parallel().count();
+        report("parallèle", count, System.nanoTime() - start);
+    }
+
+    /**
+     * Affiche le nombre de positions lues et le débit.
+     *
+     * @param label le mode de lecture.
+     * @param count le nombre de positions.
+     * @param nanos la durée, en nanosecondes.
+     */
+    private static void report(String label, long count, long nanos) {
+        System.out.println(label + " : " + count + " positions en " + nanos / 1_000_000 + " ms ("
+            + count * 1_000_000_000L / Math.max(nanos, 1) + " positions/s)");
+    }
+
+    /**
+     * Portion du fichier lue par un fil, découpée en deux à chaque demande tant qu'elle est assez grande.
+     * Les portions commencent toujours en début de ligne.
+     */
+    private final class PositionSpliterator implements Spliterator<Board> {
+        private int position;
+        private final int end;
+        private Board board;
+
+        /**
+         * Constructeur de la classe PositionSpliterator.
+         *
+         * @param position le début de la portion, en début de ligne.
+         * @param end la fin de la portion, en début de ligne ou en fin de fichier.
+         */
+        PositionSpliterator(int position, int end) {
+            this.position = position;
+            this.end = end;
+        }
+
+        /**
+         * Charge la position suivante de la portion et la transmet à une action.
+         *
+         * @param action l'action appliquée à l'échiquier.
+         * @return true si une position a été transmise, false à la fin de la portion.
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super Board> action) {
+            while (this.position < this.end) {
+                int start = this.position;
+                int lineEnd = EpdReader.this.lineEnd(start, this.end);
+                this.position = lineEnd + 1;
+                lineEnd = EpdReader.this.trimEnd(start, lineEnd);
+                if (Fen.skipSpaces(EpdReader.this.text, start, lineEnd) == lineEnd) {
+                    continue;
+                }
+                if (this.board == null) {
+                    this.board = new Board();
+                }
+                try {
+                    Fen.parse(this.board, EpdReader.this.text, start, lineEnd, false);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Octet " + start + " : " + e.getMessage(), e);
+                }
+                action.accept(this.board);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Cède la première moitié de la portion, coupée au début de ligne le plus proche du milieu.
+         *
+         * @return la première moitié, ou null si la portion est trop petite pour être découpée.
+         */
+        @Override
+        public Spliterator<Board> trySplit() {
+            if (this.end - this.position < MIN_SPLIT_BYTES) {
+                return null;
+            }
+            int middle = EpdReader.this.lineEnd(this.position + (this.end - this.position) / 2, this.end) + 1;
+            if (middle >= this.end) {
+                return null;
+            }
+            PositionSpliterator prefix = new PositionSpliterator(this.position, middle);
+            this.position = middle;
+            return prefix;
+        }
+
+        /**
+         * Estime le nombre de positions restant dans la portion.
+         *
+         * @return l'estimation.
+         */
+        @Override
+        public long estimateSize() {
+            return (this.end - this.position) / AVERAGE_LINE_BYTES + 1;
+        }
+
+        /**
+         * Retourne les caractéristiques de la portion.
+         *
+         * @return ORDERED et NONNULL.
+         */
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package models;
+
+/**
+ * La classe Fen lit et écrit les positions en notation Forsyth-Edwards (FEN).
+ * La lecture se fait dans un échiquier existant, dont les pièces sont réutilisées : charger une position
+ * ne crée aucun objet, si bien qu'un même échiquier peut servir à parcourir des millions de positions.
+ * Le texte est lu au travers d'une CharSequence, ce qui permet aussi de lire une position directement
+ * dans un fichier projeté en mémoire (voir EpdReader).
+ */
+public final class Fen {
+    /**
+     * Position initiale d'une partie.
+     */
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // Symboles des pièces blanches, dans l'ordre de PieceType
+    private static final String SYMBOLS = "PRNBQK";
+    // Type et couleur de la pièce désignée par chaque caractère ASCII, null pour un caractère inconnu
+    private static final PieceType[] SYMBOL_TYPES = new PieceType[128];
+    private static final Color[] SYMBOL_COLORS = new Color[128];
+
+    static {
+        for (PieceType type : PieceType.values()) {
+            char symbol = SYMBOLS.charAt(type.ordinal());
+            SYMBOL_TYPES[symbol] = type;
+            SYMBOL_COLORS[symbol] = Color.WHITE;
+            SYMBOL_TYPES[Character.toLowerCase(symbol)] = type;
+            SYMBOL_COLORS[Character.toLowerCase(symbol)] = Color.BLACK;
+        }
+    }
+
+    /**
+     * Constructeur privé : classe utilitaire non instanciable.
+     */
+    private Fen() {
+    }
+
+    /**
+     * Charge une position FEN dans un échiquier, dont l'historique des mouvements est effacé.
+     * Les compteurs de coups sont facultatifs (0 et 1 par défaut).
+     *
+     * @param board l'échiquier à modifier ; son état est indéterminé si la position est invalide.
+     * @param fen la position en notation FEN.
+     * @throws IllegalArgumentException si la position est mal formée ou n'a pas exactement un roi par camp.
+     */
+    public static void load(Board board, CharSequence fen) {
+        int end = fen.length();
+        if (skipSpaces(fen, parse(board, fen, 0, end, true), end) != end) {
+            throw invalid(fen, 0, end, "texte en trop");
+        }
+    }
+
+    /**
+     * Crée un échiquier dans une position FEN.
+     *
+     * @param fen la position en notation FEN.
+     * @return le nouvel échiquier.
+     * @throws IllegalArgumentException si la position est invalide.
+     */
+    public static Board toBoard(CharSequence fen) {
+        Board board = new Board();
+        load(board, fen);
+        return board;
+    }
+
+    /**
+     * Lit les champs d'une position dans une portion de texte : disposition, trait, roques, prise en passant,
+     * puis, si demandé et s'ils sont présents, les deux compteurs de coups.
+     *
+     * @param board l'échiquier à modifier.
+     * @param text le texte.
+     * @param start l'indice du premier caractère de la position.
+     * @param end l'indice qui suit le dernier caractère utilisable.
+     * @param counters true pour lire les compteurs de coups, false pour s'arrêter après la prise en passant.
+     * @return l'indice qui suit le dernier champ lu.
+     * @throws IllegalArgumentException si la position est invalide.
+     */
+    static int parse(Board board, CharSequence text, int start, int end, boolean counters) {
+        board.clearForReuse();
+        int index = skipSpaces(text, start, end);
+
+        // Disposition des pièces, de la huitième rangée à la première
+        int row = 7;
+        int column = 0;
+        for (; index < end && text.charAt(index) != ' '; index++) {
+            char c = text.charAt(index);
+            if (c == '/') {
+                if (column != 8 || row == 0) {
+                    throw invalid(text, start, end, "rangée incomplète");
+                }
+                row--;
+                column = 0;
+            } else if (c >= '1' && c <= '8') {
+                column += c - '0';
+                if (column > 8) {
+                    throw invalid(text, start, end, "rangée trop longue");
+                }
+            } else {
+                PieceType type = (c < 128) ? SYMBOL_TYPES[c] : null;
+                if (type == null || column > 7) {
+                    throw invalid(text, start, end, "pièce inconnue ou rangée trop longue");
+                }
+                board.placeReusedPiece(Bitboards.square(row, column), type, SYMBOL_COLORS[c]);
+                column++;
+            }
+        }
+        if (row != 0 || column != 8) {
+            throw invalid(text, start, end, "disposition incomplète");
+        }
+        for (Color color : Color.values()) {
+            if (Long.bitCount(board.getBitboard(PieceType.KING, color)) != 1) {
+                throw invalid(text, start, end, "il faut exactement un roi par camp");
+            }
+        }
+        if (((board.getBitboard(PieceType.PAWN, Color.WHITE) | board.getBitboard(PieceType.PAWN, Color.BLACK))
+                & (Bitboards.RANK_1 | Bitboards.RANK_8)) != 0L) {
+            throw invalid(text, start, end, "pion sur une rangée extrême");
+        }
+
+        // Trait
+        index = skipSpaces(text, index, end);
+        if (index >= end || (text.charAt(index) != 'w' && text.charAt(index) != 'b')) {
+            throw invalid(text, start, end, "trait manquant");
+        }
+        Color sideToMove = (text.charAt(index++) == 'w') ? Color.WHITE : Color.BLACK;
+
+        // Droits de roque
+        index = skipSpaces(text, index, end);
+        int castlingRights = 0;
+        if (index < end && text.charAt(index) == '-') {
+            index++;
+        } else {
+            for (; index < end && text.charAt(index) != ' '; index++) {
+                int right = "KQkq".indexOf(text.charAt(index));
+                if (right < 0) {
+                    throw invalid(text, start, end, "droit de roque inconnu");
+                }
+                castlingRights |= 1 << right;
+            }
+        }
+
+        // Case de prise en passant
+        index = skipSpaces(text, index, end);
+        int enPassantSquare = -1;
+        if (index < end && text.charAt(index) == '-') {
+            index++;
+        } else if (index + 1 < end && text.charAt(index) >= 'a' && text.charAt(index) <= 'h'
+                && (text.charAt(index + 1) == '3' || text.charAt(index + 1) == '6')) {
+            enPassantSquare = Bitboards.square(text.charAt(index + 1) - '1', text.charAt(index) - 'a');
+            index += 2;
+        } else {
+            throw invalid(text, start, end, "case de prise en passant invalide");
+        }
+
+        // Compteurs de coups, facultatifs
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        if (counters) {
+            int next = skipSpaces(text, index, end);
+            if (next < end && isDigit(text.charAt(next))) {
+                halfmoveClock = parseNumber(text, next, end);
+                index = skipDigits(text, next, end);
+                next = skipSpaces(text, index, end);
+                if (next >= end || !isDigit(text.charAt(next))) {
+                    throw invalid(text, start, end, "numéro du coup manquant");
+                }
+                fullmoveNumber = Math.max(parseNumber(text, next, end), 1);
+                index = skipDigits(text, next, end);
+            }
+        }
+
+        try {
+            board.setState(sideToMove, castlingRights, enPassantSquare, halfmoveClock, fullmoveNumber);
+        } catch (IllegalArgumentException e) {
+            throw invalid(text, start, end, e.getMessage());
+        }
+
+        // Le camp qui n'a pas le trait ne peut pas être en échec : son roi serait pris au coup suivant
+        Color opponent = (sideToMove == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        if (board.getAttackers(board.getKingSquare(opponent), sideToMove, board.getOccupied()) != 0L) {
+            throw invalid(text, start, end, "le camp qui n'a pas le trait est en échec");
+        }
+        return index;
+    }
+
+    /**
+     * Écrit la position d'un échiquier en notation FEN.
+     *
+     * @param board l'échiquier.
+     * @return la position en notation FEN, compteurs de coups compris.
+     */
+    public static String toFen(Board board) {
+        StringBuilder sb = new StringBuilder(90);
+        for (int row = 7; row >= 0; row--) {
+            int empty = 0;
+            for (int column = 0; column < 8; column++) {
+                Piece piece = board.getPiece(Bitboards.square(row, column));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                char symbol = SYMBOLS.charAt(piece.getType().ordinal());
+                sb.append(piece.getColor() == Color.WHITE ? symbol : Character.toLowerCase(symbol));
+            }
+            if (empty > 0) {
+                sb.append(empty);
+            }
+            if (row > 0) {
+                sb.append('/');
+            }
+        }
+
+        sb.append(board.getSideToMove() == Color.WHITE ? " w " : " b ");
+        int rights = board.getCastlingRights();
+        if (rights == 0) {
+            sb.append('-');
+        }
+        for (int right = 0; right < 4; right++) {
+            if ((rights & (1 << right)) != 0) {
+                sb.append("KQkq".charAt(right));
+            }
+        }
+        sb.append(' ');
+        int enPassant = board.getEnPassantSquare();
+        sb.append(enPassant < 0 ? "-" : Position.fromSquare(enPassant).toString());
+        sb.append(' ').append(board.getHalfmoveClock()).append(' ').append(board.getFullmoveNumber());
+        return sb.toString();
+    }
+
+    /**
+     * Avance au-delà des espaces.
+     *
+     * @param text le texte.
+     * @param index l'indice de départ.
+     * @param end l'indice qui suit le dernier caractère utilisable.
+     * @return l'indice du premier caractère qui n'est pas une espace, ou end.
+     */
+    static int skipSpaces(CharSequence text, int index, int end) {
+        while (index < end && (text.charAt(index) == ' ' || text.charAt(index) == '\t')) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Indique si un caractère est un chiffre décimal.
+     *
+     * @param c le caractère.
+     * @return true si c'est un chiffre, false sinon.
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Lit un entier positif, plafonné à un million.
+     *
+     * @param text le texte.
+     * @param index l'indice du premier chiffre.
+     * @param end l'indice qui suit le dernier caractère utilisable.
+     * @return la valeur lue.
+     */
+    private static int parseNumber(CharSequence text, int index, int end) {
+        int number = 0;
+        for (; index < end && isDigit(text.charAt(index)); index++) {
+            number = Math.min(number * 10 + (text.charAt(index) - '0'), 1_000_000);
+        }
+        return number;
+    }
+
+    /**
+     * Avance au-delà des chiffres.
+     *
+     * @param text le texte.
+     * @param index l'indice de départ.
+     * @param end l'indice qui suit le dernier caractère utilisable.
+     * @return l'indice du premier caractère qui n'est pas un chiffre, ou end.
+     */
+    private static int skipDigits(CharSequence text, int index, int end) {
+        while (index < end && isDigit(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Crée l'exception signalant une position invalide.
+     *
+     * @param text le texte.
+     * @param start l'indice du premier caractère de la position.
+     * @param end l'indice qui suit le dernier caractère de la position.
+     * @param reason la raison du rejet.
+     * @return l'exception.
+     */
+    private static IllegalArgumentException invalid(CharSequence text, int start, int end, String reason) {
+        return new IllegalArgumentException("Position FEN invalide (" + reason + ") : "
+            + text.subSequence(start, end) + ".");
+    }
+}
@@ -1,346 +1,384 @@
-package models;
-
-import java.util.ArrayList;
-import views.GameModeSelectionView;
-import views.Observer;
-
-/**
- * La classe Game représente une partie d'échecs.
- * Elle gère l'état du jeu, les mouvements des pièces, et les interactions avec
- * les observateurs.
- */
-public class Game implements Subject {
-    private Board board;
-    private static Color currentTurn;
-    private static GameStatus status;
-    private ArrayList<String> moveNotation;
-    private ArrayList<Observer> observers;
-    private static Game gameInstance;
-    private static boolean aiEnabled;
-    private static Color playerColor;
-
-    /**
-     * Constructeur privé de la classe Game.
-     * Initialise l'échiquier, le tour actuel, le statut du jeu, la notation des
-     * mouvements et les observateurs.
-     */
-    private Game() {
-        this.board = new Board();
-        currentTurn = Color.WHITE;
-        status = GameStatus.ACTIVE;
-        aiEnabled = false;
-        this.moveNotation = new ArrayList<String>();
-        this.observers = new ArrayList<Observer>();
-    }
-
-    /**
-     * Retourne l'instance unique de la classe Game.
-     * Si l'instance n'existe pas, elle est créée.
-     *
-     * @return l'instance unique de la classe Game.
-     */
-    public static Game getGameInstance() {
-        if (Game.gameInstance == null) {
-            Game.gameInstance = new Game();
-        }
-        return Game.gameInstance;
-    }
-
-    /**
-     * Effectue un mouvement sur l'échiquier.
-     *
-     * @param from la position de départ.
-     * @param to   la position d'arrivée.
-     * @return true si le mouvement est valide et effectué, false sinon.
-     */
-    public boolean makeMove(Position from, Position to) {
-        Piece piece = this.board.getPiece(from);
-        if (piece == null || piece.getColor() != currentTurn) {
-            return false;
-        }
-
-        if (!piece.isValidMove(to)) {
-            return false;
-        }
-
-        // Effectue le mouvement temporairement
-        this.board.movePiece(from, to);
-
-        // Vérifie si le mouvement met ou laisse le roi en échec
-        Position kingPos = this.board.findKing(currentTurn);
-        if (this.board.isUnderAttack(kingPos, getOppositeColor(currentTurn))) {
-            this.board.undoLastMove();
-            return false;
-        }
-
-        // Enregistre le mouvement en notation
-        this.recordMove(this.board.getMoveHistory().get(this.board.getMoveHistory().size() - 1));
-
-        // Change de tour et met à jour le statut du jeu
-        this.switchTurn();
-        this.updateGameStatus();
-        this.notifyObservers();
-
-        return true;
-    }
-
-    /**
-     * Retourne la couleur opposée à celle donnée.
-     *
-     * @param color la couleur dont on veut obtenir l'opposé.
-     * @return la couleur opposée.
-     */
-    private Color getOppositeColor(Color color) {
-        return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
-    }
-
-    /**
-     * Change le tour actuel.
-     */
-    private void switchTurn() {
-        currentTurn = this.getOppositeColor(currentTurn);
-    }
-
-    /**
-     * Met à jour le statut du jeu.
-     */
-    private void updateGameStatus() {
-        Color oppositeColor = this.getOppositeColor(currentTurn);
-        Position kingPos = this.board.findKing(currentTurn);
-
-        if (this.board.isUnderAttack(kingPos, oppositeColor)) {
-            status = GameStatus.CHECK;
-
-            if (isCheckmate()) {
-                status = GameStatus.CHECKMATE;
-            }
-        } else if (isStalemate()) {
-            status = GameStatus.STALEMATE;
-        } else {
-            status = GameStatus.ACTIVE;
-        }
-    }
-
-    /**
-     * Vérifie si le joueur actuel est en échec et mat.
-     *
-     * @return true si le joueur est en échec et mat, false sinon.
-     */
-    private boolean isCheckmate() {
-        return !hasLegalMoves() && status == GameStatus.CHECK;
-    }
-
-    /**
-     * Vérifie si le joueur actuel est en pat.
-     *
-     * @return true si le joueur est en pat, false sinon.
-     */
-    private boolean isStalemate() {
-        return !hasLegalMoves() && status != GameStatus.CHECK;
-    }
-
-    /**
-     * Vérifie si le joueur actuel a des mouvements légaux.
-     *
-     * @return true si le joueur a des mouvements légaux, false sinon.
-     */
-    private boolean hasLegalMoves() {
-        for (int fromRow = 0; fromRow < 8; fromRow++) {
-            for (int fromCol = 0; fromCol < 8; fromCol++) {
-                Position from = new Position(fromRow, fromCol);
-                Piece piece = this.board.getPiece(from);
-
-                if (piece != null && piece.getColor() == currentTurn) {
-                    for (int toRow = 0; toRow < 8; toRow++) {
-                        for (int toCol = 0; toCol < 8; toCol++) {
-                            Position to = new Position(toRow, toCol);
-
-                            if (piece.isValidMove(to)) {
-                                // Essaie le mouvement
-                                this.board.movePiece(from, to);
-                                Position kingPos = this.board.findKing(currentTurn);
-                                boolean inCheck = this.board.isUnderAttack(kingPos, getOppositeColor(currentTurn));
-                                this.board.undoLastMove();
-
-                                if (!inCheck) {
-                                    return true;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Enregistre un mouvement en notation.
-     *
-     * @param move le mouvement à enregistrer.
-     */
-    private void recordMove(Move move) {
-        String notation = String.format("%d. %s",
-                this.moveNotation.size() / 2 + 1, move.toString());
-        this.moveNotation.add(notation);
-    }
-
-    /**
-     * Annule le dernier mouvement effectué.
-     */
-    public void undoMove() {
-        this.board.undoLastMove();
-        this.switchTurn();
-        this.updateGameStatus();
-        this.notifyObservers();
-        if (!this.moveNotation.isEmpty()) {
-            this.moveNotation.remove(this.moveNotation.size() - 1);
-        }
-    }
-
-    /**
-     * Promotion d'un pion en une autre pièce.
-     *
-     * @param position la position du pion à promouvoir.
-     * @param newType  le type de la nouvelle pièce.
-     */
-    public void promotePawn(Position position, PieceType newType) {
-        Piece pawn = this.board.getPiece(position);
-        if (pawn.getType() == PieceType.PAWN) {
-            Piece promotedPiece = new Piece(newType, pawn.getColor(), position);
-            this.board.setPiece(position, promotedPiece);
-            this.notifyObservers();
-        }
-    }
-
-    /**
-     * Arrête la partie et réinitialise l'instance du jeu.
-     *
-     * @param observer l'observateur à retirer.
-     */
-    public void stopGame(Observer observer) {
-        this.removeObserver(observer);
-        this.addObserver(new GameModeSelectionView());
-        Game.resetGameInstance();
-        Game.setStatus(GameStatus.INACTIVE);
-        this.notifyObservers();
-    }
-
-    /**
-     * Réinitialise l'instance unique de la classe Game.
-     */
-    public static void resetGameInstance() {
-        Game.gameInstance = null;
-    }
-
-    /**
-     * Ajoute un observateur à la liste des observateurs.
-     *
-     * @param observer l'observateur à ajouter.
-     */
-    @Override
-    public void addObserver(Observer observer) {
-        this.observers.add(observer);
-    }
-
-    /**
-     * Retire un observateur de la liste des observateurs.
-     *
-     * @param observer l'observateur à retirer.
-     */
-    @Override
-    public void removeObserver(Observer observer) {
-        this.observers.remove(observer);
-    }
-
-    /**
-     * Notifie tous les observateurs de la mise à jour du jeu.
-     */
-    @Override
-    public void notifyObservers() {
-        for (Observer obs : observers) {
-            obs.update();
-        }
-    }
-
-    /**
-     * Retourne l'échiquier.
-     *
-     * @return l'échiquier.
-     */
-    public Board getBoard() {
-        return this.board;
-    }
-
-    /**
-     * Retourne la couleur du joueur dont c'est le tour.
-     *
-     * @return la couleur du joueur dont c'est le tour.
-     */
-    public static Color getCurrentTurn() {
-        return currentTurn;
-    }
-
-    /**
-     * Retourne le statut actuel du jeu.
-     *
-     * @return le statut actuel du jeu.
-     */
-    public static GameStatus getStatus() {
-        return status;
-    }
-
-    /**
-     * Retourne la notation des mouvements.
-     *
-     * @return la notation des mouvements.
-     */
-    public ArrayList<String> getMoveNotation() {
-        return this.moveNotation;
-    }
-
-    /**
-     * Retourne l'état de l'IA (activée ou désactivée).
-     *
-     * @return true si l'IA est activée, false sinon.
-     */
-    public static boolean getAiEnabled() {
-        return aiEnabled;
-    }
-
-    /**
-     * Retourne la couleur du joueur.
-     *
-     * @return la couleur du joueur.
-     */
-    public static Color getPlayerColor() {
-        return playerColor;
-    }
-
-    /**
-     * Définit la couleur du joueur.
-     *
-     * @param color la couleur du joueur.
-     */
-    public static void setPlayerColor(Color color) {
-        playerColor = color;
-    }
-
-    /**
-     * Active ou désactive l'IA.
-     *
-     * @param enabled true pour activer l'IA, false pour la désactiver.
-     */
-    public void setAiEnabled(boolean enabled) {
-        aiEnabled = enabled;
-    }
-
-    /**
-     * Définit le statut du jeu.
-     *
-     * @param gameStatus le nouveau statut du jeu.
-     */
-    public static void setStatus(GameStatus gameStatus) {
-        status = gameStatus;
-    }
-}
+package models;
+
+import java.util.ArrayList;
+import views.GameModeSelectionView;
+import views.Observer;
+
+/**
+ * La classe Game représente une partie d'échecs.
+ * Elle gère l'état du jeu, les mouvements des pièces, et les interactions avec
+ * les observateurs.
+ * Tout l'état de la partie appartient à l'instance, ce qui permet de mener plusieurs parties indépendantes
+ * dans le même processus.
+ */
+public class Game implements Subject {
+    private Board board;
+    private Color currentTurn;
+    private GameStatus status;
+    private MoveNotation moveNotation;
+    private ArrayList<Observer> observers;
+    private MoveList moveBuffer;
+    private boolean aiEnabled;
+    private Color playerColor;
+    private Bitbases bitbases;
+    private MoveJournal journal;
+    private long journalId;
+    private long journalSequence;
+
+    /**
+     * Constructeur de la classe Game.
+     * Initialise l'échiquier, le tour actuel, le statut du jeu, la notation des
+     * mouvements et les observateurs.
+     */
+    public Game() {
+        this.board = new Board();
+        this.currentTurn = Color.WHITE;
+        this.status = GameStatus.ACTIVE;
+        this.aiEnabled = false;
+        this.moveNotation = new MoveNotation();
+        this.observers = new ArrayList<Observer>();
+        this.moveBuffer = new MoveList();
+    }
+
+    /**
+     * Effectue un mouvement sur l'échiquier.
+     *
+     * @param from la position de départ.
+     * @param to   la position d'arrivée.
+     * @return true si le mouvement est valide et effectué, false sinon.
+     */
+    public boolean makeMove(Position from, Position to) {
+        Piece piece = this.board.getPiece(from);
+        if (piece == null || piece.getColor() != this.currentTurn || !to.isValid()) {
+            return false;
+        }
+
+        // Vérifie que le mouvement fait partie des coups légaux, sans coup d'essai sur l'échiquier
+        MoveGenerator.generateLegalMoves(this.board, this.moveBuffer);
+        int move = this.moveBuffer.find(from.getSquare(), to.getSquare());
+        if (move == PackedMove.NONE) {
+            return false;
+        }
+
+        this.board.movePiece(from, to);
+        if (this.journal != null) {
+            this.journalSequence = this.journal.logMove(this.journalId, from.getSquare(), to.getSquare());
+        }
+
+        // Enregistre le mouvement encodé ; sa notation n'est rendue qu'à l'affichage, et sa promotion
+        // n'est connue qu'à l'appel de promotePawn
+        this.moveNotation.add(PackedMove.withoutPromotion(move));
+
+        // Change de tour et met à jour le statut du jeu
+        this.switchTurn();
+        this.updateGameStatus();
+        this.notifyObservers();
+
+        return true;
+    }
+
+    /**
+     * Retourne la couleur opposée à celle donnée.
+     *
+     * @param color la couleur dont on veut obtenir l'opposé.
+     * @return la couleur opposée.
+     */
+    private Color getOppositeColor(Color color) {
+        return (color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+    }
+
+    /**
+     * Change le tour actuel.
+     */
+    private void switchTurn() {
+        this.currentTurn = this.getOppositeColor(this.currentTurn);
+    }
+
+    /**
+     * Met à jour le statut du jeu. Lorsque des tables de finales sont disponibles, une finale nulle
+     * met fin à la partie.
+     */
+    private void updateGameStatus() {
+        Color oppositeColor = this.getOppositeColor(this.currentTurn);
+        Position kingPos = this.board.findKing(this.currentTurn);
+
+        if (this.board.isUnderAttack(kingPos, oppositeColor)) {
+            this.status = GameStatus.CHECK;
+
+            if (isCheckmate()) {
+                this.status = GameStatus.CHECKMATE;
+            }
+        } else if (isStalemate()) {
+            this.status = GameStatus.STALEMATE;
+        } else if (this.bitbases != null && this.bitbases.probe(this.board) == Bitbases.DRAW) {
+            // Une finale nulle d'après les tables est arbitrée aussitôt
+            this.status = GameStatus.DRAW;
+        } else {
+            this.status = GameStatus.ACTIVE;
+        }
+    }
+
+    /**
+     * Vérifie si le joueur actuel est en échec et mat.
+     *
+     * @return true si le joueur est en échec et mat, false sinon.
+     */
+    private boolean isCheckmate() {
+        return !hasLegalMoves() && this.status == GameStatus.CHECK;
+    }
+
+    /**
+     * Vérifie si le joueur actuel est en pat.
+     *
+     * @return true si le joueur est en pat, false sinon.
+     */
+    private boolean isStalemate() {
+        return !hasLegalMoves() && this.status != GameStatus.CHECK;
+    }
+
+    /**
+     * Vérifie si le joueur actuel a des mouvements légaux.
+     *
+     * @return true si le joueur a des mouvements légaux, false sinon.
+     */
+    public boolean hasLegalMoves() {
+        MoveGenerator.generateLegalMoves(this.board, this.moveBuffer);
+        return !this.moveBuffer.isEmpty();
+    }
+
+    /**
+     * Annule le dernier mouvement effectué. Sans mouvement à annuler (par exemple juste après
+     * le chargement d'une position), la partie n'est pas modifiée.
+     */
+    public void undoMove() {
+        if (this.board.getMoveHistory().isEmpty()) {
+            return;
+        }
+        this.board.undoLastMove();
+        if (this.journal != null) {
+            this.journalSequence = this.journal.logUndo(this.journalId);
+        }
+        this.switchTurn();
+        this.updateGameStatus();
+        this.moveNotation.removeLast();
+        this.notifyObservers();
+    }
+
+    /**
+     * Charge une position FEN : la partie reprend depuis cette position, sans historique ni notation.
+     *
+     * @param fen la position en notation FEN.
+     * @throws IllegalArgumentException si la position est invalide ; la partie revient alors à la position initiale.
+     */
+    public void loadPosition(String fen) {
+        try {
+            Fen.load(this.board, fen);
+        } catch (IllegalArgumentException e) {
+            this.board.initializeBoard();
+            this.currentTurn = Color.WHITE;
+            this.moveNotation.reset(this.board);
+            this.updateGameStatus();
+            this.logPosition(Fen.START_POSITION);
+            throw e;
+        }
+        // La forme canonique tient toujours dans un enregistrement, quels que soient les blancs du texte reçu
+        this.logPosition(Fen.toFen(this.board));
+        this.currentTurn = this.board.getSideToMove();
+        this.moveNotation.reset(this.board);
+        this.updateGameStatus();
+        this.notifyObservers();
+    }
+
+    /**
+     * Retourne la position courante en notation FEN.
+     *
+     * @return la position en notation FEN.
+     */
+    public String toFen() {
+        return Fen.toFen(this.board);
+    }
+
+    /**
+     * Consigne le chargement d'une position dans le journal, s'il y en a un.
+     *
+     * @param fen la position chargée.
+     */
+    private void logPosition(String fen) {
+        if (this.journal != null) {
+            this.journalSequence = this.journal.logPosition(this.journalId, fen);
+        }
+    }
+
+    /**
+     * Promotion d'un pion en une autre pièce.
+     *
+     * @param position la position du pion à promouvoir.
+     * @param newType  le type de la nouvelle pièce.
+     */
+    public void promotePawn(Position position, PieceType newType) {
+        Piece pawn = this.board.getPiece(position);
+        if (pawn.getType() == PieceType.PAWN) {
+            Piece promotedPiece = new Piece(newType, pawn.getColor(), position);
+            this.board.setPiece(position, promotedPiece);
+            this.moveNotation.setLastPromotion(position.getSquare(), newType);
+            if (this.journal != null) {
+                this.journalSequence = this.journal.logPromotion(this.journalId, position.getSquare(), newType);
+            }
+            this.notifyObservers();
+        }
+    }
+
+    /**
+     * Arrête la partie et revient à la sélection du mode de jeu.
+     *
+     * @param observer l'observateur à retirer.
+     */
+    public void stopGame(Observer observer) {
+        this.removeObserver(observer);
+        this.addObserver(new GameModeSelectionView());
+        this.setStatus(GameStatus.INACTIVE);
+        this.notifyObservers();
+    }
+
+    /**
+     * Ajoute un observateur à la liste des observateurs.
+     *
+     * @param observer l'observateur à ajouter.
+     */
+    @Override
+    public void addObserver(Observer observer) {
+        this.observers.add(observer);
+    }
+
+    /**
+     * Retire un observateur de la liste des observateurs.
+     *
+     * @param observer l'observateur à retirer.
+     */
+    @Override
+    public void removeObserver(Observer observer) {
+        this.observers.remove(observer);
+    }
+
+    /**
+     * Notifie tous les observateurs de la mise à jour du jeu.
+     */
+    @Override
+    public void notifyObservers() {
+        for (Observer obs : observers) {
+            obs.update();
+        }
+    }
+
+    /**
+     * Retourne l'échiquier.
+     *
+     * @return l'échiquier.
+     */
+    public Board getBoard() {
+        return this.board;
+    }
+
+    /**
+     * Retourne la couleur du joueur dont c'est le tour.
+     *
+     * @return la couleur du joueur dont c'est le tour.
+     */
+    public Color getCurrentTurn() {
+        return this.currentTurn;
+    }
+
+    /**
+     * Retourne le statut actuel du jeu.
+     *
+     * @return le statut actuel du jeu.
+     */
+    public GameStatus getStatus() {
+        return this.status;
+    }
+
+    /**
+     * Retourne la notation des mouvements, rendue en notation SAN à la demande.
+     *
+     * @return la notation des mouvements.
+     */
+    public MoveNotation getMoveNotation() {
+        return this.moveNotation;
+    }
+
+    /**
+     * Retourne l'état de l'IA (activée ou désactivée).
+     *
+     * @return true si l'IA est activée, false sinon.
+     */
+    public boolean getAiEnabled() {
+        return this.aiEnabled;
+    }
+
+    /**
+     * Retourne la couleur du joueur.
+     *
+     * @return la couleur du joueur.
+     */
+    public Color getPlayerColor() {
+        return this.playerColor;
+    }
+
+    /**
+     * Définit la couleur du joueur.
+     *
+     * @param color la couleur du joueur.
+     */
+    public void setPlayerColor(Color color) {
+        this.playerColor = color;
+    }
+
+    /**
+     * Active ou désactive l'IA.
+     *
+     * @param enabled true pour activer l'IA, false pour la désactiver.
+     */
+    public void setAiEnabled(boolean enabled) {
+        this.aiEnabled = enabled;
+    }
+
+    /**
+     * Définit le statut du jeu.
+     *
+     * @param gameStatus le nouveau statut du jeu.
+     */
+    public void setStatus(GameStatus gameStatus) {
+        this.status = gameStatus;
+    }
+
+    /**
+     * Définit les tables de finales utilisées pour arbitrer les finales nulles.
+     *
+     * @param bitbases les tables de finales, ou null pour ne pas arbitrer.
+     */
+    public void setBitbases(Bitbases bitbases) {
+        this.bitbases = bitbases;
+    }
+
+    /**
+     * Rattache la partie à un journal : chaque coup, annulation, promotion ou chargement de position accepté
+     * y est ensuite consigné (voir MoveJournal). Le début de la partie doit avoir été consigné par l'appelant.
+     *
+     * @param journal le journal, ou null pour ne plus rien consigner.
+     * @param id l'identifiant de la partie dans le journal.
+     */
+    public void setJournal(MoveJournal journal, long id) {
+        this.journal = journal;
+        this.journalId = id;
+    }
+
+    /**
+     * Retourne le numéro de séquence du dernier enregistrement consigné pour la partie,
+     * à passer à MoveJournal.awaitDurable pour attendre qu'il soit forcé sur le disque.
+     *
+     * @return le numéro de séquence, ou 0 si rien n'a été consigné.
+     */
+    public long getJournalSequence() {
+        return this.journalSequence;
+    }
+}
@@ -0,0 +1,428 @@
+package models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * La classe GameArchive lit une archive binaire de parties écrite par GameArchiveWriter.
+ * Le format, en gros-boutiste, commence par un en-tête de fichier : la signature « CHGA » (4 octets),
+ * la version (2 octets) et l'intervalle entre deux instantanés, en demi-coups (2 octets).
+ * Chaque partie forme ensuite un enregistrement :
+ * <ul>
+ * <li>la taille de la suite de l'enregistrement (4 octets) ;</li>
+ * <li>le résultat (1 octet : 0 pour « 1-0 », 1 pour « 0-1 », 2 pour « 1/2-1/2 », 3 pour « * ») ;</li>
+ * <li>des indicateurs (1 octet), dont STANDARD_START lorsque la partie part de la position initiale ;</li>
+ * <li>le nombre de demi-coups (2 octets, non signé) ;</li>
+ * <li>l'instantané de la position de départ, absent si la partie part de la position initiale ;</li>
+ * <li>les mouvements, sur 2 octets chacun : les 15 bits de poids faible de PackedMove (cases et promotion) ;</li>
+ * <li>un instantané de la position tous les « intervalle » demi-coups.</li>
+ * </ul>
+ * Un instantané occupe SNAPSHOT_BYTES octets : le bitboard des cases occupées, le code de chaque pièce
+ * sur 4 bits dans l'ordre des cases, puis le trait, les droits de roque, la case de prise en passant
+ * et les compteurs de coups.
+ * Une partie de 80 demi-coups tient ainsi en 8 + 160 + 2 × 30 = 228 octets, contre plusieurs kilo-octets
+ * d'objets Move et de chaînes en mémoire.
+ * Le fichier est projeté en mémoire par segments d'un gigaoctet ; l'ouverture ne fait que parcourir les tailles
+ * des enregistrements pour indexer les parties. Atteindre un demi-coup quelconque charge l'instantané
+ * qui le précède puis rejoue au plus « intervalle » - 1 mouvements, sans générer de coups.
+ */
+public final class GameArchive {
+    /**
+     * Indicateur d'une partie qui commence à la position initiale.
+     */
+    static final int STANDARD_START = 1;
+
+    // Signature « CHGA » et version du format
+    static final int MAGIC = 0x43484741;
+    static final int VERSION = 1;
+    // Taille de l'en-tête de fichier et de l'en-tête d'une partie, taille de sa longueur comprise
+    static final int FILE_HEADER_BYTES = 8;
+    static final int GAME_HEADER_BYTES = 8;
+    // Taille d'un instantané : cases occupées (8), pièces (16), trait et roques (1), prise en passant (1),
+    // compteurs de demi-coups (2) et de coups (2)
+    static final int SNAPSHOT_BYTES = 30;
+    // Nombre maximal de demi-coups d'une partie et bornes de l'intervalle entre deux instantanés
+    static final int MAX_PLIES = 0xFFFF;
+    static final int MIN_SNAPSHOT_INTERVAL = 8;
+    static final int MAX_SNAPSHOT_INTERVAL = 1024;
+    // Taille maximale d'un enregistrement, et donc du débordement d'un segment
+    static final int MAX_RECORD_BYTES = 1 << 19;
+    // Résultats possibles d'une partie, dans l'ordre de leur code
+    static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", "*"};
+
+    // Taille d'un segment projeté ; chaque segment déborde sur le suivant pour contenir son dernier enregistrement
+    private static final long SEGMENT_BYTES = 1L << 30;
+    // Bits de PackedMove conservés dans l'archive : cases de départ et d'arrivée, pièce de promotion
+    private static final int MOVE_MASK = 0x7FFF;
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final Color[] COLORS = Color.values();
+    // Instantané de la position initiale, pour les parties qui n'en stockent pas
+    private static final ByteBuffer START_SNAPSHOT = ByteBuffer.allocate(SNAPSHOT_BYTES);
+
+    static {
+        writeSnapshot(new Board(), START_SNAPSHOT, 0);
+    }
+
+    private final ByteBuffer[] segments;
+    private final int snapshotInterval;
+    private long[] offsets;
+    private int gameCount;
+
+    /**
+     * Constructeur de la classe GameArchive : projette le fichier en mémoire et indexe ses parties.
+     *
+     * @param path le chemin de l'archive.
+     * @throws IOException si le fichier ne peut pas être ouvert ou projeté.
+     * @throws IllegalArgumentException si le fichier n'est pas une archive valide.
+     */
+    public GameArchive(Path path) throws IOException {
+        long size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+            this.segments = new ByteBuffer[(int) ((size + SEGMENT_BYTES - 1) / SEGMENT_BYTES)];
+            for (int i = 0; i < this.segments.length; i++) {
+                long start = i * SEGMENT_BYTES;
+                long length = Math.min(size - start, SEGMENT_BYTES + MAX_RECORD_BYTES);
+                // La projection reste valide après la fermeture du canal
+                this.segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+        }
+        if (size < FILE_HEADER_BYTES || this.segments[0].getInt(0) != MAGIC
+                || this.segments[0].getShort(4) != VERSION) {
+            throw new IllegalArgumentException("Archive de parties invalide : " + path + ".");
+        }
+        this.snapshotInterval = this.segments[0].getShort(6);
+        if (this.snapshotInterval < MIN_SNAPSHOT_INTERVAL || this.snapshotInterval > MAX_SNAPSHOT_INTERVAL) {
+            throw new IllegalArgumentException("Intervalle d'instantanés invalide : " + path + ".");
+        }
+
+        // Index des parties : il suffit de sauter d'enregistrement en enregistrement
+        this.offsets = new long[1024];
+        long offset = FILE_HEADER_BYTES;
+        while (offset < size) {
+            int length = (offset + 4 <= size) ? this.segment(offset).getInt(this.index(offset)) : -1;
+            if (length < GAME_HEADER_BYTES - 4 || length > MAX_RECORD_BYTES - 4 || offset + 4 + length > size) {
+                throw new IllegalArgumentException("Enregistrement invalide à l'octet " + offset + " : " + path + ".");
+            }
+            if (this.gameCount == this.offsets.length) {
+                this.offsets = Arrays.copyOf(this.offsets, this.offsets.length * 2);
+            }
+            this.offsets[this.gameCount++] = offset;
+            offset += 4 + length;
+        }
+    }
+
+    /**
+     * Retourne le nombre de parties de l'archive.
+     *
+     * @return le nombre de parties.
+     */
+    public int getGameCount() {
+        return this.gameCount;
+    }
+
+    /**
+     * Retourne l'intervalle entre deux instantanés d'une partie.
+     *
+     * @return le nombre de demi-coups entre deux instantanés.
+     */
+    public int getSnapshotInterval() {
+        return this.snapshotInterval;
+    }
+
+    /**
+     * Retourne le nombre de demi-coups d'une partie.
+     *
+     * @param game l'indice de la partie, à partir de 0.
+     * @return le nombre de demi-coups.
+     */
+    public int getPlyCount(int game) {
+        long offset = this.offsetOf(game);
+        return this.segment(offset).getShort(this.index(offset) + 6) & 0xFFFF;
+    }
+
+    /**
+     * Retourne le résultat d'une partie.
+     *
+     * @param game l'indice de la partie, à partir de 0.
+     * @return « 1-0 », « 0-1 », « 1/2-1/2 » ou « * ».
+     */
+    public String getResult(int game) {
+        long offset = this.offsetOf(game);
+        return RESULTS[this.segment(offset).get(this.index(offset) + 4) & 3];
+    }
+
+    /**
+     * Charge dans un échiquier la position d'une partie après un nombre donné de demi-coups,
+     * à partir de l'instantané le plus proche : au plus « intervalle » - 1 mouvements sont rejoués.
+     * L'historique de l'échiquier ne contient que ces mouvements.
+     *
+     * @param game l'indice de la partie, à partir de 0.
+     * @param ply le nombre de demi-coups joués, de 0 (position de départ) au nombre de demi-coups de la partie.
+     * @param board l'échiquier à réutiliser.
+     * @throws IndexOutOfBoundsException si la partie ou le demi-coup n'existe pas.
+     * @throws IllegalArgumentException si l'enregistrement est corrompu.
+     */
+    public void loadPosition(int game, int ply, Board board) {
+        int plyCount = this.getPlyCount(game);
+        if (ply < 0 || ply > plyCount) {
+            throw new IndexOutOfBoundsException("Demi-coup hors limites : " + ply + ".");
+        }
+        long offset = this.offsetOf(game);
+        ByteBuffer data = this.segment(offset);
+        int start = this.index(offset);
+        int moves = movesStart(data, start);
+        int snapshot = ply / this.snapshotInterval;
+        if (snapshot == 0) {
+            this.loadStart(data, start, board);
+        } else {
+            readSnapshot(data, moves + 2 * plyCount + (snapshot - 1) * SNAPSHOT_BYTES, board);
+        }
+        for (int i = snapshot * this.snapshotInterval; i < ply; i++) {
+            board.makeMove(decodeMove(board, data.getShort(moves + 2 * i)));
+        }
+    }
+
+    /**
+     * Rejoue une partie entière dans un échiquier et en restitue les mouvements complets (voir PackedMove).
+     *
+     * @param game l'indice de la partie, à partir de 0.
+     * @param board l'échiquier à réutiliser ; il contient la position finale au retour.
+     * @param moves le tableau à remplir, d'au moins getPlyCount(game) éléments.
+     * @return le nombre de demi-coups de la partie.
+     * @throws IndexOutOfBoundsException si la partie n'existe pas.
+     * @throws IllegalArgumentException si le tableau est trop petit ou si l'enregistrement est corrompu.
+     */
+    public int readGame(int game, Board board, int[] moves) {
+        int plyCount = this.getPlyCount(game);
+        if (moves.length < plyCount) {
+            throw new IllegalArgumentException("Tableau trop petit pour " + plyCount + " demi-coups.");
+        }
+        long offset = this.offsetOf(game);
+        ByteBuffer data = this.segment(offset);
+        int start = this.index(offset);
+        int first = movesStart(data, start);
+        this.loadStart(data, start, board);
+        for (int i = 0; i < plyCount; i++) {
+            moves[i] = decodeMove(board, data.getShort(first + 2 * i));
+            board.makeMove(moves[i]);
+        }
+        return plyCount;
+    }
+
+    /**
+     * Charge la position de départ d'une partie.
+     *
+     * @param data le segment contenant l'enregistrement.
+     * @param start le début de l'enregistrement dans le segment.
+     * @param board l'échiquier à réutiliser.
+     */
+    private void loadStart(ByteBuffer data, int start, Board board) {
+        if ((data.get(start + 5) & STANDARD_START) != 0) {
+            readSnapshot(START_SNAPSHOT, 0, board);
+        } else {
+            readSnapshot(data, start + GAME_HEADER_BYTES, board);
+        }
+    }
+
+    /**
+     * Retourne le début des mouvements d'un enregistrement.
+     *
+     * @param data le segment contenant l'enregistrement.
+     * @param start le début de l'enregistrement dans le segment.
+     * @return l'indice du premier mouvement dans le segment.
+     */
+    private static int movesStart(ByteBuffer data, int start) {
+        boolean standard = (data.get(start + 5) & STANDARD_START) != 0;
+        return start + GAME_HEADER_BYTES + (standard ? 0 : SNAPSHOT_BYTES);
+    }
+
+    /**
+     * Retourne la position d'un enregistrement dans le fichier.
+     *
+     * @param game l'indice de la partie.
+     * @return le décalage en octets.
+     * @throws IndexOutOfBoundsException si la partie n'existe pas.
+     */
+    private long offsetOf(int game) {
+        if (game < 0 || game >= this.gameCount) {
+            throw new IndexOutOfBoundsException("Indice de partie hors limites : " + game + ".");
+        }
+        return this.offsets[game];
+    }
+
+    /**
+     * Retourne le segment qui contient un enregistrement commençant à une position du fichier.
+     *
+     * @param offset la position.
+     * @return le segment.
+     */
+    private ByteBuffer segment(long offset) {
+        return this.segments[(int) (offset / SEGMENT_BYTES)];
+    }
+
+    /**
+     * Retourne l'indice d'une position du fichier dans son segment.
+     *
+     * @param offset la position.
+     * @return l'indice dans le segment.
+     */
+    private int index(long offset) {
+        return (int) (offset % SEGMENT_BYTES);
+    }
+
+    /**
+     * Réduit un mouvement à ses 16 bits d'archive : cases de départ et d'arrivée, pièce de promotion.
+     *
+     * @param move le mouvement encodé (voir PackedMove).
+     * @return le mouvement sur 16 bits.
+     */
+    static int encodeMove(int move) {
+        return move & MOVE_MASK;
+    }
+
+    /**
+     * Reconstitue un mouvement complet à partir de ses 16 bits d'archive et de la position où il est joué :
+     * la pièce déplacée, la pièce prise et les indicateurs se déduisent de l'échiquier, sans générer de coups.
+     *
+     * @param board l'échiquier, dans la position où le mouvement est joué.
+     * @param code le mouvement sur 16 bits.
+     * @return le mouvement encodé (voir PackedMove).
+     * @throws IllegalArgumentException si la case de départ ne porte pas une pièce du camp au trait.
+     */
+    static int decodeMove(Board board, int code) {
+        int from = code & 63;
+        int to = (code >>> 6) & 63;
+        Piece piece = board.getPiece(from);
+        if (piece == null || piece.getColor() != board.getSideToMove()) {
+            throw new IllegalArgumentException("Mouvement d'archive invalide : " + (code & MOVE_MASK) + ".");
+        }
+        PieceType type = piece.getType();
+        Piece captured = board.getPiece(to);
+        int move;
+        if (captured != null) {
+            move = PackedMove.capture(from, to, type, captured.getType(), 0);
+        } else if (type == PieceType.PAWN && to == board.getEnPassantSquare()) {
+            move = PackedMove.capture(from, to, type, PieceType.PAWN, PackedMove.EN_PASSANT);
+        } else if (type == PieceType.PAWN && Math.abs(to - from) == 16) {
+            move = PackedMove.create(from, to, type, PackedMove.DOUBLE_PUSH);
+        } else if (type == PieceType.KING && Math.abs(to - from) == 2) {
+            move = PackedMove.create(from, to, type, PackedMove.CASTLING);
+        } else {
+            move = PackedMove.create(from, to, type, 0);
+        }
+        return move | (code & MOVE_MASK & ~0xFFF);
+    }
+
+    /**
+     * Écrit l'instantané d'une position.
+     *
+     * @param board l'échiquier.
+     * @param out le tampon de destination.
+     * @param index la position de l'instantané dans le tampon.
+     * @throws IllegalArgumentException si l'échiquier porte plus de 32 pièces.
+     */
+    static void writeSnapshot(Board board, ByteBuffer out, int index) {
+        long occupied = board.getOccupied();
+        if (Long.bitCount(occupied) > 32) {
+            throw new IllegalArgumentException("Trop de pièces pour un instantané : " + Long.bitCount(occupied) + ".");
+        }
+        out.putLong(index, occupied);
+        // Deux pièces par octet, dans l'ordre des cases occupées
+        for (int i = 0; i < 16; i++) {
+            out.put(index + 8 + i, (byte) 0);
+        }
+        int count = 0;
+        for (long squares = occupied; squares != 0L; squares &= squares - 1, count++) {
+            Piece piece = board.getPiece(Bitboards.firstSquare(squares));
+            int code = Bitboards.index(piece.getType(), piece.getColor());
+            int at = index + 8 + (count >>> 1);
+            out.put(at, (byte) (out.get(at) | (code << (4 * (count & 1)))));
+        }
+        int side = (board.getSideToMove() == Color.BLACK) ? 0x10 : 0;
+        out.put(index + 24, (byte) (side | board.getCastlingRights()));
+        out.put(index + 25, (byte) (board.getEnPassantSquare() + 1));
+        out.putShort(index + 26, (short) Math.min(board.getHalfmoveClock(), 0xFFFF));
+        out.putShort(index + 28, (short) Math.min(board.getFullmoveNumber(), 0xFFFF));
+    }
+
+    /**
+     * Charge l'instantané d'une position dans un échiquier, dont l'historique est effacé.
+     * Les pièces de l'échiquier sont réutilisées (voir Board.clearForReuse).
+     *
+     * @param data le tampon source.
+     * @param index la position de l'instantané dans le tampon.
+     * @param board l'échiquier à réutiliser.
+     * @throws IllegalArgumentException si l'instantané est corrompu.
+     */
+    static void readSnapshot(ByteBuffer data, int index, Board board) {
+        long occupied = data.getLong(index);
+        if (Long.bitCount(occupied) > 32) {
+            throw new IllegalArgumentException("Instantané corrompu.");
+        }
+        board.clearForReuse();
+        int count = 0;
+        for (long squares = occupied; squares != 0L; squares &= squares - 1, count++) {
+            int code = (data.get(index + 8 + (count >>> 1)) >>> (4 * (count & 1))) & 0xF;
+            if (code >= Bitboards.PIECE_BITBOARD_COUNT) {
+                throw new IllegalArgumentException("Instantané corrompu.");
+            }
+            board.placeReusedPiece(Bitboards.firstSquare(squares), TYPES[code % 6], COLORS[code / 6]);
+        }
+        int state = data.get(index + 24);
+        board.setState((state & 0x10) != 0 ? Color.BLACK : Color.WHITE, state & Board.ALL_CASTLING_RIGHTS,
+            (data.get(index + 25) & 0xFF) - 1, data.getShort(index + 26) & 0xFFFF,
+            Math.max(data.getShort(index + 28) & 0xFFFF, 1));
+    }
+
+    /**
+     * Convertit une base PGN en archive, puis mesure la taille obtenue et le temps d'accès à des demi-coups
+     * pris au hasard. Arguments : fichier PGN, archive à écrire, intervalle entre instantanés (facultatif).
+     *
+     * @param args les arguments de la ligne de commande.
+     * @throws IOException si un fichier ne peut pas être lu ou écrit.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage : GameArchive <parties.pgn> <archive.bin> [intervalle]");
+            return;
+        }
+        int interval = (args.length > 2) ? Integer.parseInt(args[2]) : GameArchiveWriter.DEFAULT_SNAPSHOT_INTERVAL;
+        long start = System.nanoTime();
+        long plies = 0;
+        PgnReader reader = new PgnReader(Path.of(args[0]));
+        PgnGame pgnGame = new PgnGame();
+        try (GameArchiveWriter writer = new GameArchiveWriter(Path.of(args[1]), interval)) {
+            while (reader.next(pgnGame)) {
+                writer.write(pgnGame);
+                plies += pgnGame.getMoveCount();
+            }
+        }
+        GameArchive archive = new GameArchive(Path.of(args[1]));
+        long bytes = Files.size(Path.of(args[1]));
+        System.out.println("Écriture : " + archive.getGameCount() + " parties, " + plies + " demi-coups en "
+            + (System.nanoTime() - start) / 1_000_000 + " ms");
+        System.out.println("Taille : " + bytes + " octets (" + bytes / Math.max(archive.getGameCount(), 1)
+            + " octets par partie)");
+        if (archive.getGameCount() == 0) {
+            return;
+        }
+
+        Random random = new Random(1);
+        Board board = new Board();
+        int lookups = 1_000_000;
+        start = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            int game = random.nextInt(archive.getGameCount());
+            archive.loadPosition(game, random.nextInt(archive.getPlyCount(game) + 1), board);
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.println("Accès à un demi-coup : " + nanos / lookups + " ns en moyenne");
+    }
+}
@@ -0,0 +1,180 @@
+package models;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * La classe GameArchiveWriter écrit des parties terminées dans une archive binaire compacte (voir GameArchive
+ * pour le format) : 2 octets par demi-coup, plus un instantané de la position à intervalles réguliers.
+ * Chaque partie est rejouée sur un échiquier interne pour calculer ses instantanés ; les mouvements ne sont
+ * pas vérifiés au-delà de la présence d'une pièce du camp au trait sur leur case de départ.
+ * L'enregistrement d'une partie est préparé dans un tampon réutilisé, puis écrit d'un seul bloc.
+ */
+public final class GameArchiveWriter implements Closeable {
+    /**
+     * Intervalle par défaut entre deux instantanés, en demi-coups.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 32;
+
+    private static final long START_KEY = new Board().getHashKey();
+
+    private final DataOutputStream out;
+    private final int snapshotInterval;
+    private final Board board;
+    private ByteBuffer record;
+    private int gameCount;
+
+    /**
+     * Constructeur de la classe GameArchiveWriter, avec l'intervalle par défaut entre deux instantanés.
+     *
+     * @param path le chemin de l'archive, remplacée si elle existe.
+     * @throws IOException si le fichier ne peut pas être créé.
+     */
+    public GameArchiveWriter(Path path) throws IOException {
+        this(path, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Constructeur de la classe GameArchiveWriter.
+     * Un intervalle court accélère l'accès à un demi-coup quelconque, au prix de 30 octets par instantané.
+     *
+     * @param path le chemin de l'archive, remplacée si elle existe.
+     * @param snapshotInterval le nombre de demi-coups entre deux instantanés, de 8 à 1024.
+     * @throws IOException si le fichier ne peut pas être créé.
+     * @throws IllegalArgumentException si l'intervalle est hors limites.
+     */
+    public GameArchiveWriter(Path path, int snapshotInterval) throws IOException {
+        if (snapshotInterval < GameArchive.MIN_SNAPSHOT_INTERVAL
+                || snapshotInterval > GameArchive.MAX_SNAPSHOT_INTERVAL) {
+            throw new IllegalArgumentException("Intervalle d'instantanés invalide : " + snapshotInterval + ".");
+        }
+        this.snapshotInterval = snapshotInterval;
+        this.board = new Board();
+        this.record = ByteBuffer.allocate(1024);
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        this.out.writeInt(GameArchive.MAGIC);
+        this.out.writeShort(GameArchive.VERSION);
+        this.out.writeShort(snapshotInterval);
+    }
+
+    /**
+     * Ajoute une partie à l'archive.
+     *
+     * @param start la position de départ de la partie, qui n'est pas modifiée.
+     * @param moves les mouvements de la partie (voir PackedMove).
+     * @param moveCount le nombre de demi-coups.
+     * @param result « 1-0 », « 0-1 », « 1/2-1/2 » ou « * ».
+     * @throws IOException si l'écriture échoue.
+     * @throws IllegalArgumentException si la partie ne peut pas être archivée.
+     */
+    public void write(Board start, int[] moves, int moveCount, String result) throws IOException {
+        // La position de départ est recopiée par son instantané, qui sert de toute façon à l'enregistrement
+        this.ensureCapacity(GameArchive.SNAPSHOT_BYTES);
+        GameArchive.writeSnapshot(start, this.record, 0);
+        GameArchive.readSnapshot(this.record, 0, this.board);
+        this.writeRecord(moves, moveCount, result);
+    }
+
+    /**
+     * Ajoute à l'archive une partie lue par un PgnReader. Les en-têtes ne sont pas conservés.
+     *
+     * @param game la partie.
+     * @throws IOException si l'écriture échoue.
+     * @throws IllegalArgumentException si la partie ne peut pas être archivée.
+     */
+    public void write(PgnGame game) throws IOException {
+        game.loadStartPosition(this.board);
+        this.writeRecord(game.getMoves(), game.getMoveCount(), game.getResult());
+    }
+
+    /**
+     * Retourne le nombre de parties écrites.
+     *
+     * @return le nombre de parties.
+     */
+    public int getGameCount() {
+        return this.gameCount;
+    }
+
+    /**
+     * Termine l'écriture de l'archive.
+     *
+     * @throws IOException si l'écriture échoue.
+     */
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+
+    /**
+     * Prépare puis écrit l'enregistrement d'une partie dont la position de départ est sur l'échiquier interne.
+     *
+     * @param moves les mouvements de la partie.
+     * @param moveCount le nombre de demi-coups.
+     * @param result le résultat de la partie.
+     * @throws IOException si l'écriture échoue.
+     * @throws IllegalArgumentException si la partie ne peut pas être archivée.
+     */
+    private void writeRecord(int[] moves, int moveCount, String result) throws IOException {
+        int resultCode = -1;
+        for (int i = 0; i < GameArchive.RESULTS.length; i++) {
+            if (GameArchive.RESULTS[i].equals(result)) {
+                resultCode = i;
+            }
+        }
+        if (resultCode < 0) {
+            throw new IllegalArgumentException("Résultat invalide : " + result + ".");
+        }
+        if (moveCount < 0 || moveCount > GameArchive.MAX_PLIES || moveCount > moves.length) {
+            throw new IllegalArgumentException("Nombre de demi-coups invalide : " + moveCount + ".");
+        }
+
+        boolean standard = this.board.getHashKey() == START_KEY && this.board.getHalfmoveClock() == 0
+            && this.board.getFullmoveNumber() == 1;
+        int movesStart = GameArchive.GAME_HEADER_BYTES + (standard ? 0 : GameArchive.SNAPSHOT_BYTES);
+        int snapshotsStart = movesStart + 2 * moveCount;
+        int size = snapshotsStart + (moveCount / this.snapshotInterval) * GameArchive.SNAPSHOT_BYTES;
+        this.ensureCapacity(size);
+
+        ByteBuffer record = this.record;
+        record.putInt(0, size - 4);
+        record.put(4, (byte) resultCode);
+        record.put(5, (byte) (standard ? GameArchive.STANDARD_START : 0));
+        record.putShort(6, (short) moveCount);
+        if (!standard) {
+            GameArchive.writeSnapshot(this.board, record, GameArchive.GAME_HEADER_BYTES);
+        }
+        for (int i = 0; i < moveCount; i++) {
+            int move = moves[i];
+            Piece piece = this.board.getPiece(PackedMove.from(move));
+            if (piece == null || piece.getColor() != this.board.getSideToMove()) {
+                throw new IllegalArgumentException("Mouvement invalide au demi-coup " + (i + 1) + " : "
+                    + PackedMove.toString(move) + ".");
+            }
+            record.putShort(movesStart + 2 * i, (short) GameArchive.encodeMove(move));
+            this.board.makeMove(move);
+            if ((i + 1) % this.snapshotInterval == 0) {
+                int snapshot = (i + 1) / this.snapshotInterval - 1;
+                GameArchive.writeSnapshot(this.board, record, snapshotsStart + snapshot * GameArchive.SNAPSHOT_BYTES);
+            }
+        }
+        this.out.write(record.array(), 0, size);
+        this.gameCount++;
+    }
+
+    /**
+     * Agrandit le tampon d'enregistrement si nécessaire.
+     *
+     * @param size la taille requise, en octets.
+     */
+    private void ensureCapacity(int size) {
+        if (this.record.capacity() < size) {
+            this.record = ByteBuffer.allocate(Math.max(size, 2 * this.record.capacity()));
+        }
+    }
+}
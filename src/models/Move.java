@@ -1,78 +1,130 @@
-package models;
-
-/**
- * La classe Move représente un mouvement dans une partie d'échecs.
- * Elle contient des informations sur la pièce déplacée, les positions de départ et d'arrivée,
- * la pièce capturée (si applicable), et si c'est le premier mouvement de la pièce.
- */
-public class Move {
-    private Piece piece;
-    private Piece capturedPiece;
-    private Position from;
-    private Position to;
-    private boolean isFirstMove;
-
-    /**
-     * Constructeur de la classe Move.
-     *
-     * @param piece la pièce déplacée.
-     * @param from la position de départ.
-     * @param to la position d'arrivée.
-     * @param capturedPiece la pièce capturée (si applicable).
-     */
-    public Move(Piece piece, Position from, Position to, Piece capturedPiece) {
-        this.piece = piece;
-        this.from = from;
-        this.to = to;
-        this.capturedPiece = capturedPiece;
-        this.isFirstMove = !piece.hasMoved();
-    }
-
-    /**
-     * Retourne la pièce déplacée.
-     *
-     * @return la pièce déplacée.
-     */
-    public Piece getPiece() { return this.piece; }
-
-    /**
-     * Retourne la pièce capturée (si applicable).
-     *
-     * @return la pièce capturée, ou null si aucune pièce n'a été capturée.
-     */
-    public Piece getCapturedPiece() { return this.capturedPiece; }
-
-
-    /**
-     * Retourne la position de départ.
-     *
-     * @return la position de départ.
-     */
-    public Position getFrom() { return this.from; }
-
-    /**
-     * Retourne la position d'arrivée.
-     *
-     * @return la position d'arrivée.
-     */
-    public Position getTo() { return this.to; }
-
-    /**
-     * Indique si c'est le premier mouvement de la pièce.
-     *
-     * @return true si c'est le premier mouvement de la pièce, false sinon.
-     */
-    public boolean isFirstMove() { return this.isFirstMove; }
-
-    /**
-     * Retourne une représentation sous forme de chaîne de caractères du mouvement.
-     *
-     * @return une représentation sous forme de chaîne de caractères du mouvement.
-     */
-    @Override
-    public String toString() {
-        return String.format("%s%s-%s%s",
-            this.piece.toString(), this.from.toString(),
-            this.capturedPiece != null ? "x" : "", this.to.toString());
-    }
-}
+package models;
+
+/**
+ * La classe Move représente un mouvement dans une partie d'échecs.
+ * Elle contient des informations sur la pièce déplacée, les positions de départ et d'arrivée,
+ * la pièce capturée (si applicable), et si c'est le premier mouvement de la pièce.
+ */
+public class Move {
+    private Piece piece;
+    private Piece capturedPiece;
+    private Position from;
+    private Position to;
+    private boolean isFirstMove;
+    private int previousCastlingRights;
+    private int previousEnPassantSquare;
+    private int previousHalfmoveClock;
+
+    /**
+     * Constructeur de la classe Move.
+     *
+     * @param piece la pièce déplacée.
+     * @param from la position de départ.
+     * @param to la position d'arrivée.
+     * @param capturedPiece la pièce capturée (si applicable).
+     */
+    public Move(Piece piece, Position from, Position to, Piece capturedPiece) {
+        this.piece = piece;
+        this.from = from;
+        this.to = to;
+        this.capturedPiece = capturedPiece;
+        this.isFirstMove = !piece.hasMoved();
+        this.previousEnPassantSquare = -1;
+    }
+
+    /**
+     * Constructeur de la classe Move mémorisant l'état de l'échiquier à restaurer lors de l'annulation.
+     *
+     * @param piece la pièce déplacée.
+     * @param from la position de départ.
+     * @param to la position d'arrivée.
+     * @param capturedPiece la pièce capturée (si applicable).
+     * @param previousCastlingRights les droits de roque avant le mouvement.
+     * @param previousEnPassantSquare la case de prise en passant avant le mouvement, ou -1.
+     * @param previousHalfmoveClock le compteur de la règle des cinquante coups avant le mouvement.
+     */
+    public Move(Piece piece, Position from, Position to, Piece capturedPiece,
+            int previousCastlingRights, int previousEnPassantSquare, int previousHalfmoveClock) {
+        this(piece, from, to, capturedPiece);
+        this.previousCastlingRights = previousCastlingRights;
+        this.previousEnPassantSquare = previousEnPassantSquare;
+        this.previousHalfmoveClock = previousHalfmoveClock;
+    }
+
+    /**
+     * Retourne la pièce déplacée.
+     *
+     * @return la pièce déplacée.
+     */
+    public Piece getPiece() { return this.piece; }
+
+    /**
+     * Retourne la pièce capturée (si applicable).
+     *
+     * @return la pièce capturée, ou null si aucune pièce n'a été capturée.
+     */
+    public Piece getCapturedPiece() { return this.capturedPiece; }
+
+
+    /**
+     * Retourne la position de départ.
+     *
+     * @return la position de départ.
+     */
+    public Position getFrom() { return this.from; }
+
+    /**
+     * Retourne la position d'arrivée.
+     *
+     * @return la position d'arrivée.
+     */
+    public Position getTo() { return this.to; }
+
+    /**
+     * Indique si c'est le premier mouvement de la pièce.
+     *
+     * @return true si c'est le premier mouvement de la pièce, false sinon.
+     */
+    public boolean isFirstMove() { return this.isFirstMove; }
+
+    /**
+     * Indique si le mouvement est une prise en passant, c'est-à-dire si la pièce capturée
+     * ne se trouvait pas sur la case d'arrivée.
+     *
+     * @return true si le mouvement est une prise en passant, false sinon.
+     */
+    public boolean isEnPassant() {
+        return this.capturedPiece != null && !this.capturedPiece.getPosition().equals(this.to);
+    }
+
+    /**
+     * Retourne les droits de roque de l'échiquier avant le mouvement.
+     *
+     * @return les droits de roque avant le mouvement.
+     */
+    public int getPreviousCastlingRights() { return this.previousCastlingRights; }
+
+    /**
+     * Retourne la case de prise en passant de l'échiquier avant le mouvement.
+     *
+     * @return l'indice de la case de prise en passant, ou -1 s'il n'y en avait pas.
+     */
+    public int getPreviousEnPassantSquare() { return this.previousEnPassantSquare; }
+
+    /**
+     * Retourne le compteur de la règle des cinquante coups avant le mouvement.
+     *
+     * @return le nombre de demi-coups depuis la dernière prise ou le dernier mouvement de pion.
+     */
+    public int getPreviousHalfmoveClock() { return this.previousHalfmoveClock; }
+
+    /**
+     * Retourne une représentation sous forme de chaîne de caractères du mouvement.
+     *
+     * @return une représentation sous forme de chaîne de caractères du mouvement.
+     */
+    @Override
+    public String toString() {
+        return this.piece.toString() + this.from + "-" + (this.capturedPiece != null ? "x" : "") + this.to;
+    }
+}
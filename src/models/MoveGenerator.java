@@ -0,0 +1,414 @@
+package models;
+
+import strategies.AttackTables;
+
+/**
+ * La classe MoveGenerator génère les mouvements du camp au trait à partir des bitboards de l'échiquier.
+ * Les mouvements sont encodés en entiers (voir PackedMove) et ajoutés dans une MoveList fournie par l'appelant,
+ * sans aucune allocation. Un mouvement pseudo-légal respecte les règles de déplacement des pièces
+ * mais peut laisser le roi du camp au trait en échec ; un mouvement légal ne le peut pas.
+ * La génération légale calcule une seule fois les pièces qui donnent échec et les pièces clouées,
+ * puis filtre les mouvements par masques, sans jamais modifier l'échiquier.
+ * La génération des captures se limite aux prises et aux promotions, sans payer les mouvements tranquilles :
+ * c'est elle qu'utilise la recherche de quiescence.
+ */
+public final class MoveGenerator {
+    private static final long WHITE_KINGSIDE_PATH = 0x60L;
+    private static final long WHITE_QUEENSIDE_PATH = 0x0EL;
+    private static final long BLACK_KINGSIDE_PATH = WHITE_KINGSIDE_PATH << 56;
+    private static final long BLACK_QUEENSIDE_PATH = WHITE_QUEENSIDE_PATH << 56;
+    private static final long RANK_3 = Bitboards.RANK_1 << 16;
+    private static final long RANK_6 = Bitboards.RANK_1 << 40;
+    private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+    private static final long ALL_SQUARES = -1L;
+
+    /**
+     * Constructeur privé : classe utilitaire non instanciable.
+     */
+    private MoveGenerator() {
+    }
+
+    /**
+     * Génère tous les mouvements pseudo-légaux du camp au trait.
+     *
+     * @param board l'échiquier.
+     * @param moves la liste à remplir ; elle est vidée au préalable.
+     */
+    public static void generatePseudoLegalMoves(Board board, MoveList moves) {
+        moves.clear();
+        Color us = board.getSideToMove();
+        long targets = ~board.getOccupancy(us);
+
+        generatePawnMoves(board, us, ALL_SQUARES, 0L, -1, false, ALL_SQUARES, moves);
+        generatePieceMoves(board, us, PieceType.KNIGHT, targets, 0L, -1, moves);
+        generatePieceMoves(board, us, PieceType.BISHOP, targets, 0L, -1, moves);
+        generatePieceMoves(board, us, PieceType.ROOK, targets, 0L, -1, moves);
+        generatePieceMoves(board, us, PieceType.QUEEN, targets, 0L, -1, moves);
+        generatePieceMoves(board, us, PieceType.KING, targets, 0L, -1, moves);
+        Color them = (us == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        int king = board.getKingSquare(us);
+        if (king >= 0 && board.getAttackers(king, them, board.getOccupied()) == 0L) {
+            generateCastlingMoves(board, us, ALL_SQUARES, moves);
+        }
+    }
+
+    /**
+     * Génère tous les mouvements légaux du camp au trait.
+     * Les échecs et clouages sont calculés une fois pour la position : en double échec seul le roi bouge,
+     * en échec simple les autres pièces doivent capturer l'attaquant ou s'interposer, une pièce clouée
+     * ne quitte pas la ligne de son clouage, et le roi ne va jamais sur une case attaquée.
+     *
+     * @param board l'échiquier.
+     * @param moves la liste à remplir ; elle est vidée au préalable.
+     */
+    public static void generateLegalMoves(Board board, MoveList moves) {
+        generateLegal(board, false, ALL_SQUARES, moves);
+    }
+
+    /**
+     * Génère les mouvements légaux du camp au trait qui arrivent sur une case donnée ;
+     * pour un roque, la case d'arrivée est celle du roi.
+     * Les cases d'arrivée sont filtrées par masque avant toute vérification de légalité, ce qui rend
+     * cette génération bien moins coûteuse que la génération complète lorsqu'il s'agit de retrouver
+     * un mouvement noté en notation algébrique.
+     *
+     * @param board l'échiquier.
+     * @param square la case d'arrivée.
+     * @param moves la liste à remplir ; elle est vidée au préalable.
+     */
+    public static void generateLegalMovesTo(Board board, int square, MoveList moves) {
+        generateLegal(board, false, Bitboards.bit(square), moves);
+    }
+
+    /**
+     * Génère les captures légales et les promotions légales du camp au trait, y compris les prises en passant.
+     * Les mouvements tranquilles et les roques ne sont pas générés.
+     *
+     * @param board l'échiquier.
+     * @param moves la liste à remplir ; elle est vidée au préalable.
+     */
+    public static void generateLegalCaptures(Board board, MoveList moves) {
+        generateLegal(board, true, ALL_SQUARES, moves);
+    }
+
+    /**
+     * Génère les mouvements légaux du camp au trait, éventuellement limités aux captures et aux promotions.
+     *
+     * @param board l'échiquier.
+     * @param capturesOnly true pour ne générer que les captures et les promotions.
+     * @param area les cases d'arrivée demandées.
+     * @param moves la liste à remplir ; elle est vidée au préalable.
+     */
+    private static void generateLegal(Board board, boolean capturesOnly, long area, MoveList moves) {
+        moves.clear();
+        Color us = board.getSideToMove();
+        Color them = (us == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        int king = board.getKingSquare(us);
+        long own = board.getOccupancy(us);
+        long occupied = board.getOccupied();
+        long checkers = board.getAttackers(king, them, occupied);
+        // Cases d'arrivée des pièces autres que les pions : toutes les cases non amies, ou les seules pièces adverses
+        long destinations = (capturesOnly ? board.getOccupancy(them) : ~own) & area;
+
+        // Le roi ne peut aller que sur des cases non attaquées, en tenant compte des rayons qui le traversent
+        long kingTargets = AttackTables.kingAttacks(king) & destinations;
+        long occupiedWithoutKing = occupied ^ Bitboards.bit(king);
+        while (kingTargets != 0L) {
+            int to = Bitboards.firstSquare(kingTargets);
+            kingTargets &= kingTargets - 1;
+            if (board.getAttackers(to, them, occupiedWithoutKing) == 0L) {
+                Piece captured = board.getPiece(to);
+                moves.add(captured == null
+                    ? PackedMove.create(king, to, PieceType.KING, 0)
+                    : PackedMove.capture(king, to, PieceType.KING, captured.getType(), 0));
+            }
+        }
+
+        // En double échec, seul le roi peut bouger
+        if ((checkers & (checkers - 1)) != 0L) {
+            return;
+        }
+
+        // En échec simple, il faut capturer l'attaquant ou s'interposer
+        long checkMask = ALL_SQUARES;
+        if (checkers != 0L) {
+            int checker = Bitboards.firstSquare(checkers);
+            checkMask = checkers | AttackTables.between(king, checker);
+        }
+
+        long pinned = pinnedPieces(board, us, them, king);
+        long targets = destinations & checkMask;
+        generatePawnMoves(board, us, checkMask, pinned, king, capturesOnly, area, moves);
+        generatePieceMoves(board, us, PieceType.KNIGHT, targets, pinned, king, moves);
+        generatePieceMoves(board, us, PieceType.BISHOP, targets, pinned, king, moves);
+        generatePieceMoves(board, us, PieceType.ROOK, targets, pinned, king, moves);
+        generatePieceMoves(board, us, PieceType.QUEEN, targets, pinned, king, moves);
+        if (checkers == 0L && !capturesOnly) {
+            generateCastlingMoves(board, us, area, moves);
+        }
+    }
+
+    /**
+     * Calcule les pièces du camp au trait clouées sur leur roi par une pièce glissante adverse.
+     *
+     * @param board l'échiquier.
+     * @param us la couleur du camp au trait.
+     * @param them la couleur adverse.
+     * @param king la case du roi du camp au trait.
+     * @return le bitboard des pièces clouées.
+     */
+    private static long pinnedPieces(Board board, Color us, Color them, int king) {
+        long theirs = board.getOccupancy(them);
+        long queens = board.getBitboard(PieceType.QUEEN, them);
+        // Pièces glissantes adverses qui attaqueraient le roi si nos pièces étaient transparentes
+        long snipers = (AttackTables.rookAttacks(king, theirs) & (board.getBitboard(PieceType.ROOK, them) | queens))
+            | (AttackTables.bishopAttacks(king, theirs) & (board.getBitboard(PieceType.BISHOP, them) | queens));
+        long occupied = board.getOccupied();
+        long pinned = 0L;
+        while (snipers != 0L) {
+            int sniper = Bitboards.firstSquare(snipers);
+            snipers &= snipers - 1;
+            long blockers = AttackTables.between(king, sniper) & occupied;
+            if (blockers != 0L && (blockers & (blockers - 1)) == 0L) {
+                pinned |= blockers & board.getOccupancy(us);
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Indique si un mouvement respecte le masque d'échec et, pour une pièce clouée, la ligne de son clouage.
+     *
+     * @param from la case de départ.
+     * @param to la case d'arrivée.
+     * @param checkMask les cases d'arrivée qui parent l'échec éventuel.
+     * @param pinned le bitboard des pièces clouées.
+     * @param king la case du roi, ou -1 en génération pseudo-légale.
+     * @return true si le mouvement est autorisé, false sinon.
+     */
+    private static boolean isAllowed(int from, int to, long checkMask, long pinned, int king) {
+        long target = Bitboards.bit(to);
+        return (checkMask & target) != 0L
+            && ((pinned & Bitboards.bit(from)) == 0L || (AttackTables.line(king, from) & target) != 0L);
+    }
+
+    /**
+     * Génère les mouvements des pions : poussées simples et doubles, captures, prises en passant et promotions.
+     *
+     * @param board l'échiquier.
+     * @param us la couleur du camp au trait.
+     * @param checkMask les cases d'arrivée autorisées par un échec éventuel.
+     * @param pinned le bitboard des pièces clouées.
+     * @param king la case du roi, ou -1 en génération pseudo-légale.
+     * @param capturesOnly true pour ne générer, parmi les poussées, que les promotions.
+     * @param area les cases d'arrivée demandées.
+     * @param moves la liste à compléter.
+     */
+    private static void generatePawnMoves(Board board, Color us, long checkMask, long pinned, int king,
+            boolean capturesOnly, long area, MoveList moves) {
+        boolean white = us == Color.WHITE;
+        long pawns = board.getBitboard(PieceType.PAWN, us);
+        long empty = ~board.getOccupied();
+        long enemies = board.getOccupancy(white ? Color.BLACK : Color.WHITE) & area;
+        long promotionRank = white ? Bitboards.RANK_8 : Bitboards.RANK_1;
+        int forward = white ? 8 : -8;
+
+        // Poussées d'une et de deux cases ; seules les promotions sont gardées en génération des captures
+        long singles = (white ? pawns << 8 : pawns >>> 8) & empty;
+        long doubles = (white ? (singles & RANK_3) << 8 : (singles & RANK_6) >>> 8) & empty & area;
+        singles &= area;
+        if (capturesOnly) {
+            singles &= promotionRank;
+            doubles = 0L;
+        }
+        addPawnMoves(board, singles, forward, promotionRank, 0, checkMask, pinned, king, moves);
+        while (doubles != 0L) {
+            int to = Bitboards.firstSquare(doubles);
+            doubles &= doubles - 1;
+            if (isAllowed(to - 2 * forward, to, checkMask, pinned, king)) {
+                moves.add(PackedMove.create(to - 2 * forward, to, PieceType.PAWN, PackedMove.DOUBLE_PUSH));
+            }
+        }
+
+        // Captures vers chacune des deux diagonales
+        long westCaptures = (white ? (pawns & ~Bitboards.FILE_A) << 7 : (pawns & ~Bitboards.FILE_A) >>> 9) & enemies;
+        long eastCaptures = (white ? (pawns & ~Bitboards.FILE_H) << 9 : (pawns & ~Bitboards.FILE_H) >>> 7) & enemies;
+        addPawnMoves(board, westCaptures, white ? 7 : -9, promotionRank, PackedMove.CAPTURE, checkMask, pinned, king,
+            moves);
+        addPawnMoves(board, eastCaptures, white ? 9 : -7, promotionRank, PackedMove.CAPTURE, checkMask, pinned, king,
+            moves);
+
+        // Prise en passant
+        int enPassant = board.getEnPassantSquare();
+        if (enPassant >= 0 && (area & Bitboards.bit(enPassant)) != 0L) {
+            long attackers = AttackTables.pawnAttacks(white ? Color.BLACK : Color.WHITE, enPassant) & pawns;
+            while (attackers != 0L) {
+                int from = Bitboards.firstSquare(attackers);
+                attackers &= attackers - 1;
+                if (king < 0 || isLegalEnPassant(board, us, from, enPassant, king)) {
+                    moves.add(PackedMove.capture(from, enPassant, PieceType.PAWN, PieceType.PAWN, PackedMove.EN_PASSANT));
+                }
+            }
+        }
+    }
+
+    /**
+     * Vérifie qu'une prise en passant ne laisse pas le roi en échec.
+     * Les deux pions quittant la même rangée, le test simule l'occupation après la prise,
+     * ce qui couvre les clouages horizontaux qu'un simple masque ne détecte pas.
+     *
+     * @param board l'échiquier.
+     * @param us la couleur du camp au trait.
+     * @param from la case du pion qui prend.
+     * @param to la case de prise en passant.
+     * @param king la case du roi du camp au trait.
+     * @return true si la prise en passant est légale, false sinon.
+     */
+    private static boolean isLegalEnPassant(Board board, Color us, int from, int to, int king) {
+        int capturedSquare = Bitboards.square(Bitboards.rowOf(from), Bitboards.columnOf(to));
+        long occupied = (board.getOccupied() ^ Bitboards.bit(from) ^ Bitboards.bit(capturedSquare)) | Bitboards.bit(to);
+        Color them = (us == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        return (board.getAttackers(king, them, occupied) & ~Bitboards.bit(capturedSquare)) == 0L;
+    }
+
+    /**
+     * Ajoute les mouvements de pions dont les cases d'arrivée sont données, en développant les promotions.
+     *
+     * @param board l'échiquier.
+     * @param destinations le bitboard des cases d'arrivée.
+     * @param offset le décalage entre case de départ et case d'arrivée.
+     * @param promotionRank le bitboard de la rangée de promotion.
+     * @param flags PackedMove.CAPTURE pour des captures, 0 pour des poussées.
+     * @param checkMask les cases d'arrivée autorisées par un échec éventuel.
+     * @param pinned le bitboard des pièces clouées.
+     * @param king la case du roi, ou -1 en génération pseudo-légale.
+     * @param moves la liste à compléter.
+     */
+    private static void addPawnMoves(Board board, long destinations, int offset, long promotionRank, int flags,
+            long checkMask, long pinned, int king, MoveList moves) {
+        while (destinations != 0L) {
+            int to = Bitboards.firstSquare(destinations);
+            destinations &= destinations - 1;
+            int from = to - offset;
+            if (!isAllowed(from, to, checkMask, pinned, king)) {
+                continue;
+            }
+            int move = (flags == 0)
+                ? PackedMove.create(from, to, PieceType.PAWN, 0)
+                : PackedMove.capture(from, to, PieceType.PAWN, board.getPiece(to).getType(), 0);
+            if ((promotionRank & Bitboards.bit(to)) != 0L) {
+                for (PieceType promotion : PROMOTIONS) {
+                    moves.add(PackedMove.withPromotion(move, promotion));
+                }
+            } else {
+                moves.add(move);
+            }
+        }
+    }
+
+    /**
+     * Génère les mouvements des pièces d'un type donné vers les cases cibles.
+     *
+     * @param board l'échiquier.
+     * @param us la couleur du camp au trait.
+     * @param type le type de pièce (tout sauf le pion).
+     * @param targets le bitboard des cases d'arrivée autorisées.
+     * @param pinned le bitboard des pièces clouées.
+     * @param king la case du roi, ou -1 en génération pseudo-légale.
+     * @param moves la liste à compléter.
+     */
+    private static void generatePieceMoves(Board board, Color us, PieceType type, long targets, long pinned, int king,
+            MoveList moves) {
+        long pieces = board.getBitboard(type, us);
+        long occupied = board.getOccupied();
+        while (pieces != 0L) {
+            int from = Bitboards.firstSquare(pieces);
+            pieces &= pieces - 1;
+            long destinations = attacks(type, from, occupied) & targets;
+            // Une pièce clouée ne peut se déplacer que sur la ligne de son clouage
+            if ((pinned & Bitboards.bit(from)) != 0L) {
+                destinations &= AttackTables.line(king, from);
+            }
+            while (destinations != 0L) {
+                int to = Bitboards.firstSquare(destinations);
+                destinations &= destinations - 1;
+                Piece captured = board.getPiece(to);
+                moves.add(captured == null
+                    ? PackedMove.create(from, to, type, 0)
+                    : PackedMove.capture(from, to, type, captured.getType(), 0));
+            }
+        }
+    }
+
+    /**
+     * Génère les roques autorisés par les droits de roque lorsque le chemin entre le roi et la tour est libre
+     * et que le roi ne traverse ni n'atteint une case attaquée.
+     * L'absence d'échec sur la case de départ du roi est vérifiée par l'appelant : même en génération
+     * pseudo-légale, ces conditions ne pourraient pas être contrôlées après coup en jouant le roque.
+     *
+     * @param board l'échiquier.
+     * @param us la couleur du camp au trait.
+     * @param area les cases d'arrivée du roi demandées.
+     * @param moves la liste à compléter.
+     */
+    private static void generateCastlingMoves(Board board, Color us, long area, MoveList moves) {
+        int rights = board.getCastlingRights();
+        long occupied = board.getOccupied();
+        if (us == Color.WHITE) {
+            if ((rights & Board.WHITE_KINGSIDE) != 0 && (area & Bitboards.bit(6)) != 0L
+                    && (occupied & WHITE_KINGSIDE_PATH) == 0L
+                    && isSafePassage(board, Color.BLACK, 5, 6)) {
+                moves.add(PackedMove.create(4, 6, PieceType.KING, PackedMove.CASTLING));
+            }
+            if ((rights & Board.WHITE_QUEENSIDE) != 0 && (area & Bitboards.bit(2)) != 0L
+                    && (occupied & WHITE_QUEENSIDE_PATH) == 0L
+                    && isSafePassage(board, Color.BLACK, 3, 2)) {
+                moves.add(PackedMove.create(4, 2, PieceType.KING, PackedMove.CASTLING));
+            }
+        } else {
+            if ((rights & Board.BLACK_KINGSIDE) != 0 && (area & Bitboards.bit(62)) != 0L
+                    && (occupied & BLACK_KINGSIDE_PATH) == 0L
+                    && isSafePassage(board, Color.WHITE, 61, 62)) {
+                moves.add(PackedMove.create(60, 62, PieceType.KING, PackedMove.CASTLING));
+            }
+            if ((rights & Board.BLACK_QUEENSIDE) != 0 && (area & Bitboards.bit(58)) != 0L
+                    && (occupied & BLACK_QUEENSIDE_PATH) == 0L
+                    && isSafePassage(board, Color.WHITE, 59, 58)) {
+                moves.add(PackedMove.create(60, 58, PieceType.KING, PackedMove.CASTLING));
+            }
+        }
+    }
+
+    /**
+     * Vérifie que les deux cases parcourues par le roi pendant un roque ne sont pas attaquées.
+     *
+     * @param board l'échiquier.
+     * @param them la couleur adverse.
+     * @param passed la case traversée par le roi.
+     * @param destination la case d'arrivée du roi.
+     * @return true si aucune des deux cases n'est attaquée, false sinon.
+     */
+    private static boolean isSafePassage(Board board, Color them, int passed, int destination) {
+        long occupied = board.getOccupied();
+        return board.getAttackers(passed, them, occupied) == 0L && board.getAttackers(destination, them, occupied) == 0L;
+    }
+
+    /**
+     * Retourne les cases attaquées par une pièce autre qu'un pion.
+     *
+     * @param type le type de la pièce.
+     * @param square la case de la pièce.
+     * @param occupied le bitboard des cases occupées.
+     * @return le bitboard des cases attaquées.
+     */
+    static long attacks(PieceType type, int square, long occupied) {
+        return switch (type) {
+            case KNIGHT -> AttackTables.knightAttacks(square);
+            case BISHOP -> AttackTables.bishopAttacks(square, occupied);
+            case ROOK -> AttackTables.rookAttacks(square, occupied);
+            case QUEEN -> AttackTables.queenAttacks(square, occupied);
+            case KING -> AttackTables.kingAttacks(square);
+            case PAWN -> throw new IllegalArgumentException("Pawn attacks depend on color");
+        };
+    }
+}
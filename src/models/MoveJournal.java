@@ -0,0 +1,518 @@
+package models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * La classe MoveJournal consigne les modifications des parties en cours dans un journal en ajout seul,
+ * afin de les reconstruire après un arrêt brutal du processus.
+ * Chaque opération acceptée par une partie (début, coup, annulation, promotion, chargement d'une position, fin)
+ * forme un enregistrement : l'identifiant de la partie (8 octets), le type (1 octet), deux octets d'arguments,
+ * la longueur d'une charge utile (1 octet), la charge utile puis une somme de contrôle CRC32 (4 octets).
+ * Un coup occupe ainsi 16 octets.
+ * Les enregistrements sont ajoutés en mémoire sous un verrou, puis un fil dédié les écrit par FileChannel
+ * et les force sur le disque une fois par fenêtre de durabilité, pour toutes les parties à la fois
+ * (validation groupée) : le nombre de synchronisations ne dépend pas du nombre de coups.
+ * Un enregistrement est durable lorsque getDurableSequence atteint le numéro rendu à son ajout ;
+ * awaitDurable permet d'attendre ce moment avant de confirmer le coup.
+ * À l'ouverture, le journal est relu : un enregistrement incomplet ou corrompu en fin de fichier,
+ * trace d'un arrêt pendant une écriture, est ignoré, les parties terminées sont oubliées, et le fichier est
+ * réécrit avec les seuls enregistrements des parties à reprendre.
+ */
+public final class MoveJournal implements AutoCloseable {
+    // Types d'enregistrements
+    static final int START = 0;
+    static final int MOVE = 1;
+    static final int UNDO = 2;
+    static final int PROMOTION = 3;
+    static final int POSITION = 4;
+    static final int END = 5;
+
+    // Taille de l'en-tête (identifiant, type, arguments, longueur) et de la somme de contrôle
+    private static final int HEADER_BYTES = 12;
+    private static final int CHECKSUM_BYTES = 4;
+    private static final int MAX_PAYLOAD_BYTES = 255;
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private final FileChannel channel;
+    private final long windowNanos;
+    private final Map<Long, Game> recoveredGames;
+    private final ReentrantLock lock;
+    // Signalée au fil d'écriture lorsqu'un enregistrement est ajouté, et aux fils en attente après chaque écriture
+    private final Condition appended;
+    private final Condition flushed;
+    private final CRC32 checksum;
+    private final Thread writer;
+    private ByteBuffer pending;
+    private ByteBuffer writing;
+    private long appendedSequence;
+    private volatile long durableSequence;
+    private volatile long flushCount;
+    private volatile IOException failure;
+    private boolean closed;
+    private boolean stopped;
+
+    /**
+     * Constructeur de la classe MoveJournal : poursuit un journal déjà relu et compacté.
+     *
+     * @param channel le canal du journal, ouvert en ajout.
+     * @param windowMillis la fenêtre de durabilité.
+     * @param recoveredGames les parties reconstruites.
+     * @throws IOException si la taille du journal ne peut pas être lue.
+     */
+    private MoveJournal(FileChannel channel, long windowMillis, Map<Long, Game> recoveredGames) throws IOException {
+        this.channel = channel;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.recoveredGames = Collections.unmodifiableMap(recoveredGames);
+        this.lock = new ReentrantLock();
+        this.appended = this.lock.newCondition();
+        this.flushed = this.lock.newCondition();
+        this.checksum = new CRC32();
+        this.pending = ByteBuffer.allocate(1 << 16);
+        this.writing = ByteBuffer.allocate(1 << 16);
+        this.appendedSequence = channel.size();
+        this.durableSequence = this.appendedSequence;
+        this.writer = new Thread(this::writeLoop, "move-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Ouvre un journal, en le créant s'il n'existe pas, et reconstruit les parties qu'il contient.
+     *
+     * @param path le chemin du journal.
+     * @param windowMillis la fenêtre de durabilité : le délai maximal, en millisecondes, pendant lequel
+     *                     un enregistrement peut rester en mémoire avant d'être forcé sur le disque.
+     * @return le journal, prêt à recevoir de nouveaux enregistrements.
+     * @throws IOException si le journal ne peut pas être lu ou réécrit.
+     * @throws IllegalArgumentException si la fenêtre est négative.
+     * @throws IllegalStateException si une opération consignée ne peut pas être rejouée.
+     */
+    public static MoveJournal open(Path path, long windowMillis) throws IOException {
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException("Fenêtre de durabilité invalide : " + windowMillis + ".");
+        }
+        ByteBuffer data = ByteBuffer.allocate(0);
+        if (Files.exists(path)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Journal trop volumineux : " + path + ".");
+                }
+                // Lu dans le tas plutôt que projeté : sous Windows, une projection encore active empêcherait
+                // de remplacer le fichier par sa version compactée
+                data = readFully(channel, (int) channel.size());
+            }
+        }
+
+        // Première passe : fin des enregistrements valides et parties terminées
+        CRC32 checksum = new CRC32();
+        Set<Long> ended = new HashSet<Long>();
+        int end = 0;
+        int length;
+        while ((length = recordLength(data, end, checksum)) > 0) {
+            if (data.get(end + 8) == END) {
+                ended.add(data.getLong(end));
+            }
+            end += length;
+        }
+
+        // Seconde passe : réécriture et relecture des enregistrements des parties à reprendre
+        Map<Long, Game> games = new LinkedHashMap<Long, Game>();
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            for (int offset = 0; offset < end; offset += length) {
+                // Les enregistrements ont été validés par la première passe
+                length = HEADER_BYTES + (data.get(offset + 11) & 0xFF) + CHECKSUM_BYTES;
+                if (ended.contains(data.getLong(offset))) {
+                    continue;
+                }
+                replay(data, offset, games);
+                if (buffer.remaining() < length) {
+                    writeFully(out, buffer.flip());
+                    buffer.clear();
+                }
+                buffer.put(data.slice(offset, length));
+            }
+            writeFully(out, buffer.flip());
+            out.force(true);
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new MoveJournal(channel, windowMillis, games);
+    }
+
+    /**
+     * Lit un canal dans un tampon du tas, jusqu'à la taille donnée ou la fin du fichier.
+     *
+     * @param channel le canal.
+     * @param size le nombre d'octets à lire.
+     * @return le tampon, prêt à être lu.
+     * @throws IOException si la lecture échoue.
+     */
+    private static ByteBuffer readFully(FileChannel channel, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            continue;
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Écrit tout le contenu d'un tampon dans un canal.
+     *
+     * @param channel le canal.
+     * @param buffer le tampon, prêt à être lu.
+     * @throws IOException si l'écriture échoue.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Retourne la longueur d'un enregistrement complet et intact.
+     *
+     * @param data le contenu du journal.
+     * @param offset le début de l'enregistrement.
+     * @param checksum le calcul de somme de contrôle à réutiliser.
+     * @return la longueur, ou 0 si l'enregistrement est absent, incomplet ou corrompu.
+     */
+    private static int recordLength(ByteBuffer data, int offset, CRC32 checksum) {
+        if (data.limit() - offset < HEADER_BYTES + CHECKSUM_BYTES) {
+            return 0;
+        }
+        int length = HEADER_BYTES + (data.get(offset + 11) & 0xFF) + CHECKSUM_BYTES;
+        if (data.limit() - offset < length) {
+            return 0;
+        }
+        checksum.reset();
+        checksum.update(data.slice(offset, length - CHECKSUM_BYTES));
+        return ((int) checksum.getValue() == data.getInt(offset + length - CHECKSUM_BYTES)) ? length : 0;
+    }
+
+    /**
+     * Rejoue un enregistrement sur la partie qu'il concerne.
+     *
+     * @param data le contenu du journal.
+     * @param offset le début de l'enregistrement.
+     * @param games les parties en cours de reconstruction, par identifiant.
+     * @throws IllegalStateException si l'opération ne peut pas être rejouée.
+     */
+    private static void replay(ByteBuffer data, int offset, Map<Long, Game> games) {
+        long id = data.getLong(offset);
+        int type = data.get(offset + 8);
+        int first = data.get(offset + 9) & 0xFF;
+        int second = data.get(offset + 10) & 0xFF;
+        if (type == START) {
+            games.put(id, new Game());
+            return;
+        }
+        Game game = games.get(id);
+        if (game == null) {
+            throw new IllegalStateException("Journal incohérent : partie " + id + " inconnue à l'octet " + offset + ".");
+        }
+        switch (type) {
+            case MOVE:
+                if (!game.makeMove(Position.fromSquare(first), Position.fromSquare(second))) {
+                    throw new IllegalStateException("Journal incohérent : coup illégal à l'octet " + offset + ".");
+                }
+                break;
+            case UNDO:
+                game.undoMove();
+                break;
+            case PROMOTION:
+                game.promotePawn(Position.fromSquare(first), TYPES[second]);
+                break;
+            case POSITION:
+                byte[] fen = new byte[data.get(offset + 11) & 0xFF];
+                data.get(offset + HEADER_BYTES, fen);
+                game.loadPosition(new String(fen, StandardCharsets.US_ASCII));
+                break;
+            default:
+                throw new IllegalStateException("Journal incohérent : type " + type + " à l'octet " + offset + ".");
+        }
+    }
+
+    /**
+     * Retourne les parties reconstruites à l'ouverture du journal, dans l'ordre de leur création.
+     * Elles ne sont pas rattachées au journal (voir Game.setJournal).
+     *
+     * @return les parties, par identifiant.
+     */
+    public Map<Long, Game> getRecoveredGames() {
+        return this.recoveredGames;
+    }
+
+    /**
+     * Consigne le début d'une partie à la position initiale.
+     *
+     * @param id l'identifiant de la partie.
+     * @return le numéro de séquence de l'enregistrement.
+     */
+    public long logStart(long id) {
+        return this.append(id, START, 0, 0, null);
+    }
+
+    /**
+     * Consigne un coup accepté.
+     *
+     * @param id l'identifiant de la partie.
+     * @param from la case de départ.
+     * @param to la case d'arrivée.
+     * @return le numéro de séquence de l'enregistrement.
+     */
+    long logMove(long id, int from, int to) {
+        return this.append(id, MOVE, from, to, null);
+    }
+
+    /**
+     * Consigne l'annulation du dernier coup.
+     *
+     * @param id l'identifiant de la partie.
+     * @return le numéro de séquence de l'enregistrement.
+     */
+    long logUndo(long id) {
+        return this.append(id, UNDO, 0, 0, null);
+    }
+
+    /**
+     * Consigne la promotion d'un pion.
+     *
+     * @param id l'identifiant de la partie.
+     * @param square la case du pion.
+     * @param type le type de la nouvelle pièce.
+     * @return le numéro de séquence de l'enregistrement.
+     */
+    long logPromotion(long id, int square, PieceType type) {
+        return this.append(id, PROMOTION, square, type.ordinal(), null);
+    }
+
+    /**
+     * Consigne le chargement d'une position.
+     *
+     * @param id l'identifiant de la partie.
+     * @param fen la position en notation FEN.
+     * @return le numéro de séquence de l'enregistrement.
+     */
+    long logPosition(long id, String fen) {
+        return this.append(id, POSITION, 0, 0, fen.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Consigne la fin d'une partie, qui ne sera pas reconstruite.
+     *
+     * @param id l'identifiant de la partie.
+     * @return le numéro de séquence de l'enregistrement.
+     */
+    public long logEnd(long id) {
+        return this.append(id, END, 0, 0, null);
+    }
+
+    /**
+     * Ajoute un enregistrement au tampon en attente d'écriture.
+     *
+     * @param id l'identifiant de la partie.
+     * @param type le type de l'enregistrement.
+     * @param first le premier argument.
+     * @param second le second argument.
+     * @param payload la charge utile, ou null.
+     * @return le numéro de séquence de l'enregistrement : la position de sa fin dans le journal.
+     * @throws IllegalArgumentException si la charge utile est trop longue.
+     * @throws IllegalStateException si le journal est fermé ou si une écriture a échoué.
+     */
+    private long append(long id, int type, int first, int second, byte[] payload) {
+        int payloadLength = (payload == null) ? 0 : payload.length;
+        if (payloadLength > MAX_PAYLOAD_BYTES) {
+            throw new IllegalArgumentException("Enregistrement trop long : " + payloadLength + " octets.");
+        }
+        int length = HEADER_BYTES + payloadLength + CHECKSUM_BYTES;
+        this.lock.lock();
+        try {
+            this.checkUsable();
+            if (this.pending.remaining() < length) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * this.pending.capacity(), length));
+                this.pending.flip();
+                this.pending = larger.put(this.pending);
+            }
+            ByteBuffer buffer = this.pending;
+            int start = buffer.position();
+            buffer.putLong(id).put((byte) type).put((byte) first).put((byte) second).put((byte) payloadLength);
+            if (payload != null) {
+                buffer.put(payload);
+            }
+            this.checksum.reset();
+            this.checksum.update(buffer.array(), start, length - CHECKSUM_BYTES);
+            buffer.putInt((int) this.checksum.getValue());
+            this.appendedSequence += length;
+            // Le fil d'écriture n'attend un signal que lorsque le tampon était vide
+            if (start == 0) {
+                this.appended.signal();
+            }
+            return this.appendedSequence;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Attend que tous les enregistrements jusqu'à un numéro de séquence soient forcés sur le disque.
+     *
+     * @param sequence le numéro de séquence rendu par l'ajout d'un enregistrement.
+     * @throws InterruptedException si le fil est interrompu pendant l'attente.
+     * @throws IllegalStateException si une écriture a échoué ou si le journal est fermé avant l'échéance.
+     */
+    public void awaitDurable(long sequence) throws InterruptedException {
+        if (this.durableSequence >= sequence) {
+            return;
+        }
+        this.lock.lock();
+        try {
+            while (this.durableSequence < sequence) {
+                if (this.failure != null) {
+                    throw new IllegalStateException("Écriture du journal impossible.", this.failure);
+                }
+                if (this.stopped) {
+                    throw new IllegalStateException("Le journal est fermé.");
+                }
+                this.flushed.await();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Retourne le numéro de séquence jusqu'auquel le journal est forcé sur le disque.
+     *
+     * @return le numéro de séquence durable.
+     */
+    public long getDurableSequence() {
+        return this.durableSequence;
+    }
+
+    /**
+     * Retourne le nombre de synchronisations du journal sur le disque depuis son ouverture.
+     *
+     * @return le nombre de synchronisations.
+     */
+    public long getFlushCount() {
+        return this.flushCount;
+    }
+
+    /**
+     * Écrit et force sur le disque les enregistrements en attente, puis ferme le journal.
+     *
+     * @throws IOException si la dernière écriture ou la fermeture échoue.
+     */
+    @Override
+    public void close() throws IOException {
+        this.lock.lock();
+        try {
+            this.closed = true;
+            this.appended.signal();
+        } finally {
+            this.lock.unlock();
+        }
+        try {
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.channel.close();
+        if (this.failure != null) {
+            throw this.failure;
+        }
+    }
+
+    /**
+     * Vérifie que le journal peut encore recevoir des enregistrements. Le verrou doit être détenu.
+     *
+     * @throws IllegalStateException si le journal est fermé ou si une écriture a échoué.
+     */
+    private void checkUsable() {
+        if (this.failure != null) {
+            throw new IllegalStateException("Écriture du journal impossible.", this.failure);
+        }
+        if (this.closed) {
+            throw new IllegalStateException("Le journal est fermé.");
+        }
+    }
+
+    /**
+     * Boucle du fil d'écriture : attend un enregistrement, laisse passer la fenêtre de durabilité pour que
+     * d'autres s'y ajoutent, puis écrit et force sur le disque tout le tampon en une fois.
+     */
+    private void writeLoop() {
+        try {
+            while (true) {
+                long sequence;
+                this.lock.lock();
+                try {
+                    while (!this.closed && this.pending.position() == 0) {
+                        this.appended.awaitUninterruptibly();
+                    }
+                    if (this.pending.position() == 0) {
+                        return;
+                    }
+                    // Les enregistrements de la fenêtre rejoignent le même lot
+                    long deadline = System.nanoTime() + this.windowNanos;
+                    long remaining;
+                    while (!this.closed && (remaining = deadline - System.nanoTime()) > 0) {
+                        this.appended.awaitNanos(remaining);
+                    }
+                    ByteBuffer full = this.pending;
+                    this.pending = this.writing;
+                    this.writing = full;
+                    sequence = this.appendedSequence;
+                } finally {
+                    this.lock.unlock();
+                }
+
+                // L'écriture a lieu hors du verrou : les parties continuent d'ajouter dans l'autre tampon
+                writeFully(this.channel, this.writing.flip());
+                this.channel.force(false);
+                this.writing.clear();
+
+                this.lock.lock();
+                try {
+                    this.durableSequence = sequence;
+                    this.flushCount++;
+                    this.flushed.signalAll();
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            this.failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.lock.lock();
+            try {
+                this.stopped = true;
+                this.flushed.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+}
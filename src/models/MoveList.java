@@ -0,0 +1,95 @@
+package models;
+
+/**
+ * La classe MoveList est une liste de mouvements encodés (voir PackedMove) adossée à un tableau d'entiers.
+ * Elle est destinée à être réutilisée d'une génération à l'autre afin d'éviter toute allocation.
+ */
+public class MoveList {
+    /**
+     * Capacité d'une liste, supérieure au nombre de mouvements possibles dans une position.
+     */
+    public static final int MAX_MOVES = 256;
+
+    private final int[] moves;
+    private int size;
+
+    /**
+     * Constructeur de la classe MoveList.
+     * Crée une liste vide de capacité MAX_MOVES.
+     */
+    public MoveList() {
+        this.moves = new int[MAX_MOVES];
+        this.size = 0;
+    }
+
+    /**
+     * Ajoute un mouvement à la fin de la liste.
+     *
+     * @param move le mouvement encodé à ajouter.
+     */
+    public void add(int move) {
+        this.moves[this.size++] = move;
+    }
+
+    /**
+     * Retourne le mouvement à un indice donné.
+     *
+     * @param index l'indice du mouvement.
+     * @return le mouvement encodé.
+     */
+    public int get(int index) {
+        return this.moves[index];
+    }
+
+    /**
+     * Remplace le mouvement à un indice donné.
+     *
+     * @param index l'indice du mouvement.
+     * @param move le nouveau mouvement encodé.
+     */
+    public void set(int index, int move) {
+        this.moves[index] = move;
+    }
+
+    /**
+     * Retourne le nombre de mouvements de la liste.
+     *
+     * @return le nombre de mouvements.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Indique si la liste est vide.
+     *
+     * @return true si la liste ne contient aucun mouvement, false sinon.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Vide la liste sans libérer son tableau.
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * Recherche le premier mouvement allant d'une case à une autre.
+     *
+     * @param from la case de départ.
+     * @param to la case d'arrivée.
+     * @return le mouvement encodé trouvé, ou PackedMove.NONE.
+     */
+    public int find(int from, int to) {
+        for (int i = 0; i < this.size; i++) {
+            int move = this.moves[i];
+            if (PackedMove.from(move) == from && PackedMove.to(move) == to) {
+                return move;
+            }
+        }
+        return PackedMove.NONE;
+    }
+}
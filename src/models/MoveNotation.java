@@ -0,0 +1,312 @@
+package models;
+
+import java.util.Arrays;
+
+/**
+ * La classe MoveNotation conserve les coups d'une partie sous forme de mouvements encodés (voir PackedMove)
+ * et ne les rend en notation algébrique abrégée (SAN) qu'à la demande : levée d'ambiguïté, prise, promotion,
+ * roque, suffixes d'échec « + » et de mat « # ».
+ * Enregistrer un coup ne coûte qu'une écriture dans un tableau d'entiers. Le rendu rejoue les coups sur
+ * un échiquier interne, laissé sur le dernier demi-coup rendu, si bien que chaque coup n'est rendu qu'une fois
+ * et que les chaînes obtenues sont mises en cache jusqu'à l'annulation du coup.
+ */
+public final class MoveNotation {
+    private static final String[] PIECE_LETTERS = {"", "R", "N", "B", "Q", "K"};
+    private static final String[] PROMOTION_SUFFIXES = {"", "=R", "=N", "=B", "=Q", ""};
+
+    private final MoveList buffer;
+    private BoardSnapshot start;
+    private int[] moves;
+    private String[] rendered;
+    private int size;
+    private int renderedCount;
+    private Board scratch;
+    private int scratchPly;
+
+    /**
+     * Constructeur de la classe MoveNotation, depuis la position initiale.
+     */
+    public MoveNotation() {
+        this.buffer = new MoveList();
+        this.moves = new int[64];
+        this.rendered = new String[64];
+        this.reset(new Board());
+    }
+
+    /**
+     * Efface les coups enregistrés et fixe la position de départ de la notation.
+     *
+     * @param board l'échiquier dans sa position de départ, qui n'est pas modifié.
+     */
+    public void reset(Board board) {
+        this.start = BoardSnapshot.of(board);
+        Arrays.fill(this.rendered, 0, this.size, null);
+        this.size = 0;
+        this.renderedCount = 0;
+        this.scratch = null;
+        this.scratchPly = 0;
+    }
+
+    /**
+     * Enregistre un coup, joué depuis la position atteinte par les coups déjà enregistrés.
+     *
+     * @param move le mouvement encodé, tel que le produit MoveGenerator.
+     */
+    public void add(int move) {
+        if (this.size == this.moves.length) {
+            this.moves = Arrays.copyOf(this.moves, 2 * this.size);
+            this.rendered = Arrays.copyOf(this.rendered, 2 * this.size);
+        }
+        this.moves[this.size++] = move;
+    }
+
+    /**
+     * Retire le dernier coup enregistré, s'il y en a un.
+     */
+    public void removeLast() {
+        if (this.size > 0) {
+            this.truncate(this.size - 1);
+            this.rendered[--this.size] = null;
+        }
+    }
+
+    /**
+     * Fixe la pièce de promotion du dernier coup, si c'est un mouvement de pion vers la case donnée :
+     * la promotion est choisie après le coup lui-même.
+     *
+     * @param square la case du pion promu.
+     * @param promotion le type de la pièce de promotion.
+     */
+    public void setLastPromotion(int square, PieceType promotion) {
+        if (this.size == 0) {
+            return;
+        }
+        int last = this.moves[this.size - 1];
+        if (PackedMove.piece(last) == PieceType.PAWN && PackedMove.to(last) == square) {
+            this.truncate(this.size - 1);
+            this.moves[this.size - 1] = PackedMove.withPromotion(PackedMove.withoutPromotion(last), promotion);
+            this.rendered[this.size - 1] = null;
+        }
+    }
+
+    /**
+     * Retourne le nombre de demi-coups enregistrés.
+     *
+     * @return le nombre de demi-coups.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Vérifie si aucun coup n'est enregistré.
+     *
+     * @return true si la notation est vide, false sinon.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Retourne le mouvement encodé d'un demi-coup.
+     *
+     * @param ply l'indice du demi-coup, à partir de 0.
+     * @return le mouvement encodé.
+     */
+    public int getMove(int ply) {
+        this.checkPly(ply);
+        return this.moves[ply];
+    }
+
+    /**
+     * Retourne un demi-coup en notation SAN, rendu au premier appel puis mis en cache.
+     *
+     * @param ply l'indice du demi-coup, à partir de 0.
+     * @return le coup en notation SAN, par exemple « Nbd7 », « exd5 », « e8=Q+ » ou « O-O-O ».
+     */
+    public String getSan(int ply) {
+        this.checkPly(ply);
+        if (ply >= this.renderedCount) {
+            this.renderUpTo(ply + 1);
+        }
+        return this.rendered[ply];
+    }
+
+    /**
+     * Retourne le numéro de coup d'un demi-coup, compté depuis la position de départ.
+     *
+     * @param ply l'indice du demi-coup, à partir de 0.
+     * @return le numéro du coup.
+     */
+    public int getMoveNumber(int ply) {
+        int offset = (this.start.getSideToMove() == Color.BLACK) ? 1 : 0;
+        return this.start.getFullmoveNumber() + (ply + offset) / 2;
+    }
+
+    /**
+     * Ajoute la notation des coups à un tampon, un coup complet par ligne, par exemple « 12. Nf3 Nc6 ».
+     * Une partie commencée par les noirs débute par « 1... ».
+     *
+     * @param sb le tampon à compléter.
+     * @return le tampon.
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        this.renderUpTo(this.size);
+        boolean blackFirst = this.start.getSideToMove() == Color.BLACK;
+        for (int ply = 0; ply < this.size; ply++) {
+            boolean white = ((ply & 1) == 0) != blackFirst;
+            if (white || ply == 0) {
+                if (ply > 0) {
+                    sb.append('\n');
+                }
+                sb.append(this.getMoveNumber(ply)).append(white ? ". " : "... ");
+            } else {
+                sb.append(' ');
+            }
+            sb.append(this.rendered[ply]);
+        }
+        return sb;
+    }
+
+    /**
+     * Retourne la notation des coups, un coup complet par ligne.
+     *
+     * @return la notation des coups.
+     */
+    @Override
+    public String toString() {
+        return this.appendTo(new StringBuilder(8 * this.size)).toString();
+    }
+
+    /**
+     * Rend en notation SAN un mouvement légal dans la position d'un échiquier.
+     *
+     * @param board l'échiquier, rendu dans son état d'origine.
+     * @param move le mouvement encodé, tel que le produit MoveGenerator.
+     * @return le coup en notation SAN.
+     */
+    public static String toSan(Board board, int move) {
+        String san = render(board, move, new MoveList());
+        board.undoLastMove();
+        return san;
+    }
+
+    /**
+     * Rend les demi-coups qui ne l'ont pas encore été, jusqu'à l'indice donné exclu.
+     *
+     * @param end l'indice du premier demi-coup à ne pas rendre.
+     */
+    private void renderUpTo(int end) {
+        if (this.scratch == null) {
+            this.scratch = this.start.toBoard();
+            this.scratchPly = 0;
+        }
+        // Les coups rendus forment toujours un préfixe, et l'échiquier interne n'est jamais en avance sur lui
+        while (this.scratchPly < this.renderedCount) {
+            this.scratch.makeMove(this.moves[this.scratchPly++]);
+        }
+        while (this.renderedCount < end) {
+            this.rendered[this.renderedCount] = render(this.scratch, this.moves[this.renderedCount], this.buffer);
+            this.renderedCount++;
+            this.scratchPly++;
+        }
+    }
+
+    /**
+     * Invalide le rendu à partir d'un demi-coup qui va être retiré ou modifié,
+     * et recule l'échiquier interne avant ce demi-coup.
+     *
+     * @param ply l'indice du demi-coup.
+     */
+    private void truncate(int ply) {
+        this.renderedCount = Math.min(this.renderedCount, ply);
+        while (this.scratch != null && this.scratchPly > ply) {
+            this.scratch.undoLastMove();
+            this.scratchPly--;
+        }
+    }
+
+    /**
+     * Rend un mouvement en notation SAN, puis le joue sur l'échiquier pour déterminer l'échec et le mat.
+     *
+     * @param board l'échiquier, laissé après le mouvement.
+     * @param move le mouvement encodé.
+     * @param buffer la liste de mouvements réutilisée.
+     * @return le coup en notation SAN.
+     */
+    private static String render(Board board, int move, MoveList buffer) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        PieceType type = PackedMove.piece(move);
+        String prefix;
+        if (PackedMove.isCastling(move)) {
+            prefix = (to > from) ? "O-O" : "O-O-O";
+        } else if (type == PieceType.PAWN) {
+            String target = Position.fromSquare(to).toString();
+            if (PackedMove.isCapture(move)) {
+                target = Position.fromSquare(from).toString().charAt(0) + "x" + target;
+            }
+            PieceType promotion = PackedMove.promotion(move);
+            prefix = (promotion != null) ? target + PROMOTION_SUFFIXES[promotion.ordinal()] : target;
+        } else {
+            prefix = PIECE_LETTERS[type.ordinal()] + disambiguation(board, move, buffer)
+                + (PackedMove.isCapture(move) ? "x" : "") + Position.fromSquare(to).toString();
+        }
+
+        board.makeMove(move);
+        Color us = board.getSideToMove();
+        Color them = (us == Color.WHITE) ? Color.BLACK : Color.WHITE;
+        if (board.getAttackers(board.getKingSquare(us), them, board.getOccupied()) == 0L) {
+            return prefix;
+        }
+        MoveGenerator.generateLegalMoves(board, buffer);
+        return prefix + (buffer.isEmpty() ? "#" : "+");
+    }
+
+    /**
+     * Retourne la levée d'ambiguïté d'un mouvement de pièce : rien si aucune autre pièce du même type
+     * ne peut atteindre la case, sinon la colonne de départ, la rangée, ou les deux.
+     *
+     * @param board l'échiquier, avant le mouvement.
+     * @param move le mouvement encodé.
+     * @param buffer la liste de mouvements réutilisée.
+     * @return la levée d'ambiguïté, éventuellement vide.
+     */
+    private static String disambiguation(Board board, int move, MoveList buffer) {
+        int from = PackedMove.from(move);
+        PieceType type = PackedMove.piece(move);
+        MoveGenerator.generateLegalMovesTo(board, PackedMove.to(move), buffer);
+        boolean ambiguous = false;
+        boolean sameColumn = false;
+        boolean sameRow = false;
+        for (int i = 0; i < buffer.size(); i++) {
+            int other = buffer.get(i);
+            int otherFrom = PackedMove.from(other);
+            if (otherFrom != from && PackedMove.piece(other) == type) {
+                ambiguous = true;
+                sameColumn |= Bitboards.columnOf(otherFrom) == Bitboards.columnOf(from);
+                sameRow |= Bitboards.rowOf(otherFrom) == Bitboards.rowOf(from);
+            }
+        }
+        if (!ambiguous) {
+            return "";
+        }
+        String name = Position.fromSquare(from).toString();
+        if (!sameColumn) {
+            return name.substring(0, 1);
+        }
+        return sameRow ? name : name.substring(1);
+    }
+
+    /**
+     * Vérifie l'indice d'un demi-coup.
+     *
+     * @param ply l'indice du demi-coup.
+     * @throws IllegalArgumentException si l'indice est hors limites.
+     */
+    private void checkPly(int ply) {
+        if (ply < 0 || ply >= this.size) {
+            throw new IllegalArgumentException("Demi-coup invalide : " + ply + ".");
+        }
+    }
+}
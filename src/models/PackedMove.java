@@ -0,0 +1,207 @@
+package models;
+
+/**
+ * La classe PackedMove définit l'encodage compact d'un mouvement dans un entier de 32 bits.
+ * Elle permet de générer et de manipuler des mouvements sans allouer d'objet Move ni de Position.
+ *
+ * <ul>
+ * <li>bits 0 à 5 : case de départ ;</li>
+ * <li>bits 6 à 11 : case d'arrivée ;</li>
+ * <li>bits 12 à 14 : type de la pièce de promotion (ordinal de PieceType, 0 si aucune) ;</li>
+ * <li>bits 15 à 18 : indicateurs (capture, double pas, prise en passant, roque) ;</li>
+ * <li>bits 19 à 21 : type de la pièce déplacée ;</li>
+ * <li>bits 22 à 24 : type de la pièce capturée (significatif seulement pour une capture).</li>
+ * </ul>
+ */
+public final class PackedMove {
+    /**
+     * Valeur représentant l'absence de mouvement.
+     */
+    public static final int NONE = 0;
+
+    /**
+     * Indicateur de capture (prise en passant comprise).
+     */
+    public static final int CAPTURE = 1 << 15;
+
+    /**
+     * Indicateur de double pas d'un pion.
+     */
+    public static final int DOUBLE_PUSH = 1 << 16;
+
+    /**
+     * Indicateur de prise en passant.
+     */
+    public static final int EN_PASSANT = 1 << 17;
+
+    /**
+     * Indicateur de roque.
+     */
+    public static final int CASTLING = 1 << 18;
+
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int PIECE_SHIFT = 19;
+    private static final int CAPTURED_SHIFT = 22;
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final char[] PROMOTION_SYMBOLS = {' ', 'r', 'n', 'b', 'q', ' '};
+
+    /**
+     * Constructeur privé : classe utilitaire non instanciable.
+     */
+    private PackedMove() {
+    }
+
+    /**
+     * Encode un mouvement sans capture ni promotion.
+     *
+     * @param from la case de départ.
+     * @param to la case d'arrivée.
+     * @param piece le type de la pièce déplacée.
+     * @param flags les indicateurs du mouvement.
+     * @return le mouvement encodé.
+     */
+    public static int create(int from, int to, PieceType piece, int flags) {
+        return from | (to << 6) | flags | (piece.ordinal() << PIECE_SHIFT);
+    }
+
+    /**
+     * Encode une capture.
+     *
+     * @param from la case de départ.
+     * @param to la case d'arrivée.
+     * @param piece le type de la pièce déplacée.
+     * @param captured le type de la pièce capturée.
+     * @param flags les indicateurs supplémentaires du mouvement.
+     * @return le mouvement encodé.
+     */
+    public static int capture(int from, int to, PieceType piece, PieceType captured, int flags) {
+        return create(from, to, piece, flags | CAPTURE) | (captured.ordinal() << CAPTURED_SHIFT);
+    }
+
+    /**
+     * Ajoute une pièce de promotion à un mouvement de pion.
+     *
+     * @param move le mouvement encodé.
+     * @param promotion le type de la pièce de promotion.
+     * @return le mouvement encodé avec sa promotion.
+     */
+    public static int withPromotion(int move, PieceType promotion) {
+        return move | (promotion.ordinal() << PROMOTION_SHIFT);
+    }
+
+    /**
+     * Retire la pièce de promotion d'un mouvement.
+     *
+     * @param move le mouvement encodé.
+     * @return le mouvement encodé sans promotion.
+     */
+    public static int withoutPromotion(int move) {
+        return move & ~(7 << PROMOTION_SHIFT);
+    }
+
+    /**
+     * Retourne la case de départ d'un mouvement.
+     *
+     * @param move le mouvement encodé.
+     * @return l'indice de la case de départ.
+     */
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    /**
+     * Retourne la case d'arrivée d'un mouvement.
+     *
+     * @param move le mouvement encodé.
+     * @return l'indice de la case d'arrivée.
+     */
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * Retourne le type de la pièce de promotion.
+     *
+     * @param move le mouvement encodé.
+     * @return le type de la pièce de promotion, ou null si le mouvement n'est pas une promotion.
+     */
+    public static PieceType promotion(int move) {
+        int ordinal = (move >>> PROMOTION_SHIFT) & 0x7;
+        return ordinal == 0 ? null : TYPES[ordinal];
+    }
+
+    /**
+     * Retourne le type de la pièce déplacée.
+     *
+     * @param move le mouvement encodé.
+     * @return le type de la pièce déplacée.
+     */
+    public static PieceType piece(int move) {
+        return TYPES[(move >>> PIECE_SHIFT) & 0x7];
+    }
+
+    /**
+     * Retourne le type de la pièce capturée.
+     *
+     * @param move le mouvement encodé.
+     * @return le type de la pièce capturée, ou null si le mouvement n'est pas une capture.
+     */
+    public static PieceType captured(int move) {
+        return isCapture(move) ? TYPES[(move >>> CAPTURED_SHIFT) & 0x7] : null;
+    }
+
+    /**
+     * Indique si le mouvement est une capture.
+     *
+     * @param move le mouvement encodé.
+     * @return true si le mouvement capture une pièce, false sinon.
+     */
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * Indique si le mouvement est une promotion.
+     *
+     * @param move le mouvement encodé.
+     * @return true si le mouvement est une promotion, false sinon.
+     */
+    public static boolean isPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & 0x7) != 0;
+    }
+
+    /**
+     * Indique si le mouvement est une prise en passant.
+     *
+     * @param move le mouvement encodé.
+     * @return true si le mouvement est une prise en passant, false sinon.
+     */
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    /**
+     * Indique si le mouvement est un roque.
+     *
+     * @param move le mouvement encodé.
+     * @return true si le mouvement est un roque, false sinon.
+     */
+    public static boolean isCastling(int move) {
+        return (move & CASTLING) != 0;
+    }
+
+    /**
+     * Retourne la notation en coordonnées du mouvement (par exemple « e2e4 » ou « e7e8q »).
+     *
+     * @param move le mouvement encodé.
+     * @return la notation du mouvement.
+     */
+    public static String toString(int move) {
+        StringBuilder sb = new StringBuilder(5);
+        sb.append(Position.fromSquare(from(move))).append(Position.fromSquare(to(move)));
+        if (isPromotion(move)) {
+            sb.append(PROMOTION_SYMBOLS[promotion(move).ordinal()]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,243 @@
+package models;
+
+import java.util.Arrays;
+
+/**
+ * La classe PgnGame porte la dernière partie lue par un PgnReader : ses en-têtes, ses mouvements encodés
+ * (voir PackedMove), son résultat et l'échiquier dans la position finale.
+ * Un même objet est réutilisé d'une partie à l'autre : il ne doit pas être conservé au-delà de la partie
+ * en cours, et les valeurs des en-têtes ne sont converties en chaînes qu'à la demande.
+ */
+public final class PgnGame {
+    private final Board board;
+    private final MoveList legalMoves;
+    private int[] moves;
+    private int moveCount;
+    private CharSequence text;
+    private int[] tags;
+    private int tagCount;
+    private String result;
+    private long offset;
+
+    /**
+     * Constructeur de la classe PgnGame.
+     */
+    public PgnGame() {
+        this.board = new Board();
+        this.legalMoves = new MoveList();
+        this.moves = new int[256];
+        this.tags = new int[4 * 16];
+    }
+
+    /**
+     * Prépare l'objet pour une nouvelle partie.
+     *
+     * @param text le texte d'où sont lus les en-têtes.
+     * @param offset la position du début de la partie dans le fichier.
+     */
+    void reset(CharSequence text, long offset) {
+        this.text = text;
+        this.offset = offset;
+        this.moveCount = 0;
+        this.tagCount = 0;
+        this.result = "*";
+    }
+
+    /**
+     * Ajoute un en-tête, mémorisé par les positions de son nom et de sa valeur dans le texte.
+     *
+     * @param nameStart le début du nom.
+     * @param nameEnd la fin du nom.
+     * @param valueStart le début de la valeur, sans guillemet.
+     * @param valueEnd la fin de la valeur, sans guillemet.
+     */
+    void addTag(int nameStart, int nameEnd, int valueStart, int valueEnd) {
+        if (4 * (this.tagCount + 1) > this.tags.length) {
+            this.tags = Arrays.copyOf(this.tags, this.tags.length * 2);
+        }
+        int i = 4 * this.tagCount++;
+        this.tags[i] = nameStart;
+        this.tags[i + 1] = nameEnd;
+        this.tags[i + 2] = valueStart;
+        this.tags[i + 3] = valueEnd;
+    }
+
+    /**
+     * Ajoute un mouvement déjà joué sur l'échiquier.
+     *
+     * @param move le mouvement encodé.
+     */
+    void addMove(int move) {
+        if (this.moveCount == this.moves.length) {
+            this.moves = Arrays.copyOf(this.moves, this.moves.length * 2);
+        }
+        this.moves[this.moveCount++] = move;
+    }
+
+    /**
+     * Définit le résultat de la partie.
+     *
+     * @param result « 1-0 », « 0-1 », « 1/2-1/2 » ou « * ».
+     */
+    void setResult(String result) {
+        this.result = result;
+    }
+
+    /**
+     * Indique l'indice de l'en-tête portant un nom, sans créer de chaîne.
+     *
+     * @param name le nom de l'en-tête, par exemple « White ».
+     * @return l'indice de l'en-tête, ou -1 s'il est absent.
+     */
+    int findTag(String name) {
+        for (int tag = 0; tag < this.tagCount; tag++) {
+            int start = this.tags[4 * tag];
+            int end = this.tags[4 * tag + 1];
+            if (end - start != name.length()) {
+                continue;
+            }
+            int i = 0;
+            while (i < name.length() && this.text.charAt(start + i) == name.charAt(i)) {
+                i++;
+            }
+            if (i == name.length()) {
+                return tag;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retourne le début de la valeur d'un en-tête dans le texte.
+     *
+     * @param tag l'indice de l'en-tête.
+     * @return la position du premier caractère de la valeur.
+     */
+    int getTagValueStart(int tag) {
+        return this.tags[4 * tag + 2];
+    }
+
+    /**
+     * Retourne la fin de la valeur d'un en-tête dans le texte.
+     *
+     * @param tag l'indice de l'en-tête.
+     * @return la position qui suit le dernier caractère de la valeur.
+     */
+    int getTagValueEnd(int tag) {
+        return this.tags[4 * tag + 3];
+    }
+
+    /**
+     * Retourne la valeur d'un en-tête, par exemple celle de « White » ou de « Date ».
+     *
+     * @param name le nom de l'en-tête.
+     * @return la valeur, les échappements « \" » et « \\ » étant résolus, ou null si l'en-tête est absent.
+     */
+    public String getTag(String name) {
+        int tag = this.findTag(name);
+        if (tag < 0) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = this.getTagValueStart(tag); i < this.getTagValueEnd(tag); i++) {
+            char c = this.text.charAt(i);
+            if (c == '\\' && i + 1 < this.getTagValueEnd(tag)) {
+                c = this.text.charAt(++i);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Charge dans un échiquier la position de départ de la partie : celle de l'en-tête « FEN » s'il est présent,
+     * la position initiale sinon.
+     *
+     * @param board l'échiquier à réutiliser.
+     * @throws IllegalArgumentException si l'en-tête « FEN » n'est pas une position valide.
+     */
+    void loadStartPosition(Board board) {
+        int fen = this.findTag("FEN");
+        if (fen >= 0) {
+            Fen.parse(board, this.text, this.getTagValueStart(fen), this.getTagValueEnd(fen), true);
+        } else {
+            Fen.load(board, Fen.START_POSITION);
+        }
+    }
+
+    /**
+     * Retourne le tableau des mouvements, dont seuls les getMoveCount() premiers sont significatifs.
+     *
+     * @return le tableau interne, à ne pas modifier.
+     */
+    int[] getMoves() {
+        return this.moves;
+    }
+
+    /**
+     * Retourne la liste de travail utilisée pour retrouver les mouvements légaux pendant la lecture.
+     *
+     * @return la liste de travail.
+     */
+    MoveList getLegalMoves() {
+        return this.legalMoves;
+    }
+
+    /**
+     * Retourne le nombre d'en-têtes de la partie.
+     *
+     * @return le nombre d'en-têtes.
+     */
+    public int getTagCount() {
+        return this.tagCount;
+    }
+
+    /**
+     * Retourne l'échiquier, dans la position atteinte à la fin de la partie.
+     *
+     * @return l'échiquier, réutilisé pour la partie suivante.
+     */
+    public Board getBoard() {
+        return this.board;
+    }
+
+    /**
+     * Retourne le nombre de demi-coups de la partie.
+     *
+     * @return le nombre de mouvements.
+     */
+    public int getMoveCount() {
+        return this.moveCount;
+    }
+
+    /**
+     * Retourne un mouvement de la partie.
+     *
+     * @param index l'indice du demi-coup, à partir de 0.
+     * @return le mouvement encodé (voir PackedMove).
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= this.moveCount) {
+            throw new IndexOutOfBoundsException("Indice de mouvement hors limites : " + index);
+        }
+        return this.moves[index];
+    }
+
+    /**
+     * Retourne le résultat de la partie.
+     *
+     * @return « 1-0 », « 0-1 », « 1/2-1/2 » ou « * » si la partie n'est pas terminée ou que son résultat manque.
+     */
+    public String getResult() {
+        return this.result;
+    }
+
+    /**
+     * Retourne la position du début de la partie dans le fichier.
+     *
+     * @return le décalage en octets.
+     */
+    public long getOffset() {
+        return this.offset;
+    }
+}
@@ -0,0 +1,602 @@
+package models;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LongSummaryStatistics;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * La classe PgnReader lit une base de parties au format PGN et rejoue chaque partie sur un échiquier.
+ * Le fichier est projeté en mémoire par segments d'un gigaoctet, si bien que sa taille n'est limitée ni par le tas
+ * ni par celle d'un tampon. Les lexèmes sont lus directement dans les octets du fichier, sans créer de chaîne ;
+ * les en-têtes ne sont convertis qu'à la demande (voir PgnGame).
+ * Chaque coup en notation algébrique abrégée (SAN) est retrouvé parmi les mouvements légaux de la position
+ * puis joué directement sur l'échiquier : la relecture ne passe pas par Game, dont les observateurs
+ * et le calcul du statut n'ont pas d'utilité ici.
+ * Les commentaires, variantes, annotations numériques et suffixes « ! » et « ? » sont ignorés.
+ * Les parties peuvent être lues une à une par next, ou sous forme de Stream découpable en parallèle.
+ */
+public class PgnReader {
+    // Taille d'un segment projeté ; chaque segment déborde sur le suivant pour contenir sa dernière partie
+    private static final long SEGMENT_BYTES = 1L << 30;
+    // Taille maximale d'une partie, et donc du débordement d'un segment
+    private static final int MAX_GAME_BYTES = 1 << 22;
+    // Taille en dessous de laquelle une portion du fichier n'est plus découpée entre les fils
+    private static final long MIN_SPLIT_BYTES = 1L << 20;
+    // Taille moyenne supposée d'une partie, pour estimer le nombre de parties d'une portion
+    private static final int AVERAGE_GAME_BYTES = 1024;
+    // Résultats possibles d'une partie
+    private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", "*"};
+
+    private final long size;
+    private final ByteText[] segments;
+    private long position;
+
+    /**
+     * Constructeur de la classe PgnReader : projette le fichier en mémoire, sans le lire.
+     *
+     * @param path le chemin du fichier PGN.
+     * @throws IOException si le fichier ne peut pas être ouvert ou projeté.
+     */
+    public PgnReader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.size = channel.size();
+            this.segments = new ByteText[(int) ((this.size + SEGMENT_BYTES - 1) / SEGMENT_BYTES)];
+            for (int i = 0; i < this.segments.length; i++) {
+                long start = i * SEGMENT_BYTES;
+                long length = Math.min(this.size - start, SEGMENT_BYTES + MAX_GAME_BYTES);
+                this.segments[i] = new ByteText(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+            }
+        }
+        this.position = 0;
+    }
+
+    /**
+     * Lit et rejoue la partie suivante du fichier.
+     *
+     * @param game l'objet à réutiliser pour la partie.
+     * @return true si une partie a été lue, false à la fin du fichier.
+     * @throws IllegalArgumentException si la partie est mal formée ou contient un coup illégal ou ambigu.
+     */
+    public boolean next(PgnGame game) {
+        long end = this.readGame(this.position, this.size, game);
+        this.position = (end < 0) ? this.size : end;
+        return end >= 0;
+    }
+
+    /**
+     * Retourne les parties du fichier sous forme de Stream, indépendamment de next.
+     * L'objet fourni pour chaque partie est réutilisé pour les suivantes : il ne doit pas être conservé.
+     * Le Stream peut être rendu parallèle par parallel() ; chaque fil reçoit alors son propre objet.
+     *
+     * @return le Stream des parties.
+     */
+    public Stream<PgnGame> games() {
+        return StreamSupport.stream(new GameSpliterator(0, this.size), false);
+    }
+
+    /**
+     * Lit la partie qui commence à une position, les blancs qui la précèdent étant ignorés.
+     *
+     * @param from la position de départ dans le fichier.
+     * @param limit la position avant laquelle la partie doit commencer.
+     * @param game l'objet à réutiliser pour la partie.
+     * @return la position qui suit la partie, ou -1 s'il n'y a plus de partie avant limit.
+     */
+    private long readGame(long from, long limit, PgnGame game) {
+        long start = from;
+        while (start < limit && isWhitespace(this.byteAt(start))) {
+            start++;
+        }
+        if (start >= limit) {
+            return -1;
+        }
+        int segment = (int) (start / SEGMENT_BYTES);
+        long base = segment * SEGMENT_BYTES;
+        ByteText text = this.segments[segment];
+        int end = parseGame(text, (int) (start - base), game, start);
+        if (end == text.length() && base + end < this.size) {
+            throw new IllegalArgumentException("Partie trop longue à l'octet " + start + ".");
+        }
+        return base + end;
+    }
+
+    /**
+     * Retourne l'octet d'une position du fichier.
+     *
+     * @param offset la position.
+     * @return l'octet, comme caractère.
+     */
+    private char byteAt(long offset) {
+        int segment = (int) (offset / SEGMENT_BYTES);
+        return this.segments[segment].charAt((int) (offset - segment * SEGMENT_BYTES));
+    }
+
+    /**
+     * Cherche le début de partie suivant : un en-tête en début de ligne, précédé d'une ligne vide.
+     *
+     * @param from la position de départ.
+     * @param limit la fin de la recherche.
+     * @return la position du « [ » ouvrant la partie, ou limit s'il n'y en a pas.
+     */
+    private long nextGameStart(long from, long limit) {
+        for (long offset = Math.max(from, 2); offset < limit; offset++) {
+            if (this.byteAt(offset) != '[' || this.byteAt(offset - 1) != '\n') {
+                continue;
+            }
+            long previous = offset - 2;
+            while (previous >= 0 && isWhitespace(this.byteAt(previous)) && this.byteAt(previous) != '\n') {
+                previous--;
+            }
+            if (previous < 0 || this.byteAt(previous) == '\n') {
+                return offset;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Lit une partie : ses en-têtes, puis ses coups jusqu'au résultat ou jusqu'aux en-têtes de la partie suivante.
+     *
+     * @param text le segment du fichier.
+     * @param index le début de la partie dans le segment.
+     * @param game l'objet à réutiliser pour la partie.
+     * @param offset le début de la partie dans le fichier.
+     * @return la position qui suit la partie dans le segment.
+     */
+    private static int parseGame(ByteText text, int index, PgnGame game, long offset) {
+        int limit = text.length();
+        game.reset(text, offset);
+        Board board = game.getBoard();
+
+        // En-têtes
+        while (index < limit && text.charAt(index) == '[') {
+            index = skipWhitespace(text, parseTag(text, index + 1, game), limit);
+        }
+        game.loadStartPosition(board);
+
+        // Coups
+        MoveList moves = game.getLegalMoves();
+        while (index < limit) {
+            char c = text.charAt(index);
+            if (isWhitespace(c)) {
+                index++;
+            } else if (c == '[') {
+                // En-têtes de la partie suivante : la partie courante n'avait pas de résultat
+                break;
+            } else if (c == '{') {
+                index = indexOf(text, '}', index, limit) + 1;
+            } else if (c == ';' || (c == '%' && (index == 0 || text.charAt(index - 1) == '\n'))) {
+                index = indexOf(text, '\n', index, limit);
+            } else if (c == '(') {
+                index = skipVariation(text, index, limit);
+            } else if (c == '$') {
+                index = skipDigits(text, index + 1, limit);
+            } else {
+                int end = tokenEnd(text, index, limit);
+                String result = resultOf(text, index, end);
+                if (result != null) {
+                    game.setResult(result);
+                    return end;
+                }
+                // Numéro du coup, éventuellement collé au coup : « 12. », « 12... » ou « 12.Nf3 »
+                int san = skipDigits(text, index, end);
+                if (san > index) {
+                    while (san < end && text.charAt(san) == '.') {
+                        san++;
+                    }
+                }
+                if (san < end) {
+                    int move = resolveSan(board, moves, text, san, end);
+                    if (move == PackedMove.NONE) {
+                        throw new IllegalArgumentException("Partie à l'octet " + offset + " : coup illégal ou ambigu « "
+                            + text.subSequence(san, end) + " ».");
+                    }
+                    board.makeMove(move);
+                    game.addMove(move);
+                }
+                index = end;
+            }
+        }
+        return Math.min(index, limit);
+    }
+
+    /**
+     * Lit un en-tête de la forme [Nom "Valeur"].
+     *
+     * @param text le segment du fichier.
+     * @param index la position qui suit le « [ ».
+     * @param game la partie à laquelle ajouter l'en-tête.
+     * @return la position qui suit le « ] ».
+     */
+    private static int parseTag(ByteText text, int index, PgnGame game) {
+        int limit = text.length();
+        int nameStart = skipWhitespace(text, index, limit);
+        int nameEnd = nameStart;
+        while (nameEnd < limit && !isWhitespace(text.charAt(nameEnd)) && text.charAt(nameEnd) != '"') {
+            nameEnd++;
+        }
+        int valueStart = skipWhitespace(text, nameEnd, limit);
+        if (valueStart >= limit || text.charAt(valueStart) != '"') {
+            throw new IllegalArgumentException("En-tête PGN mal formé : « " + text.subSequence(nameStart,
+                Math.min(limit, nameEnd + 1)) + " ».");
+        }
+        valueStart++;
+        int valueEnd = valueStart;
+        while (valueEnd < limit && text.charAt(valueEnd) != '"') {
+            // Un guillemet ou une barre oblique inverse peuvent être échappés
+            valueEnd += (text.charAt(valueEnd) == '\\') ? 2 : 1;
+        }
+        valueEnd = Math.min(valueEnd, limit);
+        game.addTag(nameStart, nameEnd, valueStart, valueEnd);
+        return indexOf(text, ']', valueEnd, limit) + 1;
+    }
+
+    /**
+     * Retrouve parmi les mouvements légaux le mouvement désigné par un coup en notation SAN,
+     * par exemple « e4 », « Nbd7 », « exd6 », « R1e2+ », « e8=Q » ou « O-O-O ».
+     * Seuls les mouvements légaux arrivant sur la case du coup sont générés.
+     *
+     * @param board l'échiquier.
+     * @param moves la liste de travail.
+     * @param text le texte.
+     * @param start le début du coup.
+     * @param end la fin du coup.
+     * @return le mouvement encodé, ou PackedMove.NONE s'il est illégal, ambigu ou mal formé.
+     */
+    static int resolveSan(Board board, MoveList moves, CharSequence text, int start, int end) {
+        // Échec, mat et annotations
+        while (end > start && "+#!?".indexOf(text.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end - start < 2) {
+            return PackedMove.NONE;
+        }
+
+        char first = text.charAt(start);
+        if (first == 'O' || first == '0') {
+            // Petit roque « O-O » ou grand roque « O-O-O »
+            int column = (end - start >= 5) ? 2 : 6;
+            int row = (board.getSideToMove() == Color.WHITE) ? 0 : 7;
+            MoveGenerator.generateLegalMovesTo(board, Bitboards.square(row, column), moves);
+            for (int i = 0; i < moves.size(); i++) {
+                int move = moves.get(i);
+                if (PackedMove.isCastling(move) && Bitboards.columnOf(PackedMove.to(move)) == column) {
+                    return move;
+                }
+            }
+            return PackedMove.NONE;
+        }
+
+        PieceType piece = pieceOf(first);
+        if (piece != null) {
+            start++;
+        } else {
+            piece = PieceType.PAWN;
+        }
+
+        // Promotion, avec ou sans « = »
+        PieceType promotion = null;
+        if (piece == PieceType.PAWN) {
+            char last = text.charAt(end - 1);
+            boolean withEquals = end - start >= 2 && text.charAt(end - 2) == '=';
+            PieceType promoted = pieceOf(withEquals ? Character.toUpperCase(last) : last);
+            if (promoted != null && promoted != PieceType.KING) {
+                promotion = promoted;
+                end -= withEquals ? 2 : 1;
+            }
+        }
+
+        // Case d'arrivée, puis colonne et rangée de départ éventuelles
+        if (end - start < 2) {
+            return PackedMove.NONE;
+        }
+        int toColumn = text.charAt(end - 2) - 'a';
+        int toRow = text.charAt(end - 1) - '1';
+        if (toColumn < 0 || toColumn > 7 || toRow < 0 || toRow > 7) {
+            return PackedMove.NONE;
+        }
+        int fromColumn = -1;
+        int fromRow = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = text.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromColumn = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRow = c - '1';
+            } else if (c != 'x' && c != '-' && c != ':') {
+                return PackedMove.NONE;
+            }
+        }
+
+        // Seuls les mouvements qui arrivent sur la case sont générés
+        int to = Bitboards.square(toRow, toColumn);
+        MoveGenerator.generateLegalMovesTo(board, to, moves);
+        int found = PackedMove.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) != to || PackedMove.piece(move) != piece || PackedMove.promotion(move) != promotion
+                    || (fromColumn >= 0 && Bitboards.columnOf(from) != fromColumn)
+                    || (fromRow >= 0 && Bitboards.rowOf(from) != fromRow)) {
+                continue;
+            }
+            if (found != PackedMove.NONE) {
+                return PackedMove.NONE;
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    /**
+     * Retourne le type de pièce désigné par une lettre majuscule de la notation SAN.
+     *
+     * @param c la lettre.
+     * @return le type de pièce, ou null si la lettre n'en désigne pas.
+     */
+    private static PieceType pieceOf(char c) {
+        return switch (c) {
+            case 'N' -> PieceType.KNIGHT;
+            case 'B' -> PieceType.BISHOP;
+            case 'R' -> PieceType.ROOK;
+            case 'Q' -> PieceType.QUEEN;
+            case 'K' -> PieceType.KING;
+            default -> null;
+        };
+    }
+
+    /**
+     * Indique si un lexème est un résultat de partie.
+     *
+     * @param text le texte.
+     * @param start le début du lexème.
+     * @param end la fin du lexème.
+     * @return le résultat, ou null si le lexème n'en est pas un.
+     */
+    private static String resultOf(CharSequence text, int start, int end) {
+        for (String result : RESULTS) {
+            if (result.length() != end - start) {
+                continue;
+            }
+            int i = 0;
+            while (i < result.length() && text.charAt(start + i) == result.charAt(i)) {
+                i++;
+            }
+            if (i == result.length()) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Ignore une variante entre parenthèses, variantes imbriquées et commentaires compris.
+     *
+     * @param text le texte.
+     * @param index la position de la parenthèse ouvrante.
+     * @param limit la fin du texte.
+     * @return la position qui suit la parenthèse fermante.
+     */
+    private static int skipVariation(CharSequence text, int index, int limit) {
+        int depth = 0;
+        while (index < limit) {
+            char c = text.charAt(index);
+            if (c == '{') {
+                index = indexOf(text, '}', index, limit);
+            } else if (c == ';') {
+                index = indexOf(text, '\n', index, limit);
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return index + 1;
+            }
+            index++;
+        }
+        return limit;
+    }
+
+    /**
+     * Retourne la fin d'un lexème : un blanc ou le début d'un commentaire, d'une variante ou d'une annotation.
+     *
+     * @param text le texte.
+     * @param index le début du lexème.
+     * @param limit la fin du texte.
+     * @return la position qui suit le lexème.
+     */
+    private static int tokenEnd(CharSequence text, int index, int limit) {
+        while (index < limit) {
+            char c = text.charAt(index);
+            if (isWhitespace(c) || c == '{' || c == '(' || c == ')' || c == ';' || c == '$') {
+                break;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Retourne la position d'un caractère.
+     *
+     * @param text le texte.
+     * @param c le caractère recherché.
+     * @param index la position de départ.
+     * @param limit la fin du texte.
+     * @return la position du caractère, ou limit s'il est absent.
+     */
+    private static int indexOf(CharSequence text, char c, int index, int limit) {
+        while (index < limit && text.charAt(index) != c) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Avance au-delà des blancs.
+     *
+     * @param text le texte.
+     * @param index la position de départ.
+     * @param limit la fin du texte.
+     * @return la position du premier caractère qui n'est pas un blanc, ou limit.
+     */
+    private static int skipWhitespace(CharSequence text, int index, int limit) {
+        while (index < limit && isWhitespace(text.charAt(index))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Avance au-delà des chiffres.
+     *
+     * @param text le texte.
+     * @param index la position de départ.
+     * @param limit la fin du texte.
+     * @return la position du premier caractère qui n'est pas un chiffre, ou limit.
+     */
+    private static int skipDigits(CharSequence text, int index, int limit) {
+        while (index < limit && text.charAt(index) >= '0' && text.charAt(index) <= '9') {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Indique si un caractère est un blanc.
+     *
+     * @param c le caractère.
+     * @return true pour une espace, une tabulation ou un saut de ligne, false sinon.
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    /**
+     * Compte les parties et les coups d'un fichier PGN et mesure le débit de relecture,
+     * en séquentiel puis en parallèle.
+     * Arguments : fichier PGN.
+     *
+     * @param args les arguments de la ligne de commande.
+     * @throws IOException si le fichier ne peut pas être lu.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage : PgnReader <parties.pgn>");
+            return;
+        }
+        PgnReader reader = new PgnReader(Path.of(args[0]));
+        PgnGame game = new PgnGame();
+        long start = System.nanoTime();
+        long games = 0;
+        long moves = 0;
+        while (reader.next(game)) {
+            games++;
+            moves += game.getMoveCount();
+        }
+        report("séquentiel", games, moves, System.nanoTime() - start);
+
+        // Le nombre de parties lues en parallèle est compté à part : il doit être égal au nombre séquentiel
+        start = System.nanoTime();
+        LongSummaryStatistics parallel = reader.games().parallel().mapToLong(PgnGame::getMoveCount).summaryStatistics();
+        report("parallèle", parallel.getCount(), parallel.getSum(), System.nanoTime() - start);
+    }
+
+    /**
+     * Affiche le nombre de parties et de coups lus et le débit.
+     *
+     * @param label le mode de lecture.
+     * @param games le nombre de parties.
+     * @param moves le nombre de coups.
+     * @param nanos la durée, en nanosecondes.
+     */
+    private static void report(String label, long games, long moves, long nanos) {
+        System.out.println(label + " : " + games + " parties, " + moves + " coups en " + nanos / 1_000_000 + " ms ("
+            + moves * 1_000_000_000L / Math.max(nanos, 1) + " coups/s)");
+    }
+
+    /**
+     * Portion du fichier lue par un fil, découpée en deux à chaque demande tant qu'elle est assez grande.
+     * Les portions commencent toujours au début d'une partie.
+     */
+    private final class GameSpliterator implements Spliterator<PgnGame> {
+        private long position;
+        private final long end;
+        private PgnGame game;
+
+        /**
+         * Constructeur de la classe GameSpliterator.
+         *
+         * @param position le début de la portion, au début d'une partie.
+         * @param end la fin de la portion, au début d'une partie ou en fin de fichier.
+         */
+        GameSpliterator(long position, long end) {
+            this.position = position;
+            this.end = end;
+        }
+
+        /**
+         * Lit la partie suivante de la portion et la transmet à une action.
+         *
+         * @param action l'action appliquée à la partie.
+         * @return true si une partie a été transmise, false à la fin de la portion.
+         */
+        @Override
+        public boolean tryAdvance(Consumer<? super PgnGame> action) {
+            if (this.game == null) {
+                this.game = new PgnGame();
+            }
+            long next = PgnReader.this.readGame(this.position, this.end, this.game);
+            if (next < 0) {
+                this.position = this.end;
+                return false;
+            }
+            this.position = next;
+            action.accept(this.game);
+            return true;
+        }
+
+        /**
+         * Cède la première moitié de la portion, coupée au début de partie le plus proche du milieu.
+         *
+         * @return la première moitié, ou null si la portion est trop petite pour être découpée.
+         */
+        @Override
+        public Spliterator<PgnGame> trySplit() {
+            if (this.end - this.position < MIN_SPLIT_BYTES) {
+                return null;
+            }
+            long middle = PgnReader.this.nextGameStart(this.position + (this.end - this.position) / 2, this.end);
+            if (middle >= this.end) {
+                return null;
+            }
+            GameSpliterator prefix = new GameSpliterator(this.position, middle);
+            this.position = middle;
+            return prefix;
+        }
+
+        /**
+         * Estime le nombre de parties restant dans la portion.
+         *
+         * @return l'estimation.
+         */
+        @Override
+        public long estimateSize() {
+            return (this.end - this.position) / AVERAGE_GAME_BYTES + 1;
+        }
+
+        /**
+         * Retourne les caractéristiques de la portion.
+         *
+         * @return ORDERED et NONNULL.
+         */
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+}
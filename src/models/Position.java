@@ -1,68 +1,110 @@
-package models;
-
-/**
- * La classe Position représente une position sur un échiquier.
- * Elle contient des informations sur la ligne et la colonne de la position.
- */
-public class Position {
-    private int row;
-    private int column;
-
-    /**
-     * Constructeur de la classe Position.
-     *
-     * @param row la ligne de la position.
-     * @param column la colonne de la position.
-     */
-    public Position(int row, int column) {
-        this.row = row;
-        this.column = column;
-    }
-
-    /**
-     * Vérifie si la position est valide sur un échiquier.
-     *
-     * @return true si la position est valide, false sinon.
-     */
-    public boolean isValid() {
-        return row >= 0 && row < 8 && column >= 0 && column < 8;
-    }
-
-    /**
-     * Retourne la ligne de la position.
-     *
-     * @return la ligne de la position.
-     */
-    public int getRow() { return this.row; }
-
-    /**
-     * Retourne la colonne de la position.
-     *
-     * @return la colonne de la position.
-     */
-    public int getColumn() { return this.column; }
-
-    /**
-     * Vérifie si cette position est égale à un autre objet.
-     *
-     * @param obj l'objet à comparer.
-     * @return true si les positions sont égales, false sinon.
-     */
-    @Override
-    public boolean equals(Object obj) {
-        if (this == obj) return true;
-        if (!(obj instanceof Position)) return false;
-        Position other = (Position) obj;
-        return this.row == other.row && this.column == other.column;
-    }
-
-    /**
-     * Retourne une représentation sous forme de chaîne de caractères de la position.
-     *
-     * @return une représentation sous forme de chaîne de caractères de la position.
-     */
-    @Override
-    public String toString() {
-        return String.format("%c%d", (char)('a' + this.column), this.row + 1);
-    }
-}
+package models;
+
+/**
+ * La classe Position représente une position sur un échiquier.
+ * Elle contient des informations sur la ligne et la colonne de la position.
+ */
+public class Position {
+    private static final Position[] SQUARES = new Position[64];
+    private static final String[] NAMES = new String[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new Position(square >>> 3, square & 7);
+            NAMES[square] = String.valueOf((char) ('a' + (square & 7))) + (char) ('1' + (square >>> 3));
+        }
+    }
+
+    private int row;
+    private int column;
+
+    /**
+     * Constructeur de la classe Position.
+     *
+     * @param row la ligne de la position.
+     * @param column la colonne de la position.
+     */
+    public Position(int row, int column) {
+        this.row = row;
+        this.column = column;
+    }
+
+    /**
+     * Vérifie si la position est valide sur un échiquier.
+     *
+     * @return true si la position est valide, false sinon.
+     */
+    public boolean isValid() {
+        return row >= 0 && row < 8 && column >= 0 && column < 8;
+    }
+
+    /**
+     * Retourne la ligne de la position.
+     *
+     * @return la ligne de la position.
+     */
+    public int getRow() { return this.row; }
+
+    /**
+     * Retourne la colonne de la position.
+     *
+     * @return la colonne de la position.
+     */
+    public int getColumn() { return this.column; }
+
+    /**
+     * Retourne l'indice de case de la position (ligne * 8 + colonne), utilisé par les bitboards.
+     *
+     * @return l'indice de la case, de 0 (a1) à 63 (h8).
+     */
+    public int getSquare() { return this.row * 8 + this.column; }
+
+    /**
+     * Retourne la position partagée correspondant à un indice de case.
+     * Les positions étant immuables, les 64 instances sont créées une seule fois.
+     *
+     * @param square l'indice de la case, de 0 (a1) à 63 (h8).
+     * @return la position correspondante.
+     */
+    public static Position fromSquare(int square) {
+        return SQUARES[square];
+    }
+
+    /**
+     * Vérifie si cette position est égale à un autre objet.
+     *
+     * @param obj l'objet à comparer.
+     * @return true si les positions sont égales, false sinon.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Position)) return false;
+        Position other = (Position) obj;
+        return this.row == other.row && this.column == other.column;
+    }
+
+    /**
+     * Retourne le code de hachage de la position, cohérent avec equals.
+     *
+     * @return le code de hachage de la position.
+     */
+    @Override
+    public int hashCode() {
+        return this.row * 8 + this.column;
+    }
+
+    /**
+     * Retourne une représentation sous forme de chaîne de caractères de la position.
+     * Le nom des cases valides est pris dans une table construite une seule fois.
+     *
+     * @return une représentation sous forme de chaîne de caractères de la position.
+     */
+    @Override
+    public String toString() {
+        if (this.isValid()) {
+            return NAMES[this.getSquare()];
+        }
+        return (char) ('a' + this.column) + String.valueOf(this.row + 1);
+    }
+}
@@ -0,0 +1,105 @@
+package models;
+
+/**
+ * La classe Zobrist fournit les clés aléatoires utilisées pour le hachage de Zobrist des positions.
+ * La clé d'une position est le XOR des clés de chaque pièce sur sa case, du trait, des droits de roque
+ * et de la colonne de prise en passant, ce qui permet de la mettre à jour incrémentalement à chaque mouvement.
+ * Les clés sont tirées d'un générateur à graine fixe afin d'être identiques d'une exécution à l'autre.
+ */
+public final class Zobrist {
+    private static final long[][] PIECE_KEYS = new long[Bitboards.PIECE_BITBOARD_COUNT][64];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    private static final long SIDE_KEY;
+
+    static {
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int index = 0; index < Bitboards.PIECE_BITBOARD_COUNT; index++) {
+            for (int square = 0; square < 64; square++) {
+                seed = nextSeed(seed);
+                PIECE_KEYS[index][square] = mix(seed);
+            }
+        }
+        for (int rights = 0; rights < 16; rights++) {
+            seed = nextSeed(seed);
+            CASTLING_KEYS[rights] = mix(seed);
+        }
+        // L'absence de droit de roque ne modifie pas la clé
+        CASTLING_KEYS[0] = 0L;
+        for (int column = 0; column < 8; column++) {
+            seed = nextSeed(seed);
+            EN_PASSANT_KEYS[column] = mix(seed);
+        }
+        seed = nextSeed(seed);
+        SIDE_KEY = mix(seed);
+    }
+
+    /**
+     * Constructeur privé : classe utilitaire non instanciable.
+     */
+    private Zobrist() {
+    }
+
+    /**
+     * Avance l'état du générateur SplitMix64.
+     *
+     * @param seed l'état courant.
+     * @return l'état suivant.
+     */
+    private static long nextSeed(long seed) {
+        return seed + 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Fonction de mélange de SplitMix64.
+     *
+     * @param z l'état à mélanger.
+     * @return une valeur pseudo-aléatoire de 64 bits.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Retourne la clé d'une pièce sur une case.
+     *
+     * @param type le type de la pièce.
+     * @param color la couleur de la pièce.
+     * @param square l'indice de la case.
+     * @return la clé de Zobrist correspondante.
+     */
+    public static long pieceKey(PieceType type, Color color, int square) {
+        return PIECE_KEYS[Bitboards.index(type, color)][square];
+    }
+
+    /**
+     * Retourne la clé d'un ensemble de droits de roque.
+     *
+     * @param castlingRights les droits de roque (combinaison des constantes de Board).
+     * @return la clé de Zobrist correspondante.
+     */
+    public static long castlingKey(int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * Retourne la clé d'une colonne de prise en passant.
+     *
+     * @param column la colonne de la case de prise en passant.
+     * @return la clé de Zobrist correspondante.
+     */
+    public static long enPassantKey(int column) {
+        return EN_PASSANT_KEYS[column];
+    }
+
+    /**
+     * Retourne la clé appliquée lorsque les noirs ont le trait.
+     *
+     * @return la clé de Zobrist du trait.
+     */
+    public static long sideKey() {
+        return SIDE_KEY;
+    }
+}
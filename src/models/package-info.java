@@ -1,6 +1,6 @@
-/**
- * Le package 'models' contient les classes représentant les modèles de données du jeu d'échecs.
- * Ces classes incluent les représentations des pièces, de l'échiquier, des positions, des couleurs,
- * des types de pièces, et des statuts de jeu. Elles forment la base de la logique du jeu et de la gestion de l'état.
- */
-package models;
+/**
+ * Le package 'models' contient les classes représentant les modèles de données du jeu d'échecs.
+ * Ces classes incluent les représentations des pièces, de l'échiquier, des positions, des couleurs,
+ * des types de pièces, et des statuts de jeu. Elles forment la base de la logique du jeu et de la gestion de l'état.
+ */
+package models;
@@ -0,0 +1,311 @@
+package strategies;
+
+import models.Color;
+
+/**
+ * La classe AttackTables contient les tables d'attaques précalculées au démarrage.
+ * Les attaques des cavaliers, des rois et des pions sont lues directement dans des tables indexées par case.
+ * Les attaques des pièces glissantes (tour, fou, dame) sont obtenues par la technique des « magic bitboards » :
+ * l'occupation pertinente est multipliée par un nombre magique puis décalée pour former l'indice
+ * d'une table contenant l'ensemble des cases atteintes, obstacles compris.
+ * Les nombres magiques ont été obtenus hors ligne par recherche aléatoire ; leur absence de collision
+ * destructrice est vérifiée lors du remplissage des tables.
+ */
+public final class AttackTables {
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = {
+        0x008000908064C000L, 0x0040200040001000L, 0x0180100080A0010AL, 0x8880041000800800L,
+        0x1200100201200804L, 0x0200020004011008L, 0x2180010000800600L, 0x0200005088210204L,
+        0x0400800040008021L, 0x0400400020005000L, 0x8240801000200080L, 0x8611001004200900L,
+        0x008180800C001800L, 0x0100800200800400L, 0x0A02000102000408L, 0x8020802300104280L,
+        0x0080004000402000L, 0xE010104000402000L, 0x0800808010002000L, 0xA280210008100100L,
+        0x0001818014000800L, 0xA002010100080400L, 0x0080240001020870L, 0x0001020004048845L,
+        0x0081826280004004L, 0x2020810900284000L, 0x0200100080802000L, 0x0200080080100080L,
+        0x8083080100100500L, 0x4406000901000400L, 0x0005020080800100L, 0x0090204200008114L,
+        0x0010400094800420L, 0x0900804000802002L, 0x0201001841002000L, 0x4100080080801000L,
+        0x4540040080800800L, 0x0002001004040020L, 0x0281195814001002L, 0x1240800040800100L,
+        0x0880042000524004L, 0x02C080410206002CL, 0x0801200241050010L, 0x8400080010008080L,
+        0x0008000500090010L, 0x0082009084020008L, 0x4012000108020004L, 0x9000104D08860004L,
+        0x2004204114800100L, 0x0148802112400300L, 0x0202842000100880L, 0x001B080080900080L,
+        0x001A002008100600L, 0x0004008004020080L, 0x5181000600040300L, 0x0000044401128A00L,
+        0x8044110480002441L, 0x2008110084402202L, 0x90806005090010C1L, 0x000420310A004A42L,
+        0x0023001004020801L, 0x0882001008040102L, 0x000230088118020CL, 0x0000019025040042L
+    };
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] ROOK_ATTACKS;
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = {
+        0x0045010808008680L, 0x2002080204004898L, 0x0210009A10400006L, 0x0824050200810200L,
+        0x0006061105004090L, 0x00010108C0000000L, 0x0814040282104004L, 0x0012012201106800L,
+        0x10823014100C1040L, 0x0080C2088802808CL, 0x0281108410404000L, 0x0101212041826200L,
+        0x0020141028221058L, 0x2201020202200202L, 0x000082A801482000L, 0x0000008401411044L,
+        0x0007103014300404L, 0x0002091110010100L, 0x42140012040C0808L, 0x0800808802004020L,
+        0x90C4004210140000L, 0x0800200900A01000L, 0x00D0400201108810L, 0x80820183814412A0L,
+        0x00A01008202202B4L, 0x01C2021A09500402L, 0x0084440208042400L, 0x800400400C090100L,
+        0xBA10040010802100L, 0xD182009006005000L, 0x5011021001009004L, 0x0020420200510400L,
+        0x0292104000468800L, 0x00043009091C0500L, 0x0280441000020025L, 0x0042820080080080L,
+        0x0440101010010040L, 0x1000900100808080L, 0x0108108120089800L, 0x0044010200012682L,
+        0xC002500420900400L, 0x0040482210710800L, 0x0002060024000200L, 0x0281020A44000800L,
+        0xA0021200A4000200L, 0x0001301000840840L, 0x2868500108444220L, 0x0004111041000200L,
+        0x8044020842080200L, 0x0000220104210200L, 0x0000021201044000L, 0x0000280884040028L,
+        0x4012114010858003L, 0x0000081004082B88L, 0x3892700508208002L, 0x00220A041B060400L,
+        0x0812020284014881L, 0x010434A282103100L, 0x0490400824020800L, 0x4A20002C00208800L,
+        0x000000A011020200L, 0x4002940A02482202L, 0x5100100202140406L, 0x02102000840540C1L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] BISHOP_ATTACKS;
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final int[][] KNIGHT_DELTAS = {
+        {2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}
+    };
+    private static final int[][] KING_DELTAS = {
+        {1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}
+    };
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = leaperAttacks(square, KNIGHT_DELTAS);
+            KING_ATTACKS[square] = leaperAttacks(square, KING_DELTAS);
+            PAWN_ATTACKS[Color.WHITE.ordinal()][square] = leaperAttacks(square, new int[][] {{1, -1}, {1, 1}});
+            PAWN_ATTACKS[Color.BLACK.ordinal()][square] = leaperAttacks(square, new int[][] {{-1, -1}, {-1, 1}});
+        }
+        ROOK_ATTACKS = initSliders(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+        BISHOP_ATTACKS = initSliders(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+        initLines();
+    }
+
+    /**
+     * Constructeur privé : classe utilitaire non instanciable.
+     */
+    private AttackTables() {
+    }
+
+    /**
+     * Retourne les cases attaquées par un cavalier.
+     *
+     * @param square la case du cavalier.
+     * @return le bitboard des cases attaquées.
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * Retourne les cases attaquées par un roi (hors roque).
+     *
+     * @param square la case du roi.
+     * @return le bitboard des cases attaquées.
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Retourne les cases attaquées en diagonale par un pion.
+     *
+     * @param color la couleur du pion.
+     * @param square la case du pion.
+     * @return le bitboard des cases attaquées.
+     */
+    public static long pawnAttacks(Color color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    /**
+     * Retourne les cases atteintes par une tour selon l'occupation de l'échiquier.
+     *
+     * @param square la case de la tour.
+     * @param occupied le bitboard des cases occupées.
+     * @return le bitboard des cases atteintes, premier obstacle de chaque direction compris.
+     */
+    public static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_ATTACKS[ROOK_OFFSETS[square] + index];
+    }
+
+    /**
+     * Retourne les cases atteintes par un fou selon l'occupation de l'échiquier.
+     *
+     * @param square la case du fou.
+     * @param occupied le bitboard des cases occupées.
+     * @return le bitboard des cases atteintes, premier obstacle de chaque direction compris.
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_ATTACKS[BISHOP_OFFSETS[square] + index];
+    }
+
+    /**
+     * Retourne les cases atteintes par une dame selon l'occupation de l'échiquier.
+     *
+     * @param square la case de la dame.
+     * @param occupied le bitboard des cases occupées.
+     * @return le bitboard des cases atteintes, premier obstacle de chaque direction compris.
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Retourne les cases strictement comprises entre deux cases alignées.
+     *
+     * @param from la première case.
+     * @param to la seconde case.
+     * @return le bitboard des cases intermédiaires, ou 0 si les cases ne sont pas alignées.
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * Retourne la ligne complète (rangée, colonne ou diagonale) passant par deux cases alignées.
+     *
+     * @param from la première case.
+     * @param to la seconde case.
+     * @return le bitboard de la ligne d'un bord à l'autre, ou 0 si les cases ne sont pas alignées.
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * Remplit les tables des cases intermédiaires et des lignes à partir des attaques des pièces glissantes.
+     */
+    private static void initLines() {
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                if (from == to) {
+                    continue;
+                }
+                long ends = (1L << from) | (1L << to);
+                if ((rookAttacks(from, 0L) & (1L << to)) != 0L) {
+                    BETWEEN[from][to] = rookAttacks(from, 1L << to) & rookAttacks(to, 1L << from);
+                    LINE[from][to] = (rookAttacks(from, 0L) & rookAttacks(to, 0L)) | ends;
+                } else if ((bishopAttacks(from, 0L) & (1L << to)) != 0L) {
+                    BETWEEN[from][to] = bishopAttacks(from, 1L << to) & bishopAttacks(to, 1L << from);
+                    LINE[from][to] = (bishopAttacks(from, 0L) & bishopAttacks(to, 0L)) | ends;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calcule les cases atteintes par une pièce à déplacements fixes (cavalier, roi, pion).
+     *
+     * @param square la case de la pièce.
+     * @param deltas les déplacements possibles en (ligne, colonne).
+     * @return le bitboard des cases atteintes.
+     */
+    private static long leaperAttacks(int square, int[][] deltas) {
+        int row = square >>> 3;
+        int column = square & 7;
+        long attacks = 0L;
+        for (int[] delta : deltas) {
+            int r = row + delta[0];
+            int c = column + delta[1];
+            if (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                attacks |= 1L << (r * 8 + c);
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Calcule case par case les cases atteintes par une pièce glissante ; sert de référence à l'initialisation.
+     *
+     * @param square la case de la pièce.
+     * @param occupied le bitboard des cases occupées.
+     * @param directions les directions de déplacement.
+     * @return le bitboard des cases atteintes.
+     */
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int r = (square >>> 3) + direction[0];
+            int c = (square & 7) + direction[1];
+            while (r >= 0 && r < 8 && c >= 0 && c < 8) {
+                long bit = 1L << (r * 8 + c);
+                attacks |= bit;
+                if ((occupied & bit) != 0L) {
+                    break;
+                }
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Calcule les cases dont l'occupation influence les attaques d'une pièce glissante (bords exclus).
+     *
+     * @param square la case de la pièce.
+     * @param directions les directions de déplacement.
+     * @return le masque d'occupation pertinente.
+     */
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0L;
+        for (int[] direction : directions) {
+            int r = (square >>> 3) + direction[0];
+            int c = (square & 7) + direction[1];
+            while (r + direction[0] >= 0 && r + direction[0] < 8 && c + direction[1] >= 0 && c + direction[1] < 8) {
+                mask |= 1L << (r * 8 + c);
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Remplit la table d'attaques d'une pièce glissante à partir de ses nombres magiques.
+     *
+     * @param directions les directions de déplacement de la pièce.
+     * @param masks les masques d'occupation à remplir.
+     * @param magics les nombres magiques de chaque case.
+     * @param shifts les décalages à remplir.
+     * @param offsets les positions de début de chaque case dans la table à remplir.
+     * @return la table d'attaques de toutes les cases.
+     * @throws IllegalStateException si un nombre magique produit une collision destructrice.
+     */
+    private static long[] initSliders(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int total = 0;
+        for (int square = 0; square < 64; square++) {
+            masks[square] = relevantMask(square, directions);
+            shifts[square] = 64 - Long.bitCount(masks[square]);
+            offsets[square] = total;
+            total += 1 << Long.bitCount(masks[square]);
+        }
+
+        long[] table = new long[total];
+        boolean[] filled = new boolean[total];
+        for (int square = 0; square < 64; square++) {
+            long mask = masks[square];
+            // Énumère tous les sous-ensembles du masque (méthode « Carry-Rippler »)
+            long subset = 0L;
+            do {
+                int index = offsets[square] + (int) ((subset * magics[square]) >>> shifts[square]);
+                long attacks = slidingAttacks(square, subset, directions);
+                if (filled[index] && table[index] != attacks) {
+                    throw new IllegalStateException("Invalid magic number for square " + square);
+                }
+                filled[index] = true;
+                table[index] = attacks;
+                subset = (subset - mask) & mask;
+            } while (subset != 0L);
+        }
+        return table;
+    }
+}
@@ -1,80 +1,91 @@
-package strategies;
-
-import models.Game;
-import models.Piece;
-import models.PieceType;
-import models.Position;
-
-/**
- * La classe KingMoveStrategy représente la stratégie de mouvement d'un roi dans un jeu d'échecs.
- * Elle implémente l'interface MoveStrategy pour définir les mouvements spécifiques du roi, y compris le roque.
- */
-public class KingMoveStrategy implements MoveStrategy {
-    private Position position;
-    private boolean hasMoved;
-
-    /**
-     * Constructeur de la classe KingMoveStrategy.
-     *
-     * @param position la position initiale du roi.
-     * @param hasMoved indique si le roi a déjà été déplacé.
-     */
-    public KingMoveStrategy(Position position, boolean hasMoved) {
-        this.position = position;
-        this.hasMoved = hasMoved;
-    }
-
-    /**
-     * Vérifie si un mouvement vers une nouvelle position est valide pour le roi.
-     *
-     * @param newPosition la nouvelle position à vérifier.
-     * @return true si le mouvement est valide, false sinon.
-     */
-    @Override
-    public boolean isValidMove(Position newPosition) {
-        int rowDiff = Math.abs(newPosition.getRow() - this.position.getRow());
-        int colDiff = Math.abs(newPosition.getColumn() - this.position.getColumn());
-
-        // Mouvement normal
-        if (rowDiff <= 1 && colDiff <= 1) {
-            return true;
-        }
-
-        // Roque
-        if (!hasMoved && rowDiff == 0 && colDiff == 2) {
-            int rookColumn = (newPosition.getColumn() > this.position.getColumn()) ? 7 : 0;
-            Position rookPos = new Position(this.position.getRow(), rookColumn);
-            Piece rook = Game.getGameInstance().getBoard().getPiece(rookPos);
-
-            if (rook != null && rook.getType() == PieceType.ROOK && !rook.hasMoved()) {
-                // Vérifie si le chemin est libre
-                int step = (rookColumn == 7) ? 1 : -1;
-                for (int col = this.position.getColumn() + step; col != rookColumn; col += step) {
-                    if (Game.getGameInstance().getBoard().getPiece(new Position(this.position.getRow(), col)) != null) {
-                        return false;
-                    }
-                }
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Retourne la position actuelle du roi.
-     *
-     * @return la position actuelle du roi.
-     */
-    public Position getPosition() {
-        return position;
-    }
-
-    /**
-     * Définit la position du roi.
-     *
-     * @param position la nouvelle position du roi.
-     */
-    public void setPosition(Position position) {
-        this.position = position;
-    }
-}
+package strategies;
+
+import models.Board;
+import models.Color;
+import models.Position;
+
+/**
+ * La classe KingMoveStrategy représente la stratégie de mouvement d'un roi dans un jeu d'échecs.
+ * Elle implémente l'interface MoveStrategy pour définir les mouvements spécifiques du roi, y compris le roque.
+ * La possibilité de roquer est lue dans les droits de roque tenus par l'échiquier.
+ */
+public class KingMoveStrategy implements MoveStrategy {
+    private Color color;
+    private Position position;
+
+    /**
+     * Constructeur de la classe KingMoveStrategy.
+     *
+     * @param color la couleur du roi.
+     * @param position la position initiale du roi.
+     */
+    public KingMoveStrategy(Color color, Position position) {
+        this.color = color;
+        this.position = position;
+    }
+
+    /**
+     * Vérifie si un mouvement vers une nouvelle position est valide pour le roi.
+     *
+     * @param board l'échiquier sur lequel se trouve le roi.
+     * @param newPosition la nouvelle position à vérifier.
+     * @return true si le mouvement est valide, false sinon.
+     */
+    @Override
+    public boolean isValidMove(Board board, Position newPosition) {
+        if (!newPosition.isValid()) {
+            return false;
+        }
+
+        // Mouvement normal
+        if ((AttackTables.kingAttacks(this.position.getSquare()) & (1L << newPosition.getSquare())) != 0L) {
+            return true;
+        }
+
+        int rowDiff = Math.abs(newPosition.getRow() - this.position.getRow());
+        int colDiff = Math.abs(newPosition.getColumn() - this.position.getColumn());
+
+        // Roque, depuis la case de départ du roi et si le droit correspondant est conservé
+        int homeRow = (this.color == Color.WHITE) ? 0 : 7;
+        if (this.position.getRow() == homeRow && this.position.getColumn() == 4 && rowDiff == 0 && colDiff == 2) {
+            boolean kingside = newPosition.getColumn() > this.position.getColumn();
+            int right = (this.color == Color.WHITE)
+                ? (kingside ? Board.WHITE_KINGSIDE : Board.WHITE_QUEENSIDE)
+                : (kingside ? Board.BLACK_KINGSIDE : Board.BLACK_QUEENSIDE);
+            if ((board.getCastlingRights() & right) != 0) {
+                // Vérifie si le chemin est libre : les cases entre le roi et la tour sont celles que la tour
+                // atteint depuis sa case en direction du roi, le roi étant le premier obstacle
+                int rookSquare = homeRow * 8 + (kingside ? 7 : 0);
+                long between = AttackTables.rookAttacks(rookSquare, 1L << this.position.getSquare())
+                    & AttackTables.rookAttacks(this.position.getSquare(), 1L << rookSquare);
+                if ((board.getOccupied() & between) != 0L) {
+                    return false;
+                }
+
+                // Le roi ne peut ni roquer en échec ni traverser une case attaquée
+                Color opponent = (this.color == Color.WHITE) ? Color.BLACK : Color.WHITE;
+                Position passed = Position.fromSquare(this.position.getSquare() + (kingside ? 1 : -1));
+                return !board.isUnderAttack(this.position, opponent) && !board.isUnderAttack(passed, opponent);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retourne la position actuelle du roi.
+     *
+     * @return la position actuelle du roi.
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * Définit la position du roi.
+     *
+     * @param position la nouvelle position du roi.
+     */
+    public void setPosition(Position position) {
+        this.position = position;
+    }
+}
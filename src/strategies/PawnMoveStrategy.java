@@ -1,81 +1,86 @@
-package strategies;
-
-import models.Color;
-import models.Game;
-import models.Piece;
-import models.Position;
-
-/**
- * La classe PawnMoveStrategy représente la stratégie de mouvement d'un pion dans un jeu d'échecs.
- * Elle implémente l'interface MoveStrategy pour définir les mouvements spécifiques du pion, y compris les mouvements en avant et les captures.
- */
-public class PawnMoveStrategy implements MoveStrategy {
-    private Color color;
-    private Position position;
-    private boolean hasMoved;
-
-    /**
-     * Constructeur de la classe PawnMoveStrategy.
-     *
-     * @param color la couleur du pion.
-     * @param position la position initiale du pion.
-     * @param hasMoved indique si le pion a déjà été déplacé.
-     */
-    public PawnMoveStrategy(Color color, Position position, boolean hasMoved) {
-        this.color = color;
-        this.position = position;
-        this.hasMoved = hasMoved;
-    }
-
-    /**
-     * Vérifie si un mouvement vers une nouvelle position est valide pour le pion.
-     *
-     * @param newPosition la nouvelle position à vérifier.
-     * @return true si le mouvement est valide, false sinon.
-     */
-    @Override
-    public boolean isValidMove(Position newPosition) {
-        int direction = (this.color == Color.WHITE) ? 1 : -1;
-        int rowDiff = newPosition.getRow() - this.position.getRow();
-        int colDiff = Math.abs(newPosition.getColumn() - this.position.getColumn());
-
-        // Mouvement en avant
-        if (colDiff == 0) {
-            // Avancer d'une case
-            if (rowDiff == direction && Game.getGameInstance().getBoard().getPiece(newPosition) == null) {
-                return true;
-            }
-            // Avancer de deux cases initialement
-            if (!hasMoved && rowDiff == 2 * direction) {
-                Position intermediate = new Position(this.position.getRow() + direction, this.position.getColumn());
-                return Game.getGameInstance().getBoard().getPiece(intermediate) == null && Game.getGameInstance().getBoard().getPiece(newPosition) == null;
-            }
-        }
-        // Capture
-        else if (colDiff == 1 && rowDiff == direction) {
-            Piece targetPiece = Game.getGameInstance().getBoard().getPiece(newPosition);
-            return targetPiece != null && targetPiece.getColor() != color;
-        }
-        return false;
-    }
-
-    /**
-     * Retourne la position actuelle du pion.
-     *
-     * @return la position actuelle du pion.
-     */
-    @Override
-    public Position getPosition() {
-        return position;
-    }
-
-    /**
-     * Définit la position du pion.
-     *
-     * @param position la nouvelle position du pion.
-     */
-    @Override
-    public void setPosition(Position position) {
-        this.position = position;
-    }
-}
+package strategies;
+
+import models.Board;
+import models.Color;
+import models.Piece;
+import models.Position;
+
+/**
+ * La classe PawnMoveStrategy représente la stratégie de mouvement d'un pion dans un jeu d'échecs.
+ * Elle implémente l'interface MoveStrategy pour définir les mouvements spécifiques du pion, y compris les mouvements en avant et les captures.
+ * Le double pas n'est autorisé que depuis la rangée de départ, et la prise en passant est reconnue
+ * grâce à la case de prise en passant tenue par l'échiquier.
+ */
+public class PawnMoveStrategy implements MoveStrategy {
+    private Color color;
+    private Position position;
+
+    /**
+     * Constructeur de la classe PawnMoveStrategy.
+     *
+     * @param color la couleur du pion.
+     * @param position la position initiale du pion.
+     */
+    public PawnMoveStrategy(Color color, Position position) {
+        this.color = color;
+        this.position = position;
+    }
+
+    /**
+     * Vérifie si un mouvement vers une nouvelle position est valide pour le pion.
+     *
+     * @param board l'échiquier sur lequel se trouve le pion.
+     * @param newPosition la nouvelle position à vérifier.
+     * @return true si le mouvement est valide, false sinon.
+     */
+    @Override
+    public boolean isValidMove(Board board, Position newPosition) {
+        int direction = (this.color == Color.WHITE) ? 1 : -1;
+        int rowDiff = newPosition.getRow() - this.position.getRow();
+        int colDiff = Math.abs(newPosition.getColumn() - this.position.getColumn());
+
+        // Mouvement en avant
+        if (colDiff == 0) {
+            // Avancer d'une case
+            if (rowDiff == direction && board.getPiece(newPosition) == null) {
+                return true;
+            }
+            // Avancer de deux cases depuis la rangée de départ
+            int startRow = (this.color == Color.WHITE) ? 1 : 6;
+            if (this.position.getRow() == startRow && rowDiff == 2 * direction) {
+                Position intermediate = new Position(this.position.getRow() + direction, this.position.getColumn());
+                return board.getPiece(intermediate) == null && board.getPiece(newPosition) == null;
+            }
+        }
+        // Capture
+        else if ((AttackTables.pawnAttacks(this.color, this.position.getSquare()) & (1L << newPosition.getSquare())) != 0L) {
+            Piece targetPiece = board.getPiece(newPosition);
+            if (targetPiece == null) {
+                // Prise en passant, possible uniquement pour le camp au trait
+                return newPosition.getSquare() == board.getEnPassantSquare() && board.getSideToMove() == this.color;
+            }
+            return targetPiece.getColor() != color;
+        }
+        return false;
+    }
+
+    /**
+     * Retourne la position actuelle du pion.
+     *
+     * @return la position actuelle du pion.
+     */
+    @Override
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * Définit la position du pion.
+     *
+     * @param position la nouvelle position du pion.
+     */
+    @Override
+    public void setPosition(Position position) {
+        this.position = position;
+    }
+}
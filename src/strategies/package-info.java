@@ -1,7 +1,7 @@
-/**
- * Le package 'strategies' contient les classes représentant les différentes stratégies de mouvement des pièces dans le jeu d'échecs.
- * Ces classes implémentent l'interface `MoveStrategy` pour définir les règles de mouvement spécifiques à chaque type de pièce.
- * Elles permettent de séparer la logique de mouvement des pièces de la logique principale du jeu, facilitant ainsi
- * la maintenance et l'extension du code.
- */
+/**
+ * Le package 'strategies' contient les classes représentant les différentes stratégies de mouvement des pièces dans le jeu d'échecs.
+ * Ces classes implémentent l'interface `MoveStrategy` pour définir les règles de mouvement spécifiques à chaque type de pièce.
+ * Elles permettent de séparer la logique de mouvement des pièces de la logique principale du jeu, facilitant ainsi
+ * la maintenance et l'extension du code.
+ */
 package strategies;
\ No newline at end of file
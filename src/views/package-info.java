@@ -1,7 +1,7 @@
-/**
- * Le package 'views' contient les classes responsables de l'affichage et de l'interaction utilisateur dans le jeu d'échecs.
- * Ces classes implémentent les interfaces `ChessView` et `Observer` pour gérer l'affichage de l'échiquier,
- * les messages, les erreurs, et les interactions avec l'utilisateur. Elles permettent de visualiser l'état du jeu
- * et de fournir une interface utilisateur conviviale.
- */
-package views;
+/**
+ * Le package 'views' contient les classes responsables de l'affichage et de l'interaction utilisateur dans le jeu d'échecs.
+ * Ces classes implémentent les interfaces `ChessView` et `Observer` pour gérer l'affichage de l'échiquier,
+ * les messages, les erreurs, et les interactions avec l'utilisateur. Elles permettent de visualiser l'état du jeu
+ * et de fournir une interface utilisateur conviviale.
+ */
+package views;